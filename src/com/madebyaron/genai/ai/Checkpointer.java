@@ -0,0 +1,249 @@
+package com.madebyaron.genai.ai;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * This class saves checkpoints of a pool every given number of generations.
+ * The networks are snapshotted on the calling thread (which is cheap as the pool
+ * is copy-on-write) and written to the disk on a background thread,
+ * so the evaluation doesn't have to pause. Only the latest checkpoints are kept.
+ */
+public final class Checkpointer {
+
+	private static final String PREFIX = "checkpoint-";
+	private static final String SUFFIX = ".pool";
+	private static final String TEMPORARY_SUFFIX = ".tmp";
+
+	private final File directory;
+	private final int interval;
+	private final int keep;
+	private volatile boolean compressed = false;
+
+	private final List<Listener> listeners = new LinkedList<>();
+
+	private final AtomicBoolean writing = new AtomicBoolean(false);
+	private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+		Thread thread = new Thread(runnable, "Checkpointer");
+		thread.setDaemon(true);
+		return thread;
+	});
+
+	/**
+	 * Creates a checkpointer saving to the given directory.
+	 *
+	 * @param directory The directory of the checkpoints
+	 * @param interval The number of generations between two checkpoints
+	 * @param keep The number of checkpoints to keep
+	 */
+	public Checkpointer(File directory, int interval, int keep) {
+		if (directory == null) throw new NullPointerException("Directory can't be null.");
+		if (interval < 1) throw new IllegalArgumentException("Interval must be positive.");
+		if (keep < 1) throw new IllegalArgumentException("The number of kept checkpoints must be positive.");
+
+		this.directory = directory;
+		this.interval = interval;
+		this.keep = keep;
+	}
+
+	/**
+	 * Returns the latest checkpoint in the given directory.
+	 *
+	 * @param directory The directory of the checkpoints
+	 * @return The latest checkpoint or null if there are none
+	 */
+	public static File getLatest(File directory) {
+		File[] checkpoints = getCheckpoints(directory);
+		return checkpoints.length > 0 ? checkpoints[checkpoints.length - 1] : null;
+	}
+
+	/**
+	 * Returns the directory of the checkpoints.
+	 *
+	 * @return The directory
+	 */
+	public File getDirectory() {
+		return directory;
+	}
+
+	/**
+	 * Sets whether or not the checkpoints should be compressed.
+	 *
+	 * @param compressed True if the checkpoints should be compressed
+	 */
+	public void setCompressed(boolean compressed) {
+		this.compressed = compressed;
+	}
+
+	/**
+	 * Adds a checkpoint listener to this checkpointer.
+	 *
+	 * @param listener The listener
+	 */
+	public void addListener(Listener listener) {
+		synchronized (listeners) {
+			listeners.add(listener);
+		}
+	}
+
+	/**
+	 * Removes a checkpoint listener from this checkpointer.
+	 *
+	 * @param listener The listener
+	 */
+	public void removeListener(Listener listener) {
+		synchronized (listeners) {
+			listeners.remove(listener);
+		}
+	}
+
+	/**
+	 * Snapshots the pool if it's generation is due for a checkpoint
+	 * and writes it in the background. It should be called at the generation boundary.
+	 * If the previous checkpoint is still being written this one is skipped.
+	 *
+	 * @param pool The pool
+	 */
+	public void onGeneration(Pool pool) {
+		int generation = pool.getGeneration();
+		if (generation % interval != 0) return;
+		if (!writing.compareAndSet(false, true)) return;
+
+		String process = pool.getProcess().getName();
+		long seed = pool.getSeed();
+		String selection = pool.getSelectionStrategy().getName();
+		List<Network> networks = pool.getNetworks();
+		boolean compressed = this.compressed;
+
+		executor.execute(() -> {
+			try {
+				File checkpoint = write(process, seed, generation, selection, networks, compressed);
+				synchronized (listeners) {
+					for (Listener listener : listeners) {
+						listener.onCheckpoint(checkpoint, generation);
+					}
+				}
+			} catch (IOException e) {
+				synchronized (listeners) {
+					for (Listener listener : listeners) {
+						listener.onError(e);
+					}
+				}
+			} finally {
+				writing.set(false);
+			}
+		});
+	}
+
+	/**
+	 * Stops the checkpointer after finishing the checkpoint being written.
+	 */
+	public void close() {
+		executor.shutdown();
+		try {
+			executor.awaitTermination(1, TimeUnit.MINUTES);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	/**
+	 * Writes a checkpoint to a temporary file, moves it to it's place
+	 * and deletes the checkpoints that aren't kept.
+	 *
+	 * @param process The pool process' name
+	 * @param seed The pool's seed
+	 * @param generation The pool's generation
+	 * @param selection The name of the pool's selection strategy
+	 * @param networks The pool's networks
+	 * @param compressed Whether or not the checkpoint should be compressed
+	 * @return The checkpoint file
+	 * @throws IOException Any exception thrown while writing
+	 */
+	private File write(String process, long seed, int generation, String selection, List<Network> networks,
+	                   boolean compressed) throws IOException {
+		Files.createDirectories(directory.toPath());
+
+		File checkpoint = new File(directory, PREFIX + generation + SUFFIX);
+		File temporary = new File(directory, PREFIX + generation + SUFFIX + TEMPORARY_SUFFIX);
+
+		PoolFile.write(temporary, process, seed, generation, selection, networks, compressed, null);
+		try {
+			Files.move(temporary.toPath(), checkpoint.toPath(),
+					StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+		} catch (AtomicMoveNotSupportedException e) {
+			Files.move(temporary.toPath(), checkpoint.toPath(), StandardCopyOption.REPLACE_EXISTING);
+		}
+
+		File[] checkpoints = getCheckpoints(directory);
+		for (int i = 0; i < checkpoints.length - keep; i++) {
+			Files.deleteIfExists(checkpoints[i].toPath());
+		}
+
+		return checkpoint;
+	}
+
+	/**
+	 * Returns the checkpoints in the given directory from the oldest to the latest.
+	 *
+	 * @param directory The directory of the checkpoints
+	 * @return The checkpoint files
+	 */
+	private static File[] getCheckpoints(File directory) {
+		File[] checkpoints = directory.listFiles((dir, name) -> name.startsWith(PREFIX) && name.endsWith(SUFFIX));
+		if (checkpoints == null) return new File[0];
+
+		Arrays.sort(checkpoints, Comparator
+				.comparingLong(File::lastModified)
+				.thenComparingLong(Checkpointer::getGeneration)
+		);
+		return checkpoints;
+	}
+
+	/**
+	 * Returns the generation of a checkpoint from it's file name.
+	 *
+	 * @param checkpoint The checkpoint file
+	 * @return The checkpoint's generation or -1 if the name is malformed
+	 */
+	private static long getGeneration(File checkpoint) {
+		String name = checkpoint.getName();
+		try {
+			return Long.parseLong(name.substring(PREFIX.length(), name.length() - SUFFIX.length()));
+		} catch (NumberFormatException e) {
+			return -1;
+		}
+	}
+
+	/**
+	 * A listener that is listening for the written checkpoints and the errors.
+	 */
+	public interface Listener {
+
+		/**
+		 * Gets called when a checkpoint has been written.
+		 *
+		 * @param file The checkpoint file
+		 * @param generation The checkpoint's generation
+		 */
+		void onCheckpoint(File file, int generation);
+
+		/**
+		 * Gets called if writing a checkpoint fails.
+		 *
+		 * @param exception The exception causing the error
+		 */
+		void onError(IOException exception);
+	}
+}
@@ -0,0 +1,149 @@
+package com.madebyaron.genai.ai;
+
+import com.madebyaron.genai.metrics.QuantileSketch;
+
+/**
+ * The statistics of an evaluation, updated in a single pass as the results arrive:
+ * the lowest and highest evaluation with their networks, the mean, the variance
+ * (with Welford's algorithm) and a streaming estimate of the 10th, 50th and 90th percentiles.
+ * Reading the statistics doesn't iterate the evaluations or allocate anything.
+ */
+public final class EvaluationSummary {
+
+	private static final double[] QUANTILES = {0.1, 0.5, 0.9};
+
+	private int count = 0;
+	private double min = Double.NaN;
+	private double max = Double.NaN;
+	private Network minNetwork = null;
+	private Network maxNetwork = null;
+	private double mean = 0;
+	private double squaredDeviationSum = 0;
+
+	private final QuantileSketch quantiles = new QuantileSketch(QUANTILES);
+
+	EvaluationSummary() {
+
+	}
+
+	/**
+	 * Adds an evaluation to the statistics.
+	 *
+	 * @param network The evaluated network
+	 * @param evaluation The network's evaluation
+	 */
+	void add(Network network, double evaluation) {
+		if (count == 0 || evaluation < min) {
+			min = evaluation;
+			minNetwork = network;
+		}
+		if (count == 0 || evaluation > max) {
+			max = evaluation;
+			maxNetwork = network;
+		}
+
+		count++;
+		double deviation = evaluation - mean;
+		mean += deviation / count;
+		squaredDeviationSum += deviation * (evaluation - mean);
+
+		quantiles.add(evaluation);
+	}
+
+	/**
+	 * Removes every evaluation from the statistics.
+	 */
+	void clear() {
+		count = 0;
+		min = Double.NaN;
+		max = Double.NaN;
+		minNetwork = null;
+		maxNetwork = null;
+		mean = 0;
+		squaredDeviationSum = 0;
+		quantiles.clear();
+	}
+
+	/**
+	 * Returns the number of evaluations.
+	 *
+	 * @return The count
+	 */
+	public int getCount() {
+		return count;
+	}
+
+	/**
+	 * Returns the lowest evaluation.
+	 *
+	 * @return The lowest evaluation or NaN if there are no evaluations
+	 */
+	public double getMin() {
+		return min;
+	}
+
+	/**
+	 * Returns the highest evaluation.
+	 *
+	 * @return The highest evaluation or NaN if there are no evaluations
+	 */
+	public double getMax() {
+		return max;
+	}
+
+	/**
+	 * Returns the network with the lowest evaluation.
+	 *
+	 * @return The network or null if there are no evaluations
+	 */
+	public Network getMinNetwork() {
+		return minNetwork;
+	}
+
+	/**
+	 * Returns the network with the highest evaluation.
+	 *
+	 * @return The network or null if there are no evaluations
+	 */
+	public Network getMaxNetwork() {
+		return maxNetwork;
+	}
+
+	/**
+	 * Returns the mean of the evaluations.
+	 *
+	 * @return The mean or NaN if there are no evaluations
+	 */
+	public double getMean() {
+		return count > 0 ? mean : Double.NaN;
+	}
+
+	/**
+	 * Returns the (population) variance of the evaluations.
+	 *
+	 * @return The variance or NaN if there are no evaluations
+	 */
+	public double getVariance() {
+		return count > 0 ? squaredDeviationSum / count : Double.NaN;
+	}
+
+	/**
+	 * Returns the standard deviation of the evaluations.
+	 *
+	 * @return The standard deviation or NaN if there are no evaluations
+	 */
+	public double getStandardDeviation() {
+		return Math.sqrt(getVariance());
+	}
+
+	/**
+	 * Returns the estimate of the evaluation below which the given fraction of the evaluations fall.
+	 * The 10th, 50th and 90th percentiles are tracked, others are interpolated between them.
+	 *
+	 * @param quantile The quantile between 0 and 1 (e.g. 0.5 for the median)
+	 * @return The estimated evaluation or NaN if there are no evaluations
+	 */
+	public double getQuantile(double quantile) {
+		return quantiles.getQuantile(quantile);
+	}
+}
@@ -0,0 +1,122 @@
+package com.madebyaron.genai.ai;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A bounded cache of the networks' evaluations. The entries are keyed by the content hash
+ * of the networks and the episodes they were evaluated on (the evaluation seed and the episode count),
+ * so a network with the same strengths doesn't have to be evaluated again with the same episodes.
+ * When the cache is full the least recently used entry is evicted.
+ * It should only be used with processes that aren't stochastic.
+ */
+public final class FitnessCache {
+
+	private final int capacity;
+	private final Map<Long, Double> evaluations;
+
+	private long hitCount = 0;
+	private long missCount = 0;
+
+	/**
+	 * Creates an empty cache.
+	 *
+	 * @param capacity The maximum number of cached evaluations
+	 */
+	public FitnessCache(int capacity) {
+		if (capacity < 1) throw new IllegalArgumentException("Capacity must be positive.");
+
+		this.capacity = capacity;
+		evaluations = new LinkedHashMap<Long, Double>(16, 0.75f, true) {
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<Long, Double> eldest) {
+				return size() > FitnessCache.this.capacity;
+			}
+		};
+	}
+
+	/**
+	 * Returns the cached evaluation of the given network on the given episodes.
+	 *
+	 * @param network The network
+	 * @param seed The seed the episodes are derived from
+	 * @param episodeCount The number of episodes
+	 * @return The evaluation or null if it isn't cached
+	 */
+	public synchronized Double get(Network network, long seed, int episodeCount) {
+		Double evaluation = evaluations.get(key(network, seed, episodeCount));
+		if (evaluation != null) {
+			hitCount++;
+		} else {
+			missCount++;
+		}
+		return evaluation;
+	}
+
+	/**
+	 * Caches the evaluation of the given network on the given episodes.
+	 *
+	 * @param network The network
+	 * @param seed The seed the episodes are derived from
+	 * @param episodeCount The number of episodes
+	 * @param evaluation The network's evaluation
+	 */
+	public synchronized void put(Network network, long seed, int episodeCount, double evaluation) {
+		evaluations.put(key(network, seed, episodeCount), evaluation);
+	}
+
+	/**
+	 * Returns the maximum number of cached evaluations.
+	 *
+	 * @return The capacity
+	 */
+	public int getCapacity() {
+		return capacity;
+	}
+
+	/**
+	 * Returns the number of cached evaluations.
+	 *
+	 * @return The size
+	 */
+	public synchronized int getSize() {
+		return evaluations.size();
+	}
+
+	/**
+	 * Returns the number of lookups that found an evaluation.
+	 *
+	 * @return The hit count
+	 */
+	public synchronized long getHitCount() {
+		return hitCount;
+	}
+
+	/**
+	 * Returns the number of lookups that didn't find an evaluation.
+	 *
+	 * @return The miss count
+	 */
+	public synchronized long getMissCount() {
+		return missCount;
+	}
+
+	/**
+	 * Removes every cached evaluation. The counters aren't reset.
+	 */
+	public synchronized void clear() {
+		evaluations.clear();
+	}
+
+	/**
+	 * Returns the key of a network's evaluation on the given episodes.
+	 *
+	 * @param network The network
+	 * @param seed The seed the episodes are derived from
+	 * @param episodeCount The number of episodes
+	 * @return The key
+	 */
+	private static long key(Network network, long seed, int episodeCount) {
+		return RandomSource.mix(RandomSource.mix(network.getContentHash(), seed), episodeCount);
+	}
+}
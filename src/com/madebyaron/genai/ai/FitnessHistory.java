@@ -0,0 +1,196 @@
+package com.madebyaron.genai.ai;
+
+/**
+ * The history of the pool's evaluations with the best, worst and mean evaluation
+ * and a few percentiles of every generation. The generations are stored in ring buffers
+ * of multiple resolutions: the first level holds single generations, every further level holds
+ * buckets merging a fixed number of points of the previous level. Every level has the same capacity,
+ * so the memory is constant no matter how long the run is, and a level covering
+ * the whole history can always be drawn with at most capacity points.
+ */
+public final class FitnessHistory {
+
+	public static final int BEST = 0;
+	public static final int WORST = 1;
+	public static final int MEAN = 2;
+	public static final int LOWER_DECILE = 3;
+	public static final int MEDIAN = 4;
+	public static final int UPPER_DECILE = 5;
+	public static final int SERIES_COUNT = 6;
+
+	private static final int DEFAULT_CAPACITY = 512;
+	private static final int DEFAULT_LEVEL_COUNT = 8;
+	private static final int DEFAULT_FACTOR = 4;
+
+	private final int capacity;
+	private final int factor;
+	private final Level[] levels;
+
+	private long version = 0;
+
+	/**
+	 * Creates an empty history with 8 levels of 512 points each, merging 4 points per level.
+	 * It covers more than 8 million generations before the last level starts to wrap around.
+	 */
+	public FitnessHistory() {
+		this(DEFAULT_CAPACITY, DEFAULT_LEVEL_COUNT, DEFAULT_FACTOR);
+	}
+
+	/**
+	 * Creates an empty history.
+	 *
+	 * @param capacity The number of points stored on every level
+	 * @param levelCount The number of levels
+	 * @param factor The number of points of a level merged into a point of the next level
+	 */
+	public FitnessHistory(int capacity, int levelCount, int factor) {
+		if (capacity < 2) throw new IllegalArgumentException("Capacity must be at least 2.");
+		if (levelCount < 1) throw new IllegalArgumentException("Level count must be positive.");
+		if (factor < 2) throw new IllegalArgumentException("Factor must be at least 2.");
+
+		this.capacity = capacity;
+		this.factor = factor;
+
+		levels = new Level[levelCount];
+		for (int i = 0; i < levelCount; i++) levels[i] = new Level();
+	}
+
+	/**
+	 * Returns the number of points stored on every level.
+	 *
+	 * @return The capacity
+	 */
+	public int getCapacity() {
+		return capacity;
+	}
+
+	/**
+	 * Returns a number that changes whenever a generation is added.
+	 *
+	 * @return The version
+	 */
+	public synchronized long getVersion() {
+		return version;
+	}
+
+	/**
+	 * Adds the statistics of an evaluated generation.
+	 *
+	 * @param generation The generation
+	 * @param summary The summary of the generation's evaluation
+	 */
+	public void add(int generation, EvaluationSummary summary) {
+		if (summary == null) throw new NullPointerException("Summary can't be null.");
+
+		double[] values = new double[SERIES_COUNT];
+		values[BEST] = summary.getMax();
+		values[WORST] = summary.getMin();
+		values[MEAN] = summary.getMean();
+		values[LOWER_DECILE] = summary.getQuantile(0.1);
+		values[MEDIAN] = summary.getQuantile(0.5);
+		values[UPPER_DECILE] = summary.getQuantile(0.9);
+		add(generation, values);
+	}
+
+	/**
+	 * Adds the statistics of an evaluated generation.
+	 *
+	 * @param generation The generation
+	 * @param values The values of every series indexed by the series constants
+	 */
+	public synchronized void add(int generation, double[] values) {
+		if (values == null) throw new NullPointerException("Values can't be null.");
+		if (values.length != SERIES_COUNT) throw new IllegalArgumentException("There must be a value for every series.");
+
+		add(0, generation, values);
+		version++;
+	}
+
+	/**
+	 * Copies the points of the finest level covering the whole history into the given arrays.
+	 * If even the last level has wrapped around, it's latest points are copied.
+	 *
+	 * @param generations The array receiving the first generation of every point (at least capacity long)
+	 * @param values The arrays receiving the values of every series (at least capacity long each)
+	 * @return The number of copied points
+	 */
+	public synchronized int copy(int[] generations, double[][] values) {
+		if (generations == null) throw new NullPointerException("Generations can't be null.");
+		if (values == null) throw new NullPointerException("Values can't be null.");
+
+		Level level = levels[levels.length - 1];
+		for (Level candidate : levels) {
+			if (candidate.addedCount <= capacity) {
+				level = candidate;
+				break;
+			}
+		}
+
+		for (int i = 0; i < level.size; i++) {
+			int index = (level.start + i) % capacity;
+			generations[i] = level.generations[index];
+			for (int series = 0; series < SERIES_COUNT; series++) {
+				values[series][i] = level.values[series][index];
+			}
+		}
+		return level.size;
+	}
+
+	/**
+	 * Adds a point to a level and merges it into the next level's pending bucket.
+	 *
+	 * @param levelIndex The level's index
+	 * @param generation The first generation of the point
+	 * @param values The point's values
+	 */
+	private void add(int levelIndex, int generation, double[] values) {
+		Level level = levels[levelIndex];
+
+		int index = (level.start + level.size) % capacity;
+		if (level.size < capacity) {
+			level.size++;
+		} else {
+			level.start = (level.start + 1) % capacity;
+		}
+		level.generations[index] = generation;
+		for (int series = 0; series < SERIES_COUNT; series++) {
+			level.values[series][index] = values[series];
+		}
+		level.addedCount++;
+
+		if (levelIndex + 1 == levels.length) return;
+
+		// The best and worst values are kept, the mean and the percentiles are averaged
+		if (level.pendingCount == 0) {
+			level.pendingGeneration = generation;
+			System.arraycopy(values, 0, level.pending, 0, SERIES_COUNT);
+		} else {
+			level.pending[BEST] = Math.max(level.pending[BEST], values[BEST]);
+			level.pending[WORST] = Math.min(level.pending[WORST], values[WORST]);
+			for (int series = MEAN; series < SERIES_COUNT; series++) level.pending[series] += values[series];
+		}
+		level.pendingCount++;
+
+		if (level.pendingCount == factor) {
+			for (int series = MEAN; series < SERIES_COUNT; series++) level.pending[series] /= factor;
+			level.pendingCount = 0;
+			add(levelIndex + 1, level.pendingGeneration, level.pending);
+		}
+	}
+
+	/**
+	 * A ring buffer of points with the same resolution.
+	 */
+	private final class Level {
+
+		final int[] generations = new int[capacity];
+		final double[][] values = new double[SERIES_COUNT][capacity];
+		int start = 0;
+		int size = 0;
+		long addedCount = 0;
+
+		final double[] pending = new double[SERIES_COUNT];
+		int pendingGeneration = 0;
+		int pendingCount = 0;
+	}
+}
@@ -1,57 +1,70 @@
 package com.madebyaron.genai.ai;
 
 import java.io.IOException;
+import java.io.InvalidObjectException;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
 import java.io.Serializable;
+import java.nio.DoubleBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Random;
 
 /**
  * This class represents a neural network.
- * It holds every neuron with the connections between them.
+ * It holds the number of neurons in every layer and the connections between them.
+ * The connection strengths never change after the network is created, so a network can be shared freely.
+ * Networks bred with a {@link Builder} share the blocks of whole layers they have in common with their parents.
  */
-public final class Network implements Serializable {
+public final class Network implements NeuralNetwork, Serializable {
 
 	private static final long serialVersionUID = -4610410720219508540L;
 
-	private transient double[] inputNeurons;
-	private transient double[] outputNeurons;
-	private transient double[][] hiddenNeurons;
+	private static final int MAX_CONNECTION_COUNT = Integer.MAX_VALUE / Double.BYTES;
 
-	private transient double[][] neurons;
+	private transient int[] neuronCounts;
 
 	private double[][][] connections;
 
+	private transient boolean[] sharedLayers;
+
+	private transient long contentHash;
+	private transient volatile boolean contentHashed = false;
+
 	/**
 	 * Initializes the network. Generates the arrays
-	 * for storing the neurons and the connection strengths.
+	 * for storing the connection strengths.
 	 *
 	 * @param inputNeuronCount The number of input neurons
 	 * @param outputNeuronCount The number of output neurons
 	 * @param hiddenNeuronCount The number of hidden neurons as an array where each value is a layer
 	 */
 	private void init(int inputNeuronCount, int outputNeuronCount, int[] hiddenNeuronCount) {
-		inputNeurons = new double[inputNeuronCount];
-		outputNeurons = new double[outputNeuronCount];
-		hiddenNeurons = new double[hiddenNeuronCount.length][];
-		for (int layer = 0; layer < hiddenNeuronCount.length; layer++) {
-			hiddenNeurons[layer] = new double[hiddenNeuronCount[layer]];
-		}
+		init(inputNeuronCount, outputNeuronCount, hiddenNeuronCount, null);
+	}
 
-		neurons = new double[hiddenNeurons.length + 2][];
-		for (int layer = 0; layer < neurons.length; layer++) {
-			if (layer == 0) {
-				neurons[layer] = inputNeurons;
-			} else if (layer == neurons.length - 1) {
-				neurons[layer] = outputNeurons;
-			} else {
-				neurons[layer] = hiddenNeurons[layer - 1];
-			}
-		}
+	/**
+	 * Initializes the network. Takes the connection strengths' storage
+	 * from the recycler if it has a free one, otherwise generates the arrays for storing them.
+	 *
+	 * @param inputNeuronCount The number of input neurons
+	 * @param outputNeuronCount The number of output neurons
+	 * @param hiddenNeuronCount The number of hidden neurons as an array where each value is a layer
+	 * @param recycler The recycler of dropped networks' storage or null to allocate new storage
+	 */
+	private void init(int inputNeuronCount, int outputNeuronCount, int[] hiddenNeuronCount, NetworkRecycler recycler) {
+		neuronCounts = new int[hiddenNeuronCount.length + 2];
+		neuronCounts[0] = inputNeuronCount;
+		System.arraycopy(hiddenNeuronCount, 0, neuronCounts, 1, hiddenNeuronCount.length);
+		neuronCounts[neuronCounts.length - 1] = outputNeuronCount;
 
-		connections = new double[neurons.length - 1][][];
+		connections = new double[neuronCounts.length - 1][][];
 		for (int fromLayer = 0; fromLayer < connections.length; fromLayer++) {
-			connections[fromLayer] = new double[neurons[fromLayer].length][neurons[fromLayer + 1].length];
+			if (recycler != null) connections[fromLayer] = recycler.take(neuronCounts[fromLayer], neuronCounts[fromLayer + 1]);
+			if (connections[fromLayer] == null) {
+				connections[fromLayer] = new double[neuronCounts[fromLayer]][neuronCounts[fromLayer + 1]];
+			}
 		}
 	}
 
@@ -76,6 +89,27 @@ public final class Network implements Serializable {
 		);
 	}
 
+	/**
+	 * Creates a network from the number of neurons and the connection strengths.
+	 * The strengths are read in the same order as they are written by {@link #getConnections(DoubleBuffer)}.
+	 *
+	 * @param inputNeuronCount The number of input neurons
+	 * @param outputNeuronCount The number of output neurons
+	 * @param hiddenNeuronCount The number of hidden neurons as an array where each value is a layer
+	 * @param connections The buffer holding the connection strengths
+	 */
+	public Network(int inputNeuronCount, int outputNeuronCount, int[] hiddenNeuronCount, DoubleBuffer connections) {
+		if (connections == null) throw new NullPointerException("Connections can't be null");
+
+		init(inputNeuronCount, outputNeuronCount, hiddenNeuronCount);
+
+		if (connections.remaining() < getConnectionCount()) {
+			throw new IllegalArgumentException("Not enough connection strengths in the buffer");
+		}
+
+		forEachConnection((fromLayer, fromNeuron, toNeuron, strength) -> connections.get());
+	}
+
 	/**
 	 * Creates a new random network by combining the two parent networks.
 	 * Also randomises the connections using the given parameters.
@@ -89,45 +123,43 @@ public final class Network implements Serializable {
 	 */
 	public Network(Network parentA, Network parentB,
 	               double flipChance, double mutationChance, double mutationStrength, long seed) {
-		if (parentA == null) throw new NullPointerException("Parent can't be null");
-		if (parentB == null) throw new NullPointerException("Parent can't be null");
-
-		if (parentA.getLayerCount() != parentB.getLayerCount()) {
-			throw new IllegalArgumentException("Parent network layer count doesn't match");
-		} else {
-			for (int layer = 0; layer < parentA.getLayerCount(); layer++) {
-				if (parentA.getNeuronCount(layer) != parentB.getNeuronCount(layer)) {
-					throw new IllegalArgumentException("Parent network neuron count doesn't match on layer: " + layer);
-				}
-			}
-		}
-
-		int inputNeuronCount = parentA.getInputNeuronCount();
-		int outputNeuronCount = parentA.getOutputNeuronCount();
-		int[] hiddenNeuronCount = new int[parentA.getHiddenLayerCount()];
-		for (int layer = 0; layer < hiddenNeuronCount.length; layer++) {
-			hiddenNeuronCount[layer] = parentA.getHiddenNeuronCount(layer);
-		}
-		init(inputNeuronCount, outputNeuronCount, hiddenNeuronCount);
-
-		Random random = new Random(seed);
-		forEachConnection((fromLayer, fromNeuron, toNeuron, strength) ->
-				random.nextDouble() < 0.5 ?
-						parentA.connections[fromLayer][fromNeuron][toNeuron] :
-						parentB.connections[fromLayer][fromNeuron][toNeuron]
-		);
+		this(parentA, parentB, flipChance, mutationChance, mutationStrength, seed, null);
+	}
 
-		forEachConnection((fromLayer, fromNeuron, toNeuron, strength) ->
-				random.nextDouble() > flipChance ?
-						strength :
-						-strength
+	/**
+	 * Creates a new random network by combining the two parent networks.
+	 * Also randomises the connections using the given parameters.
+	 * The connection strengths are stored in the storage of a dropped network if the recycler has one.
+	 *
+	 * @param parentA One parent
+	 * @param parentB The other parent
+	 * @param flipChance The chance of a connection strength to get multiplied by -1
+	 * @param mutationChance The chance of a connection strength to mutate
+	 * @param mutationStrength The strength of the mutation (0 = no mutation, 1 = a multiplication from 0.5 to 2.0)
+	 * @param seed The seed for the random generation
+	 * @param recycler The recycler of dropped networks' storage or null to allocate new storage
+	 * @see Builder
+	 */
+	public Network(Network parentA, Network parentB,
+	               double flipChance, double mutationChance, double mutationStrength, long seed,
+	               NetworkRecycler recycler) {
+		this(new Builder(parentA, seed)
+				.recycler(recycler)
+				.crossover(parentB)
+				.flip(flipChance)
+				.mutate(mutationChance, mutationStrength)
 		);
+	}
 
-		forEachConnection((fromLayer, fromNeuron, toNeuron, strength) ->
-				random.nextDouble() > mutationChance ?
-						strength :
-						strength * Math.pow(2, mutationStrength * (random.nextDouble() * 2 - 1))
-		);
+	/**
+	 * Creates a network from the layer blocks of a builder.
+	 *
+	 * @param builder The builder
+	 */
+	private Network(Builder builder) {
+		neuronCounts = builder.neuronCounts;
+		connections = builder.finish();
+		sharedLayers = builder.getSharedLayers();
 	}
 
 	/**
@@ -135,8 +167,9 @@ public final class Network implements Serializable {
 	 *
 	 * @return The input neuron count
 	 */
+	@Override
 	public int getInputNeuronCount() {
-		return inputNeurons.length;
+		return neuronCounts[0];
 	}
 
 	/**
@@ -144,8 +177,9 @@ public final class Network implements Serializable {
 	 *
 	 * @return The output neuron count
 	 */
+	@Override
 	public int getOutputNeuronCount() {
-		return outputNeurons.length;
+		return neuronCounts[neuronCounts.length - 1];
 	}
 
 	/**
@@ -154,7 +188,7 @@ public final class Network implements Serializable {
 	 * @return The hidden layer count
 	 */
 	public int getHiddenLayerCount() {
-		return hiddenNeurons.length;
+		return neuronCounts.length - 2;
 	}
 
 	/**
@@ -164,7 +198,7 @@ public final class Network implements Serializable {
 	 * @return The hidden neuron count
 	 */
 	public int getHiddenNeuronCount(int layer) {
-		return hiddenNeurons[layer].length;
+		return neuronCounts[layer + 1];
 	}
 
 	/**
@@ -172,8 +206,9 @@ public final class Network implements Serializable {
 	 *
 	 * @return The layer count
 	 */
+	@Override
 	public int getLayerCount() {
-		return neurons.length;
+		return neuronCounts.length;
 	}
 
 	/**
@@ -182,25 +217,180 @@ public final class Network implements Serializable {
 	 * @param layer The layer's index
 	 * @return The neuron count
 	 */
+	@Override
 	public int getNeuronCount(int layer) {
-		return neurons[layer].length;
+		return neuronCounts[layer];
+	}
+
+	/**
+	 * Returns whether or not the given network has the same number of neurons in every layer.
+	 *
+	 * @param network The other network
+	 * @return True if the topologies match
+	 */
+	public boolean hasSameTopology(Network network) {
+		if (network == null) throw new NullPointerException("Network can't be null");
+
+		return Arrays.equals(neuronCounts, network.neuronCounts);
+	}
+
+	/**
+	 * Returns the number of connections between the neurons.
+	 *
+	 * @return The connection count
+	 */
+	public int getConnectionCount() {
+		return getConnectionCount(getInputNeuronCount(), getOutputNeuronCount(), hiddenNeuronCounts());
+	}
+
+	/**
+	 * Returns the number of connections of a network with the given number of neurons.
+	 *
+	 * @param inputNeuronCount The number of input neurons
+	 * @param outputNeuronCount The number of output neurons
+	 * @param hiddenNeuronCount The number of hidden neurons as an array where each value is a layer
+	 * @return The connection count
+	 */
+	public static int getConnectionCount(int inputNeuronCount, int outputNeuronCount, int[] hiddenNeuronCount) {
+		int connectionCount = 0;
+		int fromNeuronCount = inputNeuronCount;
+		for (int toNeuronCount : hiddenNeuronCount) {
+			connectionCount += fromNeuronCount * toNeuronCount;
+			fromNeuronCount = toNeuronCount;
+		}
+		return connectionCount + fromNeuronCount * outputNeuronCount;
+	}
+
+	/**
+	 * Writes the connection strengths to the given buffer layer by layer,
+	 * neuron by neuron in the order of the connections' starting neurons.
+	 *
+	 * @param connections The buffer receiving the connection strengths
+	 */
+	public void getConnections(DoubleBuffer connections) {
+		if (connections == null) throw new NullPointerException("Connections can't be null");
+
+		for (double[][] fromLayer : this.connections) {
+			for (double[] fromNeuron : fromLayer) {
+				connections.put(fromNeuron);
+			}
+		}
+	}
+
+	/**
+	 * Returns a 64 bit hash of the network's topology and connection strengths.
+	 * Networks with the same strengths have the same hash. It's calculated once
+	 * as the strengths never change after the network is created.
+	 *
+	 * @return The content hash
+	 */
+	public long getContentHash() {
+		if (!contentHashed) {
+			long hash = RandomSource.mix(getLayerCount(), getInputNeuronCount());
+			for (int layer = 1; layer < getLayerCount(); layer++) {
+				hash = RandomSource.mix(hash, getNeuronCount(layer));
+			}
+
+			for (double[][] fromLayer : connections) {
+				for (double[] fromNeuron : fromLayer) {
+					for (double strength : fromNeuron) {
+						hash = RandomSource.mix(hash, Double.doubleToLongBits(strength));
+					}
+				}
+			}
+
+			contentHash = hash;
+			contentHashed = true;
+		}
+		return contentHash;
+	}
+
+	/**
+	 * Returns the layer blocks storing the connection strengths that aren't shared with another network,
+	 * so they can be recycled after the network is unreachable. They mustn't be modified while the network is in use.
+	 *
+	 * @return The unshared layer blocks
+	 */
+	synchronized List<double[][]> getUnsharedBlocks() {
+		List<double[][]> blocks = new ArrayList<>(connections.length);
+		for (int layer = 0; layer < connections.length; layer++) {
+			if (sharedLayers == null || !sharedLayers[layer]) blocks.add(connections[layer]);
+		}
+		return blocks;
+	}
+
+	/**
+	 * Marks a layer block as shared with another network,
+	 * so it isn't recycled while the other network may still use it.
+	 *
+	 * @param layer The layer's index
+	 */
+	private synchronized void shareLayer(int layer) {
+		if (sharedLayers == null) sharedLayers = new boolean[connections.length];
+		sharedLayers[layer] = true;
+	}
+
+	/**
+	 * Returns the number of hidden neurons in every hidden layer.
+	 *
+	 * @return The hidden neuron count as an array where each value is a layer
+	 */
+	private int[] hiddenNeuronCounts() {
+		int[] hiddenNeuronCount = new int[getHiddenLayerCount()];
+		for (int layer = 0; layer < hiddenNeuronCount.length; layer++) {
+			hiddenNeuronCount[layer] = getHiddenNeuronCount(layer);
+		}
+		return hiddenNeuronCount;
+	}
+
+	/**
+	 * Creates a context holding the neuron values of an evaluation of this network.
+	 *
+	 * @return The new context
+	 */
+	@Override
+	public Context createContext() {
+		return new Context(neuronCounts);
 	}
 
 	/**
 	 * Evaluates the network by giving setting it's input neuron values.
 	 * It returns the output neuron values.
+	 * The neuron values are held in a new context, so it can be called from multiple threads at once.
 	 *
 	 * @param input The input neuron values
 	 * @return The output neuron values
 	 */
+	@Override
 	public double[] evaluate(double[] input) {
+		return evaluate(input, createContext());
+	}
+
+	/**
+	 * Evaluates the network by giving setting it's input neuron values.
+	 * It returns the output neuron values.
+	 * The neuron values are held in the given context, so the network can be evaluated
+	 * in multiple contexts at once (e.g. by multiple threads or in multiple episodes)
+	 * while every context is reused without allocating new neurons.
+	 *
+	 * @param input The input neuron values
+	 * @param context The context holding the neuron values (it can't be used by multiple threads at once)
+	 * @return The output neuron values, which are overwritten by the context's next evaluation
+	 */
+	@Override
+	public double[] evaluate(double[] input, Context context) {
 		if (input == null) throw new NullPointerException("Input can't be null");
+		if (context == null) throw new NullPointerException("Context can't be null");
 
 		if (input.length != getInputNeuronCount()) {
 			throw new IllegalArgumentException("Input size doesn't match input neuron count");
 		}
+		if (!context.matches(neuronCounts)) {
+			throw new IllegalArgumentException("Context doesn't match the network's neuron counts");
+		}
 
-		System.arraycopy(input, 0, inputNeurons, 0, getInputNeuronCount());
+		double[][] neurons = context.neurons;
+		System.arraycopy(input, 0, neurons[0], 0, getInputNeuronCount());
 
 		for (int fromLayer = 0; fromLayer < connections.length; fromLayer++) {
 			double[][] connectionFromLayer = connections[fromLayer];
@@ -216,7 +406,7 @@ public final class Network implements Serializable {
 			}
 		}
 
-		return outputNeurons.clone();
+		return neurons[neurons.length - 1];
 	}
 
 	/**
@@ -251,9 +441,29 @@ public final class Network implements Serializable {
 	private void readObject(ObjectInputStream in) throws IOException {
 		int inputNeuronCount = in.readInt();
 		int outputNeuronCount = in.readInt();
-		int[] hiddenNeuronCount = new int[in.readInt()];
+		int hiddenLayerCount = in.readInt();
+		if (inputNeuronCount < 0 || outputNeuronCount < 0 || hiddenLayerCount < 0) {
+			throw new InvalidObjectException("Negative neuron or layer count");
+		}
+
+		// The layers are read one by one, so a corrupted count can't allocate more than what's actually sent
+		List<Integer> hiddenNeuronCountList = new ArrayList<>();
+		long connectionCount = 0;
+		int fromNeuronCount = inputNeuronCount;
+		for (int layer = 0; layer < hiddenLayerCount; layer++) {
+			int toNeuronCount = in.readInt();
+			if (toNeuronCount < 0) throw new InvalidObjectException("Negative neuron count");
+
+			hiddenNeuronCountList.add(toNeuronCount);
+			connectionCount += (long) fromNeuronCount * toNeuronCount;
+			fromNeuronCount = toNeuronCount;
+		}
+		connectionCount += (long) fromNeuronCount * outputNeuronCount;
+		if (connectionCount > MAX_CONNECTION_COUNT) throw new InvalidObjectException("Too many connections");
+
+		int[] hiddenNeuronCount = new int[hiddenNeuronCountList.size()];
 		for (int layer = 0; layer < hiddenNeuronCount.length; layer++) {
-			hiddenNeuronCount[layer] = in.readInt();
+			hiddenNeuronCount[layer] = hiddenNeuronCountList.get(layer);
 		}
 
 		init(inputNeuronCount, outputNeuronCount, hiddenNeuronCount);
@@ -294,10 +504,277 @@ public final class Network implements Serializable {
 	 * @param value The function parameter
 	 * @return The resulting value
 	 */
-	private double sigmoid(double value) {
+	static double sigmoid(double value) {
 		return 1 - 2 / (1 + Math.pow(Math.E, value));
 	}
 
+	/**
+	 * The neuron values of a network's evaluation. The network itself only holds
+	 * the connection strengths, so every evaluation running at the same time needs it's own context.
+	 * A context can be used with any network of the same neuron counts.
+	 */
+	public static final class Context {
+
+		private final int[] neuronCounts;
+		final double[][] neurons;
+
+		/**
+		 * Creates a context for networks with the given number of neurons.
+		 *
+		 * @param neuronCounts The number of neurons in every layer
+		 */
+		Context(int[] neuronCounts) {
+			this.neuronCounts = neuronCounts;
+
+			neurons = new double[neuronCounts.length][];
+			for (int layer = 0; layer < neurons.length; layer++) neurons[layer] = new double[neuronCounts[layer]];
+		}
+
+		/**
+		 * Returns whether or not the context fits a network with the given number of neurons.
+		 *
+		 * @param neuronCounts The number of neurons in every layer
+		 * @return True if the context fits the network
+		 */
+		boolean matches(int[] neuronCounts) {
+			return this.neuronCounts == neuronCounts || Arrays.equals(this.neuronCounts, neuronCounts);
+		}
+	}
+
+	/**
+	 * Breeds a network from a base network by applying crossovers, flips and mutations in the order they're called.
+	 * Every step draws from the same random generator, so the same steps with the same seed give the same network.
+	 * The layer blocks are copied on write: a layer is only copied when one of it's strengths changes,
+	 * and the layers equal to a parent's layer are shared with the parent instead of being copied.
+	 */
+	public static final class Builder {
+
+		private final int[] neuronCounts;
+		private final Random random;
+		private final List<Network> parents = new ArrayList<>(2);
+
+		private final double[][][] blocks;
+		private final Network[] sources;
+		private NetworkRecycler recycler;
+		private boolean built = false;
+
+		/**
+		 * Creates a builder starting from the given network.
+		 *
+		 * @param network The base network
+		 * @param seed The seed for the random generation
+		 */
+		public Builder(Network network, long seed) {
+			if (network == null) throw new NullPointerException("Parent can't be null");
+
+			neuronCounts = network.neuronCounts;
+			random = new Random(seed);
+			parents.add(network);
+
+			blocks = network.connections.clone();
+			sources = new Network[blocks.length];
+			Arrays.fill(sources, network);
+		}
+
+		/**
+		 * Sets the recycler whose free storage is used for the copied layers.
+		 *
+		 * @param recycler The recycler of dropped networks' storage or null to allocate new storage
+		 * @return This builder
+		 */
+		public Builder recycler(NetworkRecycler recycler) {
+			checkBuilding();
+			this.recycler = recycler;
+			return this;
+		}
+
+		/**
+		 * Replaces every connection strength with the other network's strength with a chance of 0.5.
+		 *
+		 * @param network The other parent
+		 * @return This builder
+		 */
+		public Builder crossover(Network network) {
+			checkParent(network);
+
+			return apply((fromLayer, fromNeuron, toNeuron, strength) ->
+					random.nextDouble() < 0.5 ?
+							strength :
+							network.connections[fromLayer][fromNeuron][toNeuron]
+			);
+		}
+
+		/**
+		 * Replaces every layer with the other network's layer with a chance of 0.5.
+		 * The replaced layers are shared with the other network.
+		 *
+		 * @param network The other parent
+		 * @return This builder
+		 */
+		public Builder crossoverLayers(Network network) {
+			checkParent(network);
+
+			for (int layer = 0; layer < blocks.length; layer++) {
+				if (random.nextDouble() >= 0.5) {
+					blocks[layer] = network.connections[layer];
+					sources[layer] = network;
+				}
+			}
+			return this;
+		}
+
+		/**
+		 * Multiplies the connection strengths by -1 with the given chance.
+		 *
+		 * @param flipChance The chance of a connection strength to get multiplied by -1
+		 * @return This builder
+		 */
+		public Builder flip(double flipChance) {
+			checkBuilding();
+
+			return apply((fromLayer, fromNeuron, toNeuron, strength) ->
+					random.nextDouble() > flipChance ?
+							strength :
+							-strength
+			);
+		}
+
+		/**
+		 * Mutates the connection strengths with the given chance.
+		 *
+		 * @param mutationChance The chance of a connection strength to mutate
+		 * @param mutationStrength The strength of the mutation (0 = no mutation, 1 = a multiplication from 0.5 to 2.0)
+		 * @return This builder
+		 */
+		public Builder mutate(double mutationChance, double mutationStrength) {
+			checkBuilding();
+
+			return apply((fromLayer, fromNeuron, toNeuron, strength) ->
+					random.nextDouble() > mutationChance ?
+							strength :
+							strength * Math.pow(2, mutationStrength * (random.nextDouble() * 2 - 1))
+			);
+		}
+
+		/**
+		 * Creates the network. The builder can't be used after the network is built.
+		 *
+		 * @return The new network
+		 */
+		public Network build() {
+			checkBuilding();
+			return new Network(this);
+		}
+
+		/**
+		 * Shares the copied layers equal to a parent's layer with the parent
+		 * and marks the parents' shared layers.
+		 *
+		 * @return The layer blocks of the new network
+		 */
+		private double[][][] finish() {
+			built = true;
+
+			for (int layer = 0; layer < blocks.length; layer++) {
+				for (int parent = 0; sources[layer] == null && parent < parents.size(); parent++) {
+					if (equals(blocks[layer], parents.get(parent).connections[layer])) {
+						if (recycler != null) recycler.give(blocks[layer]);
+						blocks[layer] = parents.get(parent).connections[layer];
+						sources[layer] = parents.get(parent);
+					}
+				}
+				if (sources[layer] != null) sources[layer].shareLayer(layer);
+			}
+			return blocks;
+		}
+
+		/**
+		 * Returns which of the layers are shared with a parent.
+		 *
+		 * @return The shared layers or null if none of them is shared
+		 */
+		private boolean[] getSharedLayers() {
+			boolean[] sharedLayers = null;
+			for (int layer = 0; layer < sources.length; layer++) {
+				if (sources[layer] != null) {
+					if (sharedLayers == null) sharedLayers = new boolean[sources.length];
+					sharedLayers[layer] = true;
+				}
+			}
+			return sharedLayers;
+		}
+
+		/**
+		 * Applies the iterator on every connection, copying a shared layer when one of it's strengths changes.
+		 *
+		 * @param iterator The connection iterator
+		 * @return This builder
+		 */
+		private Builder apply(ConnectionIterator iterator) {
+			for (int fromLayer = 0; fromLayer < blocks.length; fromLayer++) {
+				for (int fromNeuron = 0; fromNeuron < blocks[fromLayer].length; fromNeuron++) {
+					for (int toNeuron = 0; toNeuron < neuronCounts[fromLayer + 1]; toNeuron++) {
+						double strength = blocks[fromLayer][fromNeuron][toNeuron];
+						double newStrength = iterator.strength(fromLayer, fromNeuron, toNeuron, strength);
+
+						if (Double.doubleToRawLongBits(newStrength) != Double.doubleToRawLongBits(strength)) {
+							if (sources[fromLayer] != null) copy(fromLayer);
+							blocks[fromLayer][fromNeuron][toNeuron] = newStrength;
+						}
+					}
+				}
+			}
+			return this;
+		}
+
+		/**
+		 * Copies a shared layer into a recycled block or into a new block.
+		 *
+		 * @param layer The layer's index
+		 */
+		private void copy(int layer) {
+			double[][] block = recycler != null ? recycler.take(neuronCounts[layer], neuronCounts[layer + 1]) : null;
+			if (block == null) block = new double[neuronCounts[layer]][neuronCounts[layer + 1]];
+
+			for (int fromNeuron = 0; fromNeuron < block.length; fromNeuron++) {
+				System.arraycopy(blocks[layer][fromNeuron], 0, block[fromNeuron], 0, block[fromNeuron].length);
+			}
+			blocks[layer] = block;
+			sources[layer] = null;
+		}
+
+		private void checkParent(Network network) {
+			checkBuilding();
+			if (network == null) throw new NullPointerException("Parent can't be null");
+			if (!Arrays.equals(network.neuronCounts, neuronCounts)) {
+				if (network.getLayerCount() != neuronCounts.length) {
+					throw new IllegalArgumentException("Parent network layer count doesn't match");
+				}
+				for (int layer = 0; layer < neuronCounts.length; layer++) {
+					if (network.getNeuronCount(layer) != neuronCounts[layer]) {
+						throw new IllegalArgumentException("Parent network neuron count doesn't match on layer: " + layer);
+					}
+				}
+			}
+			if (!parents.contains(network)) parents.add(network);
+		}
+
+		private void checkBuilding() {
+			if (built) throw new IllegalStateException("The network has already been built.");
+		}
+
+		private static boolean equals(double[][] a, double[][] b) {
+			for (int fromNeuron = 0; fromNeuron < a.length; fromNeuron++) {
+				for (int toNeuron = 0; toNeuron < a[fromNeuron].length; toNeuron++) {
+					if (Double.doubleToRawLongBits(a[fromNeuron][toNeuron]) != Double.doubleToRawLongBits(b[fromNeuron][toNeuron])) {
+						return false;
+					}
+				}
+			}
+			return true;
+		}
+	}
+
 	/**
 	 * This iterator is used to iterate over every connection in a network.
 	 */
@@ -0,0 +1,170 @@
+package com.madebyaron.genai.ai;
+
+import java.lang.ref.PhantomReference;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A free list of the layer blocks of networks dropped from a pool.
+ * The children bred later take over the blocks instead of allocating new arrays.
+ * As the networks are shared freely (with listeners, checkpoints, migrations and the played network),
+ * a dropped network's blocks are only reused after the garbage collector has found
+ * the network itself unreachable, so a network never changes while it can still be seen.
+ * The blocks shared with other networks are left to the garbage collector.
+ */
+public final class NetworkRecycler {
+
+	private final int capacity;
+
+	private final ReferenceQueue<Network> queue = new ReferenceQueue<>();
+	private final Set<StorageReference> references = Collections.newSetFromMap(new IdentityHashMap<>());
+	private final Map<Long, Deque<double[][]>> freeBlocks = new HashMap<>();
+	private int freeCount = 0;
+
+	private long recycledCount = 0;
+	private long allocatedCount = 0;
+
+	/**
+	 * Creates an empty recycler.
+	 *
+	 * @param capacity The maximum number of tracked networks and free blocks of every shape
+	 */
+	public NetworkRecycler(int capacity) {
+		if (capacity < 0) throw new IllegalArgumentException("Capacity can't be negative.");
+
+		this.capacity = capacity;
+	}
+
+	/**
+	 * Returns the number of layer blocks taken from the free list.
+	 *
+	 * @return The recycled count
+	 */
+	public synchronized long getRecycledCount() {
+		return recycledCount;
+	}
+
+	/**
+	 * Returns the number of layer blocks that had to be allocated.
+	 *
+	 * @return The allocated count
+	 */
+	public synchronized long getAllocatedCount() {
+		return allocatedCount;
+	}
+
+	/**
+	 * Returns the number of layer blocks waiting to be reused.
+	 *
+	 * @return The free count
+	 */
+	public synchronized int getFreeCount() {
+		collect();
+		return freeCount;
+	}
+
+	/**
+	 * Releases the layer blocks of a network dropped from the pool.
+	 * They become free once the network is unreachable.
+	 * The blocks shared with other networks aren't recycled,
+	 * so a released network mustn't be bred from anymore.
+	 *
+	 * @param network The dropped network
+	 */
+	synchronized void release(Network network) {
+		collect();
+		if (references.size() >= capacity) return;
+
+		StorageReference reference = new StorageReference(network, queue);
+		if (!reference.blocks.isEmpty()) references.add(reference);
+	}
+
+	/**
+	 * Takes a free layer block with the given shape.
+	 *
+	 * @param fromCount The number of neurons in the layer where the connections start
+	 * @param toCount The number of neurons in the layer where the connections end
+	 * @return The block or null if there's no free block with the same shape
+	 */
+	synchronized double[][] take(int fromCount, int toCount) {
+		collect();
+
+		Deque<double[][]> blocks = freeBlocks.get(getShape(fromCount, toCount));
+		double[][] block = blocks != null ? blocks.poll() : null;
+		if (block != null) {
+			freeCount--;
+			recycledCount++;
+		} else {
+			allocatedCount++;
+		}
+		return block;
+	}
+
+	/**
+	 * Returns a block that was taken but isn't used by any network to the free list.
+	 *
+	 * @param block The unused block
+	 */
+	synchronized void give(double[][] block) {
+		free(block);
+	}
+
+	/**
+	 * Moves the blocks of every unreachable network to the free list.
+	 */
+	private void collect() {
+		Reference<? extends Network> reference;
+		while ((reference = queue.poll()) != null) {
+			StorageReference storageReference = (StorageReference) reference;
+			references.remove(storageReference);
+			for (double[][] block : storageReference.blocks) free(block);
+		}
+	}
+
+	/**
+	 * Adds a block to the free list of it's shape if the list isn't full.
+	 *
+	 * @param block The free block
+	 */
+	private void free(double[][] block) {
+		if (block.length == 0) return;
+
+		Deque<double[][]> blocks = freeBlocks.computeIfAbsent(getShape(block.length, block[0].length), shape -> new ArrayDeque<>());
+		if (blocks.size() >= capacity) return;
+
+		blocks.add(block);
+		freeCount++;
+	}
+
+	/**
+	 * Returns the key of the free list holding the blocks of the given shape.
+	 *
+	 * @param fromCount The number of neurons in the layer where the connections start
+	 * @param toCount The number of neurons in the layer where the connections end
+	 * @return The shape's key
+	 */
+	private static Long getShape(int fromCount, int toCount) {
+		return ((long) fromCount << 32) | toCount;
+	}
+
+	/**
+	 * A reference enqueued when it's network is unreachable, holding on to the network's unshared blocks.
+	 */
+	private static final class StorageReference extends PhantomReference<Network> {
+
+		final List<double[][]> blocks;
+
+		StorageReference(Network network, ReferenceQueue<Network> queue) {
+			super(network, queue);
+			blocks = network.getUnsharedBlocks();
+		}
+	}
+}
@@ -0,0 +1,67 @@
+package com.madebyaron.genai.ai;
+
+/**
+ * A feed forward network that can be evaluated by a process.
+ * It's implemented by the networks on the heap and by the views of the networks in a {@link PopulationStore}.
+ */
+public interface NeuralNetwork {
+
+	/**
+	 * Returns the number of input neurons.
+	 *
+	 * @return The input neuron count
+	 */
+	int getInputNeuronCount();
+
+	/**
+	 * Returns the number of output neurons.
+	 *
+	 * @return The output neuron count
+	 */
+	int getOutputNeuronCount();
+
+	/**
+	 * Returns the number of layers.
+	 *
+	 * @return The layer count
+	 */
+	int getLayerCount();
+
+	/**
+	 * Returns the number of neurons in the given layer.
+	 *
+	 * @param layer The layer's index
+	 * @return The neuron count
+	 */
+	int getNeuronCount(int layer);
+
+	/**
+	 * Creates a context holding the neuron values of an evaluation of this network.
+	 *
+	 * @return The new context
+	 */
+	Network.Context createContext();
+
+	/**
+	 * Evaluates the network by setting it's input neuron values.
+	 * It returns the output neuron values.
+	 * The neuron values are held in a new context, so it can be called from multiple threads at once.
+	 *
+	 * @param input The input neuron values
+	 * @return The output neuron values
+	 */
+	default double[] evaluate(double[] input) {
+		return evaluate(input, createContext());
+	}
+
+	/**
+	 * Evaluates the network by setting it's input neuron values.
+	 * It returns the output neuron values.
+	 * The neuron values are held in the given context, which is reused without allocating new neurons.
+	 *
+	 * @param input The input neuron values
+	 * @param context The context holding the neuron values (it can't be used by multiple threads at once)
+	 * @return The output neuron values, which are overwritten by the context's next evaluation
+	 */
+	double[] evaluate(double[] input, Network.Context context);
+}
@@ -1,18 +1,34 @@
 package com.madebyaron.genai.ai;
 
+import com.madebyaron.genai.ai.selections.TruncationSelection;
+import com.madebyaron.genai.metrics.BreedingEvent;
+
 import java.util.*;
 
 /**
  * This class represents a collection of networks.
  * It is responsible for the calculation of the generations.
+ * The networks are stored copy-on-write: every generation replaces
+ * the list, so a list returned earlier never changes.
  */
 public final class Pool {
 
-	private static final Random RANDOM = new Random();
+	private static final long EVALUATION_STREAM = -1;
+	private static final long STEADY_STATE_STREAM = -2;
+	private static final long EMIGRATION_STREAM = -3;
+
+	private static final int PARENT_TOURNAMENT_SIZE = 2;
+	private static final int VICTIM_TOURNAMENT_SIZE = 3;
 
 	private final Process process;
-	private final List<Network> networks = new ArrayList<>();
-	private final List<Network> unmodifiableNetworks = Collections.unmodifiableList(networks);
+	private final RandomSource random;
+	private volatile int generation = 0;
+	private volatile SelectionStrategy selection = SelectionStrategy.CLASSIC;
+	private volatile int eliteCount = 0;
+
+	private volatile List<Network> networks;
+	private final Deque<Network> immigrants = new ArrayDeque<>();
+	private final NetworkRecycler recycler;
 
 	/**
 	 * Creates a new pool and fills it with new networks provided by the given process.
@@ -22,11 +38,30 @@ public final class Pool {
 	 * @param size The number of generated networks
 	 */
 	public Pool(Process process, int size) {
+		this(process, size, RandomSource.getDefault().current().nextLong());
+	}
+
+	/**
+	 * Creates a new pool and fills it with new networks provided by the given process.
+	 * Every random decision of the pool is derived from the given seed.
+	 *
+	 * @param process The process handling the networks' generation
+	 *                (in normal cases it is equal to the process that evaluates the networks)
+	 * @param size The number of generated networks
+	 * @param seed The master seed of the pool
+	 */
+	public Pool(Process process, int size, long seed) {
 		if (process == null) throw new NullPointerException("Process can't be null.");
 		if (size < 0) throw new IllegalArgumentException("Size can't be negative.");
 
 		this.process = process;
-		while (networks.size() < size) networks.add(process.createNetwork());
+		this.random = new RandomSource(seed);
+
+		SplittableRandom random = this.random.stream(generation);
+		List<Network> networks = new ArrayList<>(size);
+		while (networks.size() < size) networks.add(process.createNetwork(random.nextLong()));
+		this.networks = Collections.unmodifiableList(networks);
+		this.recycler = new NetworkRecycler(size);
 	}
 
 	/**
@@ -37,11 +72,42 @@ public final class Pool {
 	 * @param networks The networks in the pool
 	 */
 	public Pool(Process process, Collection<Network> networks) {
+		this(process, networks, RandomSource.getDefault().current().nextLong());
+	}
+
+	/**
+	 * Creates a new pool from the given networks.
+	 * Every random decision of the pool is derived from the given seed.
+	 *
+	 * @param process The process handling the networks' generation
+	 *                (in normal cases it is equal to the process that evaluates the networks)
+	 * @param networks The networks in the pool
+	 * @param seed The master seed of the pool
+	 */
+	public Pool(Process process, Collection<Network> networks, long seed) {
+		this(process, networks, seed, 0);
+	}
+
+	/**
+	 * Creates a new pool from the given networks continuing from the given generation.
+	 * Every random decision of the pool is derived from the given seed.
+	 *
+	 * @param process The process handling the networks' generation
+	 *                (in normal cases it is equal to the process that evaluates the networks)
+	 * @param networks The networks in the pool
+	 * @param seed The master seed of the pool
+	 * @param generation The number of generations already calculated
+	 */
+	public Pool(Process process, Collection<Network> networks, long seed, int generation) {
 		if (process == null) throw new NullPointerException("Process can't be null.");
 		if (networks == null) throw new NullPointerException("Networks can't be null.");
+		if (generation < 0) throw new IllegalArgumentException("Generation can't be negative.");
 
 		this.process = process;
-		this.networks.addAll(networks);
+		this.random = new RandomSource(seed);
+		this.generation = generation;
+		this.networks = Collections.unmodifiableList(new ArrayList<>(networks));
+		this.recycler = new NetworkRecycler(this.networks.size());
 	}
 
 	/**
@@ -54,14 +120,134 @@ public final class Pool {
 		return process;
 	}
 
+	/**
+	 * Returns the master seed every random decision of the pool is derived from.
+	 *
+	 * @return The master seed
+	 */
+	public long getSeed() {
+		return random.getSeed();
+	}
+
+	/**
+	 * Returns the seed the evaluation episodes of the given generation are derived from.
+	 * Every generation is evaluated on new episodes, so the networks can't overfit a single one,
+	 * but the networks of the same generation are all evaluated on the same episodes.
+	 * It's derived from the pool's seed but independent of the pool's own streams.
+	 *
+	 * @param generation The generation
+	 * @return The evaluation seed
+	 */
+	public long getEvaluationSeed(int generation) {
+		return random.derive(EVALUATION_STREAM, generation);
+	}
+
+	/**
+	 * Returns the number of generations calculated by this pool.
+	 *
+	 * @return The generation count
+	 */
+	public int getGeneration() {
+		return generation;
+	}
+
+	/**
+	 * Returns the strategy choosing the survivors of the generations.
+	 *
+	 * @return The selection strategy
+	 */
+	public SelectionStrategy getSelectionStrategy() {
+		return selection;
+	}
+
+	/**
+	 * Sets the strategy choosing the survivors of the generations.
+	 *
+	 * @param selection The selection strategy
+	 */
+	public void setSelectionStrategy(SelectionStrategy selection) {
+		if (selection == null) throw new NullPointerException("Selection strategy can't be null.");
+
+		this.selection = selection;
+	}
+
+	/**
+	 * Returns the number of best networks that always survive a generation.
+	 *
+	 * @return The elite count
+	 */
+	public int getEliteCount() {
+		return eliteCount;
+	}
+
+	/**
+	 * Sets the number of best networks that always survive a generation.
+	 * The elites are kept as they are, but they're evaluated again
+	 * as every generation is evaluated on new episodes.
+	 *
+	 * @param eliteCount The elite count (0 = no elitism)
+	 */
+	public void setEliteCount(int eliteCount) {
+		if (eliteCount < 0) throw new IllegalArgumentException("Elite count can't be negative.");
+
+		this.eliteCount = eliteCount;
+	}
+
+	/**
+	 * Returns the recycler reusing the storage of the dropped networks for the children.
+	 *
+	 * @return The recycler
+	 */
+	public NetworkRecycler getRecycler() {
+		return recycler;
+	}
+
 	/**
 	 * Returns the networks in this pool.
 	 *
-	 * @return An unmodifiable version of the networks.
+	 * @return An unmodifiable snapshot of the networks
 	 */
 	public List<Network> getNetworks() {
-		synchronized (networks) {
-			return unmodifiableNetworks;
+		return networks;
+	}
+
+	/**
+	 * Adds networks received from an other pool (an other island).
+	 * They take the place of newly bred children in the next generation
+	 * or are evaluated as children in steady state mode.
+	 * At most as many immigrants are kept as the pool's size, the oldest are dropped.
+	 *
+	 * @param networks The immigrant networks
+	 * @throws IllegalArgumentException If an immigrant's topology doesn't match the pool's networks
+	 */
+	public void immigrate(Collection<Network> networks) {
+		if (networks == null) throw new NullPointerException("Networks can't be null.");
+
+		List<Network> members = this.networks;
+		Network member = members.isEmpty() ? process.createNetwork(0) : members.get(0);
+		for (Network network : networks) {
+			if (network == null) throw new NullPointerException("Network can't be null.");
+			if (!network.hasSameTopology(member)) {
+				throw new IllegalArgumentException("Immigrant topology doesn't match the pool's networks.");
+			}
+		}
+
+		synchronized (immigrants) {
+			for (Network network : networks) {
+				immigrants.add(network);
+				if (immigrants.size() > this.networks.size()) immigrants.poll();
+			}
+		}
+	}
+
+	/**
+	 * Returns the number of immigrants waiting to join the pool.
+	 *
+	 * @return The immigrant count
+	 */
+	public int getImmigrantCount() {
+		synchronized (immigrants) {
+			return immigrants.size();
 		}
 	}
 
@@ -75,9 +261,23 @@ public final class Pool {
 	}
 
 	/**
-	 * Calculates the next generation by randomly removing
-	 * a given ratio of the networks then combining them
-	 * to fill the pool again.
+	 * Starts a steady state evolution of this pool. Instead of calculating whole generations
+	 * every evaluated network immediately replaces a poorly performing one with a new child.
+	 * The pool's networks and generation are updated every time as many children
+	 * have been born as the pool's size.
+	 *
+	 * @return The new steady state
+	 */
+	public SteadyState createSteadyState() {
+		return new SteadyState();
+	}
+
+	/**
+	 * Calculates the next generation by removing a given ratio
+	 * of the networks chosen by the selection strategy
+	 * then combining the survivors to fill the pool again.
+	 * The elites always survive, the selection strategy only chooses from the rest.
+	 * The waiting immigrants join the survivors before the children are bred.
 	 *
 	 * @param evaluation The evaluation holing each network's evaluation
 	 * @param purgeRatio The ratio of the removed networks (0 = none, 1 = all)
@@ -87,39 +287,240 @@ public final class Pool {
 		if (!evaluation.isDone()) throw new IllegalStateException("The evaluation hasn't finished yet.");
 		if (purgeRatio < 0 || purgeRatio > 1) throw new IllegalArgumentException("Purge ratio out of bounds.");
 
-		int initialSize = networks.size();
-		List<Network> networks = new ArrayList<>(this.networks);
+		BreedingEvent event = new BreedingEvent();
+		event.begin();
+
+		SplittableRandom random = this.random.stream(generation + 1);
+
+		List<Network> previous = this.networks;
+		int initialSize = previous.size();
+
+		double[] evaluations;
+		if (evaluation.getNetworks() == previous) {
+			evaluations = evaluation.getEvaluations().clone();
+		} else {
+			evaluations = new double[initialSize];
+			for (int i = 0; i < initialSize; i++) evaluations[i] = evaluation.getEvaluation(previous.get(i));
+		}
 
 		int desiredSize = (int) (initialSize * (1 - purgeRatio));
-		networks.sort(Comparator.comparingDouble(evaluation::getEvaluation));
-		while (networks.size() > desiredSize) {
-			networks.remove((int) (Math.pow(RANDOM.nextDouble(), 3) * networks.size()));
+		int eliteCount = Math.min(this.eliteCount, initialSize);
+		List<Network> networks = new ArrayList<>(initialSize);
+
+		if (eliteCount == 0) {
+			int[] survivors = selection.select(evaluations, desiredSize, random);
+			for (int survivor : survivors) networks.add(previous.get(survivor));
+		} else {
+			int[] indices = new int[initialSize];
+			for (int i = 0; i < initialSize; i++) indices[i] = i;
+			TruncationSelection.selectHighest(indices, evaluations, eliteCount, random);
+
+			for (int i = 0; i < eliteCount; i++) {
+				networks.add(previous.get(indices[i]));
+			}
+
+			int restSize = initialSize - eliteCount;
+			double[] restEvaluations = new double[restSize];
+			for (int i = 0; i < restSize; i++) restEvaluations[i] = evaluations[indices[eliteCount + i]];
+
+			int[] survivors = selection.select(restEvaluations, Math.max(desiredSize - eliteCount, 0), random);
+			for (int survivor : survivors) networks.add(previous.get(indices[eliteCount + survivor]));
+		}
+
+		int survivorCount = networks.size();
+		synchronized (immigrants) {
+			while (networks.size() < initialSize && !immigrants.isEmpty()) networks.add(immigrants.poll());
 		}
 
 		int resultingSize = networks.size();
 		if (resultingSize == 0) {
-			networks.add(process.createNetwork());
+			networks.add(process.createNetwork(random.nextLong()));
 			resultingSize = 1;
 		}
 		while (networks.size() < initialSize) {
 			networks.add(process.createNetwork(
-					networks.get((int) (RANDOM.nextDouble() * resultingSize)),
-					networks.get((int) (RANDOM.nextDouble() * resultingSize))
+					networks.get((int) (random.nextDouble() * resultingSize)),
+					networks.get((int) (random.nextDouble() * resultingSize)),
+					random.nextLong(),
+					recycler
 			));
 		}
 
-		synchronized (this.networks) {
-			this.networks.clear();
-			this.networks.addAll(networks);
+		// The dropped networks' storage is reused by the children of later generations
+		Set<Network> kept = Collections.newSetFromMap(new IdentityHashMap<>());
+		kept.addAll(networks);
+		for (Network network : previous) {
+			if (!kept.contains(network)) recycler.release(network);
 		}
+
+		if (event.shouldCommit()) {
+			event.generation = generation + 1;
+			event.networkCount = networks.size();
+			event.survivorCount = survivorCount;
+			event.immigrantCount = resultingSize - survivorCount;
+			event.selection = selection.getName();
+			event.commit();
+		}
+
+		generation++;
+		this.networks = Collections.unmodifiableList(networks);
 	}
 
 	/**
-	 * The object holding each network's evaluation.
+	 * The steady state (asynchronous) evolution of the pool.
+	 * Whenever a network is evaluated a new child is bred from the best of a few randomly picked
+	 * evaluated networks, so it can be evaluated right away without waiting for the rest of the pool.
+	 * When a child's evaluation arrives it replaces the worst of a few randomly picked networks.
+	 * As the children depend on the order the evaluations arrive in,
+	 * the steady state isn't reproducible from the seed.
+	 */
+	public final class SteadyState {
+
+		private final Network[] members;
+		private final double[] evaluations;
+		private final Map<Network, Integer> indices;
+		private final Set<Network> children = new HashSet<>();
+
+		private final int[] evaluatedIndices;
+		private int evaluatedCount = 0;
+
+		private final SplittableRandom random;
+		private long births = 0;
+
+		private SteadyState() {
+			List<Network> networks = Pool.this.networks;
+
+			members = networks.toArray(new Network[0]);
+			evaluations = new double[members.length];
+			evaluatedIndices = new int[members.length];
+			indices = new HashMap<>(members.length * 2);
+			for (int i = 0; i < members.length; i++) {
+				indices.put(members[i], i);
+				evaluations[i] = Double.NaN;
+			}
+
+			random = Pool.this.random.stream(STEADY_STATE_STREAM, generation);
+		}
+
+		/**
+		 * Stores the evaluation of the given network and breeds a new child
+		 * (or takes a waiting immigrant instead).
+		 * If the network is a child it replaces a poorly performing network of the pool first.
+		 * The evaluations of networks that aren't in the pool or aren't children are ignored.
+		 *
+		 * @param network The evaluated network
+		 * @param evaluation The network's evaluation
+		 * @return The new child that should be evaluated next or null if the evaluation was ignored
+		 */
+		public synchronized Network setEvaluation(Network network, double evaluation) {
+			if (network == null) throw new NullPointerException("Network can't be null.");
+
+			Integer index = indices.get(network);
+			if (index != null) {
+				if (Double.isNaN(evaluations[index])) evaluatedIndices[evaluatedCount++] = index;
+				evaluations[index] = evaluation;
+			} else if (children.remove(network)) {
+				int victim = tournament(VICTIM_TOURNAMENT_SIZE, false);
+				indices.remove(members[victim]);
+				recycler.release(members[victim]);
+				members[victim] = network;
+				evaluations[victim] = evaluation;
+				indices.put(network, victim);
+
+				births++;
+				if (births % members.length == 0) {
+					generation++;
+					Pool.this.networks = Collections.unmodifiableList(Arrays.asList(members.clone()));
+				}
+			} else {
+				return null;
+			}
+
+			Network child;
+			synchronized (immigrants) {
+				child = immigrants.poll();
+			}
+			if (child == null) {
+				child = process.createNetwork(
+						members[tournament(PARENT_TOURNAMENT_SIZE, true)],
+						members[tournament(PARENT_TOURNAMENT_SIZE, true)],
+						random.nextLong(),
+						recycler
+				);
+			}
+			children.add(child);
+			return child;
+		}
+
+		/**
+		 * Creates an evaluation of the current members
+		 * holding the evaluations known so far.
+		 *
+		 * @return The new evaluation holder
+		 */
+		public synchronized Evaluation createEvaluation() {
+			Evaluation evaluation = new Evaluation(Collections.unmodifiableList(Arrays.asList(members.clone())));
+			for (int i = 0; i < evaluatedCount; i++) {
+				int index = evaluatedIndices[i];
+				evaluation.setEvaluation(members[index], evaluations[index]);
+			}
+			return evaluation;
+		}
+
+		/**
+		 * Picks the best or worst of the given number of randomly chosen evaluated networks.
+		 * There is always at least one evaluated network when this is called.
+		 *
+		 * @param size The number of chosen networks
+		 * @param best True if the best network should be picked, false for the worst
+		 * @return The picked network's index
+		 */
+		private int tournament(int size, boolean best) {
+			int winner = evaluatedIndices[random.nextInt(evaluatedCount)];
+			for (int i = 1; i < size; i++) {
+				int index = evaluatedIndices[random.nextInt(evaluatedCount)];
+				if (best ? evaluations[index] > evaluations[winner] : evaluations[index] < evaluations[winner]) {
+					winner = index;
+				}
+			}
+			return winner;
+		}
+	}
+
+	/**
+	 * The object holding each network's evaluation. The evaluations are stored in a primitive array
+	 * indexed by the networks' position in the pool, and their summary is updated as they're stored,
+	 * so the statistics of a generation never have to be calculated again.
 	 */
 	public final class Evaluation {
 
-		private final Map<Network, Double> evaluations = new HashMap<>();
+		private final List<Network> networks;
+		private final Map<Network, Integer> indices = new HashMap<>();
+		private final double[] evaluations;
+		private final boolean[] evaluated;
+		private int evaluatedCount = 0;
+
+		private final EvaluationSummary summary = new EvaluationSummary();
+		private boolean summaryValid = true;
+
+		/**
+		 * Creates an empty evaluation of the pool's current networks.
+		 */
+		private Evaluation() {
+			this(Pool.this.networks);
+		}
+
+		/**
+		 * Creates an empty evaluation of the given networks.
+		 *
+		 * @param networks The evaluated networks
+		 */
+		private Evaluation(List<Network> networks) {
+			this.networks = networks;
+			evaluations = new double[networks.size()];
+			evaluated = new boolean[networks.size()];
+			for (int i = 0; i < networks.size(); i++) indices.put(networks.get(i), i);
+		}
 
 		/**
 		 * Returns the stored evaluation of the given network.
@@ -130,7 +531,8 @@ public final class Pool {
 		public double getEvaluation(Network network) {
 			if (network == null) throw new NullPointerException("Network can't be null.");
 
-			return evaluations.getOrDefault(network, 0.0);
+			Integer index = indices.get(network);
+			return index != null ? evaluations[index] : 0.0;
 		}
 
 		/**
@@ -142,9 +544,31 @@ public final class Pool {
 		public void setEvaluation(Network network, double evaluation) {
 			if (network == null) throw new NullPointerException("Network can't be null.");
 
-			if (networks.contains(network)) {
-				evaluations.put(network, evaluation);
+			Integer index = indices.get(network);
+			if (index == null) return;
+
+			if (evaluated[index]) {
+				// An overwritten evaluation can't be removed from the summary, it's recalculated when needed
+				summaryValid = false;
+			} else {
+				evaluated[index] = true;
+				evaluatedCount++;
+				if (summaryValid) summary.add(network, evaluation);
 			}
+			evaluations[index] = evaluation;
+		}
+
+		/**
+		 * Returns whether or not an evaluation has been stored for the given network.
+		 *
+		 * @param network The network
+		 * @return True if the network has been evaluated
+		 */
+		public boolean hasEvaluation(Network network) {
+			if (network == null) throw new NullPointerException("Network can't be null.");
+
+			Integer index = indices.get(network);
+			return index != null && evaluated[index];
 		}
 
 		/**
@@ -153,7 +577,43 @@ public final class Pool {
 		 * @return True if every network has an associated evaluation.
 		 */
 		public boolean isDone() {
-			return evaluations.size() == networks.size();
+			return evaluatedCount == networks.size();
+		}
+
+		/**
+		 * Returns the networks the evaluation was created for.
+		 *
+		 * @return The networks
+		 */
+		List<Network> getNetworks() {
+			return networks;
+		}
+
+		/**
+		 * Returns the evaluations indexed by the networks' position in the pool.
+		 * The networks without an evaluation have 0.
+		 *
+		 * @return The evaluations (shouldn't be modified)
+		 */
+		double[] getEvaluations() {
+			return evaluations;
+		}
+
+		/**
+		 * Returns the statistics of the stored evaluations.
+		 * The returned summary is updated as further evaluations are stored.
+		 *
+		 * @return The summary
+		 */
+		public EvaluationSummary getSummary() {
+			if (!summaryValid) {
+				summary.clear();
+				for (int i = 0; i < evaluations.length; i++) {
+					if (evaluated[i]) summary.add(networks.get(i), evaluations[i]);
+				}
+				summaryValid = true;
+			}
+			return summary;
 		}
 
 		/**
@@ -162,11 +622,42 @@ public final class Pool {
 		 * @return The network
 		 */
 		public Network getBestNetwork() {
-			Map.Entry<Network, Double> best = null;
-			for (Map.Entry<Network, Double> entry : evaluations.entrySet()) {
-				if (best == null || entry.getValue() > best.getValue()) best = entry;
+			return getSummary().getMaxNetwork();
+		}
+
+		/**
+		 * Returns the evaluated networks with the highest evaluations.
+		 *
+		 * @param count The maximum number of returned networks
+		 * @return The best networks in descending order of their evaluation
+		 */
+		public List<Network> getBestNetworks(int count) {
+			if (count < 0) throw new IllegalArgumentException("Count can't be negative.");
+
+			int[] indices = new int[evaluatedCount];
+			double[] keys = new double[evaluatedCount];
+			int size = 0;
+			for (int i = 0; i < evaluations.length; i++) {
+				if (evaluated[i]) {
+					indices[size] = i;
+					keys[size] = evaluations[i];
+					size++;
+				}
 			}
-			return best.getKey();
+
+			int[] positions = new int[size];
+			for (int i = 0; i < size; i++) positions[i] = i;
+
+			count = Math.min(count, size);
+			TruncationSelection.selectHighest(positions, keys, count, random.stream(EMIGRATION_STREAM, generation));
+
+			Integer[] best = new Integer[count];
+			for (int i = 0; i < count; i++) best[i] = positions[i];
+			Arrays.sort(best, (a, b) -> Double.compare(keys[b], keys[a]));
+
+			List<Network> networks = new ArrayList<>(count);
+			for (int position : best) networks.add(this.networks.get(indices[position]));
+			return networks;
 		}
 
 		/**
@@ -175,11 +666,7 @@ public final class Pool {
 		 * @return The network
 		 */
 		public Network getWorstNetwork() {
-			Map.Entry<Network, Double> worst = null;
-			for (Map.Entry<Network, Double> entry : evaluations.entrySet()) {
-				if (worst == null || entry.getValue() < worst.getValue()) worst = entry;
-			}
-			return worst.getKey();
+			return getSummary().getMinNetwork();
 		}
 
 		/**
@@ -188,11 +675,8 @@ public final class Pool {
 		 * @return The evaluation
 		 */
 		public Double getBestEvaluation() {
-			Double best = null;
-			for (Double evaluation : evaluations.values()) {
-				if (best == null || evaluation > best) best = evaluation;
-			}
-			return best;
+			EvaluationSummary summary = getSummary();
+			return summary.getCount() > 0 ? summary.getMax() : null;
 		}
 
 		/**
@@ -201,11 +685,27 @@ public final class Pool {
 		 * @return The evaluation
 		 */
 		public Double getWorstEvaluation() {
-			Double worst = null;
-			for (Double evaluation : evaluations.values()) {
-				if (worst == null || evaluation < worst) worst = evaluation;
-			}
-			return worst;
+			EvaluationSummary summary = getSummary();
+			return summary.getCount() > 0 ? summary.getMin() : null;
+		}
+
+		/**
+		 * Returns the mean of the evaluation values.
+		 *
+		 * @return The mean evaluation or NaN if no network has been evaluated
+		 */
+		public double getMeanEvaluation() {
+			return getSummary().getMean();
+		}
+
+		/**
+		 * Returns the estimate of the evaluation value below which the given fraction of the evaluations fall.
+		 *
+		 * @param quantile The quantile between 0 and 1 (e.g. 0.5 for the median)
+		 * @return The evaluation or NaN if no network has been evaluated
+		 */
+		public double getEvaluationQuantile(double quantile) {
+			return getSummary().getQuantile(quantile);
 		}
 	}
 }
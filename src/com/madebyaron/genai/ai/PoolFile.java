@@ -0,0 +1,829 @@
+package com.madebyaron.genai.ai;
+
+import com.madebyaron.genai.metrics.PoolFileEvent;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.DoubleBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * This class represents a saved pool in the binary pool format.
+ * The file starts with a header holding the process name, the seed, the generation,
+ * the selection strategy's name, the network topology and the network count, followed by every network's
+ * connection strengths with a fixed stride.
+ * Uncompressed strengths are memory mapped and the networks are only created when they are accessed.
+ * Compressed strengths are stored in independently deflated chunks which are
+ * compressed and decompressed in parallel.
+ */
+public final class PoolFile {
+
+	private static final int MAGIC = 0x47414950;
+	private static final int VERSION = 3;
+
+	private static final int FLAG_COMPRESSED = 1;
+
+	private static final int PREFIX_SIZE = 12;
+	private static final int BUFFER_SIZE = 1 << 20;
+	private static final int CHUNK_SIZE = 1 << 20;
+	private static final int CHUNK_TABLE_ENTRY_SIZE = Long.BYTES + Integer.BYTES;
+	private static final int PROGRESS_STEPS = 100;
+
+	private static final short LEGACY_MAGIC = (short) 0xACED;
+
+	private final String process;
+	private final long seed;
+	private final int generation;
+	private final String selection;
+
+	private final int inputNeuronCount;
+	private final int outputNeuronCount;
+	private final int[] hiddenNeuronCount;
+
+	private final int size;
+	private final int stride;
+	private final boolean compressed;
+	private final int networksPerWindow;
+	private final ByteBuffer[] windows;
+
+	private final Statistics statistics;
+
+	private final List<Network> networks = new Networks();
+
+	/**
+	 * Opens a pool file. Uncompressed connection strengths are mapped,
+	 * compressed ones are decompressed in parallel.
+	 *
+	 * @param channel The file's channel
+	 * @param progress The progress listener (it can be null)
+	 * @throws IOException Any exception thrown while reading the header or the strengths
+	 */
+	private PoolFile(FileChannel channel, Progress progress) throws IOException {
+		long startTime = System.nanoTime();
+
+		ByteBuffer prefix = ByteBuffer.allocate(PREFIX_SIZE);
+		readFully(channel, prefix, 0);
+		prefix.flip();
+
+		if (prefix.getInt() != MAGIC) throw new IOException("Not a pool file");
+		int version = prefix.getInt();
+		if (version < 1 || version > VERSION) throw new IOException("Unsupported pool file version: " + version);
+		int headerSize = prefix.getInt();
+		if (headerSize < PREFIX_SIZE || headerSize > channel.size()) throw new IOException("Pool file header is corrupted");
+
+		ByteBuffer header = ByteBuffer.allocate(headerSize - PREFIX_SIZE);
+		readFully(channel, header, PREFIX_SIZE);
+		DataInputStream in = new DataInputStream(new ByteArrayInputStream(header.array()));
+
+		process = in.readUTF();
+		seed = in.readLong();
+		generation = in.readInt();
+		selection = version >= 3 ? in.readUTF() : SelectionStrategy.CLASSIC.getName();
+
+		inputNeuronCount = in.readInt();
+		outputNeuronCount = in.readInt();
+		int hiddenLayerCount = in.readInt();
+		if (hiddenLayerCount < 0 || hiddenLayerCount > in.available() / Integer.BYTES) {
+			throw new IOException("Pool file header is corrupted");
+		}
+		hiddenNeuronCount = new int[hiddenLayerCount];
+		for (int layer = 0; layer < hiddenNeuronCount.length; layer++) {
+			hiddenNeuronCount[layer] = in.readInt();
+		}
+		stride = getStride(inputNeuronCount, outputNeuronCount, hiddenNeuronCount);
+
+		size = in.readInt();
+		if (size < 0) throw new IOException("Pool file header is corrupted");
+
+		int flags = version >= 2 ? in.readInt() : 0;
+		compressed = (flags & FLAG_COMPRESSED) != 0;
+
+		if (compressed) {
+			networksPerWindow = in.readInt();
+			int chunkCount = in.readInt();
+			if (networksPerWindow <= 0 || (long) networksPerWindow * stride > Integer.MAX_VALUE) {
+				throw new IOException("Pool file header is corrupted");
+			}
+			if (chunkCount != (size + (long) networksPerWindow - 1) / networksPerWindow) {
+				throw new IOException("Pool file header is corrupted");
+			}
+
+			long[] chunkOffsets = new long[chunkCount];
+			int[] chunkLengths = new int[chunkCount];
+			for (int chunk = 0; chunk < chunkCount; chunk++) {
+				chunkOffsets[chunk] = in.readLong();
+				chunkLengths[chunk] = in.readInt();
+				if (chunkOffsets[chunk] < headerSize || chunkLengths[chunk] < 0 ||
+						chunkOffsets[chunk] + chunkLengths[chunk] > channel.size()) {
+					throw new IOException("Pool file chunk table is corrupted");
+				}
+			}
+
+			windows = decompress(channel, chunkOffsets, chunkLengths, progress);
+			statistics = new Statistics((long) size * stride, channel.size(), System.nanoTime() - startTime);
+		} else {
+			if (channel.size() < headerSize + (long) size * stride) throw new IOException("Pool file is truncated");
+
+			networksPerWindow = stride == 0 ? Math.max(size, 1) : Math.max(Integer.MAX_VALUE / stride, 1);
+			windows = new ByteBuffer[(size + networksPerWindow - 1) / networksPerWindow];
+			for (int window = 0; window < windows.length; window++) {
+				windows[window] = channel.map(
+						FileChannel.MapMode.READ_ONLY,
+						headerSize + (long) window * networksPerWindow * stride,
+						(long) getWindowSize(window) * stride
+				);
+			}
+			statistics = new Statistics((long) size * stride, channel.size(), System.nanoTime() - startTime);
+		}
+	}
+
+	/**
+	 * Opens the pool file at the given path.
+	 * The file can be closed after opening, the mapping stays valid.
+	 *
+	 * @param file The pool file
+	 * @return The opened pool file
+	 * @throws IOException Any exception thrown while opening the file
+	 */
+	public static PoolFile open(File file) throws IOException {
+		return open(file, null);
+	}
+
+	/**
+	 * Opens the pool file at the given path.
+	 * The file can be closed after opening, the mapping stays valid.
+	 *
+	 * @param file The pool file
+	 * @param progress The listener of the decompression's progress (it can be null)
+	 * @return The opened pool file
+	 * @throws IOException Any exception thrown while opening the file
+	 */
+	public static PoolFile open(File file, Progress progress) throws IOException {
+		PoolFileEvent event = new PoolFileEvent();
+		event.begin();
+
+		try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+			PoolFile poolFile = new PoolFile(channel, progress);
+
+			if (event.shouldCommit()) {
+				event.path = file.getPath();
+				event.saving = false;
+				event.networkCount = poolFile.size;
+				event.compressed = poolFile.compressed;
+				event.fileSize = channel.size();
+				event.commit();
+			}
+			return poolFile;
+		}
+	}
+
+	/**
+	 * Returns whether or not the given file was saved in the legacy
+	 * (object stream) pool format.
+	 *
+	 * @param file The pool file
+	 * @return True if the file is a legacy pool file
+	 * @throws IOException Any exception thrown while reading the file
+	 */
+	public static boolean isLegacy(File file) throws IOException {
+		try (DataInputStream in = new DataInputStream(new FileInputStream(file))) {
+			return in.readShort() == LEGACY_MAGIC;
+		} catch (EOFException e) {
+			return false;
+		}
+	}
+
+	/**
+	 * Saves the pool defined by it's process name, seed, generation, selection strategy
+	 * and networks to the given file. Every network must have the same topology.
+	 *
+	 * @param file The save file
+	 * @param process The pool process' name
+	 * @param seed The pool's seed
+	 * @param generation The pool's generation
+	 * @param selection The name of the pool's selection strategy
+	 * @param networks The pool's networks
+	 * @param compressed Whether or not the connection strengths should be compressed
+	 * @param progress The progress listener (it can be null)
+	 * @return The statistics of the saving
+	 * @throws IOException Any exception thrown while saving
+	 */
+	public static Statistics write(File file, String process, long seed, int generation, String selection,
+	                               Collection<Network> networks, boolean compressed,
+	                               Progress progress) throws IOException {
+		if (networks.isEmpty()) throw new IllegalArgumentException("Can't save an empty pool");
+
+		PoolFileEvent event = new PoolFileEvent();
+		event.begin();
+		long startTime = System.nanoTime();
+
+		List<Network> networkList = networks instanceof RandomAccess && networks instanceof List ?
+				(List<Network>) networks :
+				new ArrayList<>(networks);
+
+		Network first = networkList.get(0);
+		for (Network network : networkList) {
+			if (!matches(network, first)) throw new IllegalArgumentException("Network topology doesn't match");
+		}
+
+		int stride = first.getConnectionCount() * Double.BYTES;
+		int chunkSize = Math.max(CHUNK_SIZE / Math.max(stride, 1), 1);
+		int chunkCount = (networkList.size() + chunkSize - 1) / chunkSize;
+
+		ByteArrayOutputStream headerBytes = new ByteArrayOutputStream();
+		DataOutputStream header = new DataOutputStream(headerBytes);
+		header.writeInt(MAGIC);
+		header.writeInt(VERSION);
+		header.writeInt(0);
+		header.writeUTF(process);
+		header.writeLong(seed);
+		header.writeInt(generation);
+		header.writeUTF(selection);
+		header.writeInt(first.getInputNeuronCount());
+		header.writeInt(first.getOutputNeuronCount());
+		header.writeInt(first.getHiddenLayerCount());
+		for (int layer = 0; layer < first.getHiddenLayerCount(); layer++) {
+			header.writeInt(first.getHiddenNeuronCount(layer));
+		}
+		header.writeInt(networkList.size());
+		header.writeInt(compressed ? FLAG_COMPRESSED : 0);
+
+		int chunkTablePosition = 0;
+		if (compressed) {
+			header.writeInt(chunkSize);
+			header.writeInt(chunkCount);
+			chunkTablePosition = header.size();
+			for (int chunk = 0; chunk < chunkCount; chunk++) {
+				header.writeLong(0);
+				header.writeInt(0);
+			}
+		}
+		while (header.size() % Double.BYTES != 0) header.writeByte(0);
+
+		ByteBuffer headerBuffer = ByteBuffer.wrap(headerBytes.toByteArray());
+		headerBuffer.putInt(8, headerBuffer.capacity());
+
+		try (FileChannel channel = FileChannel.open(file.toPath(),
+				StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+			writeFully(channel, headerBuffer);
+
+			if (compressed) {
+				compress(channel, networkList, chunkSize, progress, headerBuffer, chunkTablePosition);
+				headerBuffer.clear();
+				writeFully(channel, headerBuffer, 0);
+			} else {
+				write(channel, networkList, stride, progress);
+			}
+
+			if (event.shouldCommit()) {
+				event.path = file.getPath();
+				event.saving = true;
+				event.networkCount = networkList.size();
+				event.compressed = compressed;
+				event.fileSize = channel.size();
+				event.commit();
+			}
+
+			return new Statistics((long) networkList.size() * stride, channel.size(), System.nanoTime() - startTime);
+		}
+	}
+
+	/**
+	 * Converts a pool saved in the legacy (object stream) format to the binary pool format.
+	 *
+	 * @param legacyFile The legacy pool file
+	 * @param file The converted pool file
+	 * @param seed The seed stored in the converted file (legacy files don't have one)
+	 * @param compressed Whether or not the connection strengths should be compressed
+	 * @param progress The progress listener (it can be null)
+	 * @throws IOException Any exception thrown while reading or writing
+	 * @throws ClassNotFoundException An exception thrown when the saved network class can't be found
+	 */
+	public static void convertLegacy(File legacyFile, File file, long seed, boolean compressed, Progress progress)
+			throws IOException, ClassNotFoundException {
+		try (ObjectInputStream in = new ObjectInputStream(new BufferedInputStream(new FileInputStream(legacyFile)))) {
+			String process = in.readUTF();
+
+			int networkCount = in.readInt();
+			Network[] networks = new Network[networkCount];
+			for (int i = 0; i < networkCount; i++) {
+				networks[i] = (Network) in.readObject();
+			}
+
+			write(file, process, seed, 0, SelectionStrategy.CLASSIC.getName(), Arrays.asList(networks), compressed, progress);
+		}
+	}
+
+	/**
+	 * Returns the size of a network's connection strengths in bytes, validating the topology read from a file.
+	 *
+	 * @param inputNeuronCount The number of input neurons
+	 * @param outputNeuronCount The number of output neurons
+	 * @param hiddenNeuronCount The number of hidden neurons as an array where each value is a layer
+	 * @return The stride
+	 * @throws IOException If a neuron count is negative or the networks are too large
+	 */
+	private static int getStride(int inputNeuronCount, int outputNeuronCount, int[] hiddenNeuronCount) throws IOException {
+		long connectionCount = 0;
+		long fromNeuronCount = inputNeuronCount;
+		if (inputNeuronCount < 0 || outputNeuronCount < 0) throw new IOException("Pool file header is corrupted");
+		for (int toNeuronCount : hiddenNeuronCount) {
+			if (toNeuronCount < 0) throw new IOException("Pool file header is corrupted");
+			connectionCount += fromNeuronCount * toNeuronCount;
+			fromNeuronCount = toNeuronCount;
+		}
+		connectionCount += fromNeuronCount * outputNeuronCount;
+
+		if (connectionCount > Integer.MAX_VALUE / Double.BYTES) throw new IOException("Pool file networks are too large");
+		return (int) connectionCount * Double.BYTES;
+	}
+
+	/**
+	 * Returns the pool process' name.
+	 *
+	 * @return The process' name
+	 */
+	public String getProcess() {
+		return process;
+	}
+
+	/**
+	 * Returns the pool's seed.
+	 *
+	 * @return The seed
+	 */
+	public long getSeed() {
+		return seed;
+	}
+
+	/**
+	 * Returns the pool's generation.
+	 *
+	 * @return The generation
+	 */
+	public int getGeneration() {
+		return generation;
+	}
+
+	/**
+	 * Returns the name of the pool's selection strategy.
+	 *
+	 * @return The selection strategy's name
+	 */
+	public String getSelectionStrategy() {
+		return selection;
+	}
+
+	/**
+	 * Returns the number of networks in the file.
+	 *
+	 * @return The network count
+	 */
+	public int getSize() {
+		return size;
+	}
+
+	/**
+	 * Returns whether or not the connection strengths are compressed in the file.
+	 *
+	 * @return True if the file is compressed
+	 */
+	public boolean isCompressed() {
+		return compressed;
+	}
+
+	/**
+	 * Returns the statistics of opening the file.
+	 *
+	 * @return The statistics
+	 */
+	public Statistics getStatistics() {
+		return statistics;
+	}
+
+	/**
+	 * Creates the network at the given index from the stored connection strengths.
+	 *
+	 * @param index The network's index
+	 * @return The new network
+	 */
+	public Network getNetwork(int index) {
+		if (index < 0 || index >= size) throw new IndexOutOfBoundsException("Network index out of bounds: " + index);
+
+		ByteBuffer window = windows[index / networksPerWindow].duplicate();
+		window.position((index % networksPerWindow) * stride);
+		window.limit(window.position() + stride);
+
+		return new Network(inputNeuronCount, outputNeuronCount, hiddenNeuronCount, window.asDoubleBuffer());
+	}
+
+	/**
+	 * Returns the networks in the file. The networks are created every time they are accessed.
+	 *
+	 * @return An unmodifiable list of the networks
+	 */
+	public List<Network> getNetworks() {
+		return networks;
+	}
+
+	/**
+	 * Returns the number of networks in the given window.
+	 *
+	 * @param window The window's index
+	 * @return The network count
+	 */
+	private int getWindowSize(int window) {
+		return Math.min(networksPerWindow, size - window * networksPerWindow);
+	}
+
+	/**
+	 * Decompresses every chunk in parallel.
+	 *
+	 * @param channel The file's channel
+	 * @param chunkOffsets The chunks' positions in the file
+	 * @param chunkLengths The chunks' compressed lengths
+	 * @param progress The progress listener (it can be null)
+	 * @return The decompressed chunks
+	 * @throws IOException Any exception thrown while reading or if a chunk is corrupted
+	 */
+	private ByteBuffer[] decompress(FileChannel channel, long[] chunkOffsets, int[] chunkLengths,
+	                                Progress progress) throws IOException {
+		List<ForkJoinTask<ByteBuffer>> tasks = new ArrayList<>(chunkOffsets.length);
+		for (int chunk = 0; chunk < chunkOffsets.length; chunk++) {
+			int index = chunk;
+			tasks.add(ForkJoinPool.commonPool().submit(() -> {
+				ByteBuffer compressedChunk = ByteBuffer.allocate(chunkLengths[index]);
+				readFully(channel, compressedChunk, chunkOffsets[index]);
+				return ByteBuffer.wrap(inflate(compressedChunk.array(), getWindowSize(index) * stride));
+			}));
+		}
+
+		ByteBuffer[] chunks = new ByteBuffer[tasks.size()];
+		int loadedNetworks = 0;
+		for (int chunk = 0; chunk < chunks.length; chunk++) {
+			chunks[chunk] = join(tasks.get(chunk));
+			loadedNetworks += getWindowSize(chunk);
+			if (progress != null) progress.onProgress(loadedNetworks, size);
+		}
+		return chunks;
+	}
+
+	/**
+	 * Writes the networks' connection strengths uncompressed.
+	 *
+	 * @param channel The file's channel
+	 * @param networks The networks
+	 * @param stride The size of a network's connection strengths in bytes
+	 * @param progress The progress listener (it can be null)
+	 * @throws IOException Any exception thrown while writing
+	 */
+	private static void write(FileChannel channel, List<Network> networks, int stride,
+	                          Progress progress) throws IOException {
+		ByteBuffer buffer = ByteBuffer.allocateDirect(Math.max(BUFFER_SIZE / Math.max(stride, 1), 1) * Math.max(stride, 1));
+		DoubleBuffer doubles = buffer.asDoubleBuffer();
+
+		int savedNetworks = 0;
+		int progressStep = Math.max(networks.size() / PROGRESS_STEPS, 1);
+		for (Network network : networks) {
+			if (doubles.remaining() < network.getConnectionCount()) {
+				flush(channel, buffer, doubles);
+			}
+			network.getConnections(doubles);
+
+			savedNetworks++;
+			if (progress != null && savedNetworks % progressStep == 0) {
+				progress.onProgress(savedNetworks, networks.size());
+			}
+		}
+		flush(channel, buffer, doubles);
+
+		if (progress != null) progress.onProgress(networks.size(), networks.size());
+	}
+
+	/**
+	 * Compresses the networks' connection strengths in parallel chunks and writes them in order.
+	 * Only a limited number of compressed chunks are held in the memory at once.
+	 * The chunk table in the header buffer is filled with the chunks' positions and lengths.
+	 *
+	 * @param channel The file's channel
+	 * @param networks The networks
+	 * @param chunkSize The number of networks in a chunk
+	 * @param progress The progress listener (it can be null)
+	 * @param header The header buffer
+	 * @param chunkTablePosition The chunk table's position in the header
+	 * @throws IOException Any exception thrown while writing
+	 */
+	private static void compress(FileChannel channel, List<Network> networks, int chunkSize, Progress progress,
+	                             ByteBuffer header, int chunkTablePosition) throws IOException {
+		int chunkCount = (networks.size() + chunkSize - 1) / chunkSize;
+		int maxPendingChunks = ForkJoinPool.commonPool().getParallelism() * 2;
+
+		Deque<ForkJoinTask<byte[]>> tasks = new ArrayDeque<>();
+		int submittedChunks = 0;
+		for (int chunk = 0; chunk < chunkCount; chunk++) {
+			while (submittedChunks < chunkCount && tasks.size() < maxPendingChunks) {
+				List<Network> chunkNetworks = networks.subList(
+						submittedChunks * chunkSize,
+						Math.min((submittedChunks + 1) * chunkSize, networks.size())
+				);
+				tasks.add(ForkJoinPool.commonPool().submit(() -> deflate(chunkNetworks)));
+				submittedChunks++;
+			}
+
+			byte[] compressedChunk = join(tasks.remove());
+
+			header.putLong(chunkTablePosition + chunk * CHUNK_TABLE_ENTRY_SIZE, channel.position());
+			header.putInt(chunkTablePosition + chunk * CHUNK_TABLE_ENTRY_SIZE + Long.BYTES, compressedChunk.length);
+			writeFully(channel, ByteBuffer.wrap(compressedChunk));
+
+			if (progress != null) progress.onProgress(Math.min((chunk + 1) * chunkSize, networks.size()), networks.size());
+		}
+	}
+
+	/**
+	 * Compresses the connection strengths of the given networks.
+	 * The bytes of the strengths are grouped by their significance
+	 * before compressing as the exponents compress much better together.
+	 *
+	 * @param networks The networks
+	 * @return The compressed bytes
+	 */
+	private static byte[] deflate(List<Network> networks) {
+		int doubleCount = 0;
+		for (Network network : networks) doubleCount += network.getConnectionCount();
+
+		ByteBuffer raw = ByteBuffer.allocate(doubleCount * Double.BYTES);
+		DoubleBuffer doubles = raw.asDoubleBuffer();
+		for (Network network : networks) network.getConnections(doubles);
+
+		byte[] shuffled = shuffle(raw.array());
+
+		Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+		try {
+			deflater.setInput(shuffled);
+			deflater.finish();
+
+			ByteArrayOutputStream out = new ByteArrayOutputStream(shuffled.length / 2 + 64);
+			byte[] buffer = new byte[1 << 16];
+			while (!deflater.finished()) {
+				out.write(buffer, 0, deflater.deflate(buffer));
+			}
+			return out.toByteArray();
+		} finally {
+			deflater.end();
+		}
+	}
+
+	/**
+	 * Decompresses a chunk of connection strengths.
+	 *
+	 * @param compressed The compressed bytes
+	 * @param length The length of the decompressed bytes
+	 * @return The decompressed bytes
+	 * @throws IOException If the chunk is corrupted
+	 */
+	private static byte[] inflate(byte[] compressed, int length) throws IOException {
+		Inflater inflater = new Inflater();
+		try {
+			inflater.setInput(compressed);
+
+			byte[] shuffled = new byte[length];
+			int inflated = 0;
+			while (inflated < length) {
+				int count = inflater.inflate(shuffled, inflated, length - inflated);
+				if (count == 0 && (inflater.finished() || inflater.needsInput())) {
+					throw new IOException("Pool file chunk is corrupted");
+				}
+				inflated += count;
+			}
+			return unshuffle(shuffled);
+		} catch (DataFormatException e) {
+			throw new IOException("Pool file chunk is corrupted", e);
+		} finally {
+			inflater.end();
+		}
+	}
+
+	/**
+	 * Groups the bytes of the doubles by their significance.
+	 *
+	 * @param bytes The bytes of the doubles
+	 * @return The shuffled bytes
+	 */
+	private static byte[] shuffle(byte[] bytes) {
+		int count = bytes.length / Double.BYTES;
+		byte[] shuffled = new byte[bytes.length];
+		for (int i = 0; i < count; i++) {
+			for (int b = 0; b < Double.BYTES; b++) {
+				shuffled[b * count + i] = bytes[i * Double.BYTES + b];
+			}
+		}
+		return shuffled;
+	}
+
+	/**
+	 * Restores the bytes of the doubles grouped by {@link #shuffle(byte[])}.
+	 *
+	 * @param shuffled The shuffled bytes
+	 * @return The bytes of the doubles
+	 */
+	private static byte[] unshuffle(byte[] shuffled) {
+		int count = shuffled.length / Double.BYTES;
+		byte[] bytes = new byte[shuffled.length];
+		for (int i = 0; i < count; i++) {
+			for (int b = 0; b < Double.BYTES; b++) {
+				bytes[i * Double.BYTES + b] = shuffled[b * count + i];
+			}
+		}
+		return bytes;
+	}
+
+	/**
+	 * Waits for a task and rethrows it's I/O exceptions.
+	 *
+	 * @param task The task
+	 * @param <T> The task's result type
+	 * @return The task's result
+	 * @throws IOException The I/O exception thrown by the task
+	 */
+	private static <T> T join(ForkJoinTask<T> task) throws IOException {
+		try {
+			return task.join();
+		} catch (UncheckedIOException e) {
+			throw e.getCause();
+		} catch (RuntimeException e) {
+			if (e.getCause() instanceof IOException) throw (IOException) e.getCause();
+			throw e;
+		}
+	}
+
+	/**
+	 * Returns whether or not two networks have the same topology.
+	 *
+	 * @param network One network
+	 * @param other The other network
+	 * @return True if the networks' neuron counts match on every layer
+	 */
+	private static boolean matches(Network network, Network other) {
+		if (network.getLayerCount() != other.getLayerCount()) return false;
+		for (int layer = 0; layer < network.getLayerCount(); layer++) {
+			if (network.getNeuronCount(layer) != other.getNeuronCount(layer)) return false;
+		}
+		return true;
+	}
+
+	/**
+	 * Writes the doubles put in the buffer to the channel and clears the buffer.
+	 *
+	 * @param channel The channel
+	 * @param buffer The byte buffer backing the doubles
+	 * @param doubles The double view of the buffer
+	 * @throws IOException Any exception thrown while writing
+	 */
+	private static void flush(FileChannel channel, ByteBuffer buffer, DoubleBuffer doubles) throws IOException {
+		buffer.clear();
+		buffer.limit(doubles.position() * Double.BYTES);
+		writeFully(channel, buffer);
+		doubles.clear();
+	}
+
+	/**
+	 * Writes every remaining byte of the buffer to the channel.
+	 *
+	 * @param channel The channel
+	 * @param buffer The buffer
+	 * @throws IOException Any exception thrown while writing
+	 */
+	private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+		while (buffer.hasRemaining()) channel.write(buffer);
+	}
+
+	/**
+	 * Writes every remaining byte of the buffer to the channel starting at the given position.
+	 *
+	 * @param channel The channel
+	 * @param buffer The buffer
+	 * @param position The file position
+	 * @throws IOException Any exception thrown while writing
+	 */
+	private static void writeFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+		while (buffer.hasRemaining()) position += channel.write(buffer, position);
+	}
+
+	/**
+	 * Fills the buffer from the channel starting at the given position.
+	 *
+	 * @param channel The channel
+	 * @param buffer The buffer
+	 * @param position The file position
+	 * @throws IOException Any exception thrown while reading or if the file ends too early
+	 */
+	private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+		while (buffer.hasRemaining()) {
+			int read = channel.read(buffer, position);
+			if (read < 0) throw new EOFException("Pool file is truncated");
+			position += read;
+		}
+	}
+
+	/**
+	 * A listener that is notified about the progress of saving or loading a pool.
+	 */
+	public interface Progress {
+
+		/**
+		 * Called periodically while saving or loading.
+		 *
+		 * @param done The number of networks already processed
+		 * @param total The number of networks to process
+		 */
+		void onProgress(int done, int total);
+	}
+
+	/**
+	 * The statistics of saving or loading a pool file.
+	 */
+	public static final class Statistics {
+
+		private final long rawBytes;
+		private final long storedBytes;
+		private final long nanos;
+
+		/**
+		 * Creates the statistics.
+		 *
+		 * @param rawBytes The size of the connection strengths
+		 * @param storedBytes The size of the file
+		 * @param nanos The time it took in nanoseconds
+		 */
+		private Statistics(long rawBytes, long storedBytes, long nanos) {
+			this.rawBytes = rawBytes;
+			this.storedBytes = storedBytes;
+			this.nanos = nanos;
+		}
+
+		/**
+		 * Returns the size of the connection strengths.
+		 *
+		 * @return The size in bytes
+		 */
+		public long getRawBytes() {
+			return rawBytes;
+		}
+
+		/**
+		 * Returns the size of the file.
+		 *
+		 * @return The size in bytes
+		 */
+		public long getStoredBytes() {
+			return storedBytes;
+		}
+
+		/**
+		 * Returns the ratio of the raw and the stored size.
+		 *
+		 * @return The compression ratio
+		 */
+		public double getCompressionRatio() {
+			return storedBytes == 0 ? 1 : (double) rawBytes / storedBytes;
+		}
+
+		/**
+		 * Returns the processed connection strengths per second.
+		 *
+		 * @return The throughput in bytes per second
+		 */
+		public double getThroughput() {
+			return nanos == 0 ? 0 : rawBytes * 1e9 / nanos;
+		}
+
+		@Override
+		public String toString() {
+			return String.format("ratio %.2fx, %.1f MB/s", getCompressionRatio(), getThroughput() / (1 << 20));
+		}
+	}
+
+	/**
+	 * The list view of the networks creating every network on access.
+	 */
+	private final class Networks extends AbstractList<Network> implements RandomAccess {
+
+		@Override
+		public Network get(int index) {
+			return getNetwork(index);
+		}
+
+		@Override
+		public int size() {
+			return size;
+		}
+	}
+}
@@ -0,0 +1,483 @@
+package com.madebyaron.genai.ai;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.DoubleBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * An off-heap store of a population of networks with the same topology.
+ * Every network's connection strengths are stored outside of the Java heap with a fixed stride
+ * in the same order as they are written by {@link Network#getConnections(DoubleBuffer)},
+ * so a network costs exactly it's strengths instead of nested arrays with their object headers.
+ * The strengths are split into slabs which are allocated as the population grows.
+ * The slabs are either direct buffers or, if the store is opened from a file,
+ * memory mapped regions of the file, so the population survives the process.
+ * The networks can be evaluated in place through views without creating them on the heap,
+ * as the views are networks a process can evaluate.
+ */
+public final class PopulationStore implements Closeable {
+
+	private static final int MAGIC = 0x47415053;
+	private static final int VERSION = 1;
+
+	private static final int HEADER_SIZE = 4096;
+	private static final int SIZE_POSITION = 8;
+	private static final int TOPOLOGY_POSITION = 16;
+	private static final int SLAB_SIZE = 1 << 28;
+
+	private final int inputNeuronCount;
+	private final int outputNeuronCount;
+	private final int[] hiddenNeuronCount;
+	private final int[] neuronCounts;
+
+	private final int stride;
+	private final long capacity;
+	private final int networksPerSlab;
+	private final AtomicReferenceArray<DoubleBuffer> slabs;
+	private final MappedByteBuffer[] mappedSlabs;
+
+	private final FileChannel channel;
+	private final MappedByteBuffer header;
+
+	private volatile long size = 0;
+	private volatile boolean closed = false;
+
+	/**
+	 * Creates an empty store in the direct memory.
+	 *
+	 * @param inputNeuronCount The number of input neurons
+	 * @param outputNeuronCount The number of output neurons
+	 * @param hiddenNeuronCount The number of hidden neurons as an array where each value is a layer
+	 * @param capacity The maximum number of networks
+	 */
+	public PopulationStore(int inputNeuronCount, int outputNeuronCount, int[] hiddenNeuronCount, long capacity) {
+		this(inputNeuronCount, outputNeuronCount, hiddenNeuronCount, capacity, null, null);
+	}
+
+	private PopulationStore(int inputNeuronCount, int outputNeuronCount, int[] hiddenNeuronCount, long capacity,
+	                        FileChannel channel, MappedByteBuffer header) {
+		if (hiddenNeuronCount == null) throw new NullPointerException("Hidden neuron count can't be null.");
+		if (inputNeuronCount < 0 || outputNeuronCount < 0) throw new IllegalArgumentException("Neuron count can't be negative.");
+		for (int count : hiddenNeuronCount) {
+			if (count < 0) throw new IllegalArgumentException("Neuron count can't be negative.");
+		}
+		if (capacity < 0) throw new IllegalArgumentException("Capacity can't be negative.");
+
+		this.inputNeuronCount = inputNeuronCount;
+		this.outputNeuronCount = outputNeuronCount;
+		this.hiddenNeuronCount = hiddenNeuronCount.clone();
+
+		neuronCounts = new int[hiddenNeuronCount.length + 2];
+		neuronCounts[0] = inputNeuronCount;
+		System.arraycopy(hiddenNeuronCount, 0, neuronCounts, 1, hiddenNeuronCount.length);
+		neuronCounts[neuronCounts.length - 1] = outputNeuronCount;
+
+		stride = Network.getConnectionCount(inputNeuronCount, outputNeuronCount, hiddenNeuronCount);
+		if (stride > Integer.MAX_VALUE / Double.BYTES) throw new IllegalArgumentException("Network is too large.");
+
+		this.capacity = capacity;
+		networksPerSlab = Math.max(SLAB_SIZE / Math.max(stride * Double.BYTES, 1), 1);
+		long slabCount = (capacity + networksPerSlab - 1) / networksPerSlab;
+		if (slabCount > Integer.MAX_VALUE) throw new IllegalArgumentException("Capacity is too large.");
+		slabs = new AtomicReferenceArray<>((int) slabCount);
+		mappedSlabs = new MappedByteBuffer[channel == null ? 0 : (int) slabCount];
+
+		this.channel = channel;
+		this.header = header;
+	}
+
+	/**
+	 * Opens a store backed by the given file. The file is created if it doesn't exist,
+	 * otherwise it's networks are loaded if it was created with the same topology.
+	 *
+	 * @param file The store's file
+	 * @param inputNeuronCount The number of input neurons
+	 * @param outputNeuronCount The number of output neurons
+	 * @param hiddenNeuronCount The number of hidden neurons as an array where each value is a layer
+	 * @param capacity The maximum number of networks
+	 * @return The opened store
+	 * @throws IOException Any exception thrown while opening the file or if the file doesn't match
+	 */
+	public static PopulationStore open(File file, int inputNeuronCount, int outputNeuronCount,
+	                                   int[] hiddenNeuronCount, long capacity) throws IOException {
+		if (capacity < 0) throw new IllegalArgumentException("Capacity can't be negative.");
+
+		return open(file, inputNeuronCount, outputNeuronCount, hiddenNeuronCount, capacity, false);
+	}
+
+	/**
+	 * Opens an existing store backed by the given file. It's capacity is the number of networks in the file,
+	 * so no networks can be added to it.
+	 *
+	 * @param file The store's file
+	 * @param inputNeuronCount The number of input neurons
+	 * @param outputNeuronCount The number of output neurons
+	 * @param hiddenNeuronCount The number of hidden neurons as an array where each value is a layer
+	 * @return The opened store
+	 * @throws IOException Any exception thrown while opening the file or if the file doesn't match
+	 */
+	public static PopulationStore open(File file, int inputNeuronCount, int outputNeuronCount,
+	                                   int[] hiddenNeuronCount) throws IOException {
+		if (file == null) throw new NullPointerException("File can't be null.");
+		if (!file.isFile()) throw new FileNotFoundException("Population store file doesn't exist: " + file);
+
+		return open(file, inputNeuronCount, outputNeuronCount, hiddenNeuronCount, 0, true);
+	}
+
+	/**
+	 * Opens a store backed by the given file.
+	 *
+	 * @param file The store's file
+	 * @param inputNeuronCount The number of input neurons
+	 * @param outputNeuronCount The number of output neurons
+	 * @param hiddenNeuronCount The number of hidden neurons as an array where each value is a layer
+	 * @param capacity The maximum number of networks
+	 * @param existing Whether or not the capacity is the number of networks in the file instead
+	 * @return The opened store
+	 * @throws IOException Any exception thrown while opening the file or if the file doesn't match
+	 */
+	private static PopulationStore open(File file, int inputNeuronCount, int outputNeuronCount,
+	                                    int[] hiddenNeuronCount, long capacity, boolean existing) throws IOException {
+		if (file == null) throw new NullPointerException("File can't be null.");
+		if (hiddenNeuronCount == null) throw new NullPointerException("Hidden neuron count can't be null.");
+		if (TOPOLOGY_POSITION + (hiddenNeuronCount.length + 3) * Integer.BYTES > HEADER_SIZE) {
+			throw new IllegalArgumentException("Too many hidden layers.");
+		}
+
+		FileChannel channel = FileChannel.open(
+				file.toPath(),
+				StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE
+		);
+		try {
+			boolean created = channel.size() == 0;
+			if (created && existing) throw new IOException("Population store file is empty");
+			MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE);
+
+			long size = 0;
+			if (created) {
+				header.putInt(0, MAGIC);
+				header.putInt(4, VERSION);
+				header.putLong(SIZE_POSITION, 0);
+				header.position(TOPOLOGY_POSITION);
+				header.putInt(inputNeuronCount);
+				header.putInt(outputNeuronCount);
+				header.putInt(hiddenNeuronCount.length);
+				for (int count : hiddenNeuronCount) header.putInt(count);
+			} else {
+				if (header.getInt(0) != MAGIC) throw new IOException("Not a population store file");
+				if (header.getInt(4) != VERSION) throw new IOException("Unsupported population store version: " + header.getInt(4));
+
+				header.position(TOPOLOGY_POSITION);
+				boolean matches = header.getInt() == inputNeuronCount
+						&& header.getInt() == outputNeuronCount
+						&& header.getInt() == hiddenNeuronCount.length;
+				for (int layer = 0; matches && layer < hiddenNeuronCount.length; layer++) {
+					matches = header.getInt() == hiddenNeuronCount[layer];
+				}
+				if (!matches) throw new IOException("Population store topology doesn't match");
+
+				size = header.getLong(SIZE_POSITION);
+				if (size < 0) throw new IOException("Population store size is negative");
+				if (existing) capacity = size;
+				if (size > capacity) throw new IOException("Population store holds more networks than the capacity");
+			}
+
+			PopulationStore store = new PopulationStore(
+					inputNeuronCount, outputNeuronCount, hiddenNeuronCount, capacity,
+					channel, header
+			);
+			if (channel.size() < HEADER_SIZE + size * store.stride * Double.BYTES) {
+				throw new IOException("Population store file is truncated");
+			}
+			for (long index = 0; index < size; index += store.networksPerSlab) store.slab(index);
+			store.size = size;
+			return store;
+		} catch (IOException | RuntimeException e) {
+			channel.close();
+			throw e;
+		}
+	}
+
+	/**
+	 * Returns the number of connection strengths stored for every network.
+	 *
+	 * @return The stride
+	 */
+	public int getStride() {
+		return stride;
+	}
+
+	/**
+	 * Returns the number of stored networks.
+	 *
+	 * @return The size
+	 */
+	public long getSize() {
+		return size;
+	}
+
+	/**
+	 * Returns the maximum number of networks.
+	 *
+	 * @return The capacity
+	 */
+	public long getCapacity() {
+		return capacity;
+	}
+
+	/**
+	 * Appends a network to the store.
+	 *
+	 * @param network The network
+	 * @return The index of the network
+	 * @throws IOException Any exception thrown while mapping a new slab of the file
+	 */
+	public synchronized long add(Network network) throws IOException {
+		checkOpen();
+		checkTopology(network);
+		if (size == capacity) throw new IllegalStateException("The store is full.");
+
+		long index = size;
+		write(slab(index), index, network);
+		size = index + 1;
+		return index;
+	}
+
+	/**
+	 * Overwrites a stored network. The network mustn't be evaluated through a view while it's overwritten.
+	 *
+	 * @param index The index of the overwritten network
+	 * @param network The new network
+	 */
+	public void set(long index, Network network) {
+		checkOpen();
+		checkIndex(index);
+		checkTopology(network);
+
+		write(slabs.get((int) (index / networksPerSlab)), index, network);
+	}
+
+	/**
+	 * Creates a network on the heap from the stored connection strengths.
+	 *
+	 * @param index The network's index
+	 * @return The network
+	 */
+	public Network get(long index) {
+		checkOpen();
+		checkIndex(index);
+
+		DoubleBuffer connections = slabs.get((int) (index / networksPerSlab)).duplicate();
+		connections.position((int) (index % networksPerSlab) * stride);
+		return new Network(inputNeuronCount, outputNeuronCount, hiddenNeuronCount, connections);
+	}
+
+	/**
+	 * Creates a view evaluating the stored networks in place.
+	 * A view points at one network at a time, so every thread needs it's own view.
+	 *
+	 * @return The view
+	 */
+	public View createView() {
+		checkOpen();
+		return new View();
+	}
+
+	/**
+	 * Writes the stored networks and the size to the file.
+	 * It does nothing if the store isn't backed by a file.
+	 */
+	public synchronized void flush() {
+		if (channel == null || closed) return;
+
+		for (MappedByteBuffer slab : mappedSlabs) {
+			if (slab != null) slab.force();
+		}
+		header.putLong(SIZE_POSITION, size);
+		header.force();
+	}
+
+	/**
+	 * Flushes and closes the store. The views can't be used after it's closed.
+	 *
+	 * @throws IOException Any exception thrown while closing the file
+	 */
+	@Override
+	public synchronized void close() throws IOException {
+		if (closed) return;
+
+		flush();
+		closed = true;
+		if (channel != null) channel.close();
+	}
+
+	/**
+	 * Returns the slab holding the given index, allocating or mapping it if it doesn't exist yet.
+	 * The slabs are only created while holding the store's lock and they're published through an atomic array,
+	 * so the readers without the lock always see a fully created slab.
+	 *
+	 * @param index The network's index
+	 * @return The slab
+	 * @throws IOException Any exception thrown while mapping the file
+	 */
+	private DoubleBuffer slab(long index) throws IOException {
+		int slab = (int) (index / networksPerSlab);
+		if (slabs.get(slab) == null) {
+			long first = (long) slab * networksPerSlab;
+			int bytes = (int) Math.min(capacity - first, networksPerSlab) * stride * Double.BYTES;
+
+			if (channel == null) {
+				slabs.set(slab, ByteBuffer.allocateDirect(bytes).asDoubleBuffer());
+			} else {
+				mappedSlabs[slab] = channel.map(
+						FileChannel.MapMode.READ_WRITE,
+						HEADER_SIZE + first * stride * Double.BYTES,
+						bytes
+				);
+				slabs.set(slab, mappedSlabs[slab].asDoubleBuffer());
+			}
+		}
+		return slabs.get(slab);
+	}
+
+	private void write(DoubleBuffer slab, long index, Network network) {
+		DoubleBuffer connections = slab.duplicate();
+		connections.position((int) (index % networksPerSlab) * stride);
+		network.getConnections(connections);
+	}
+
+	private void checkOpen() {
+		if (closed) throw new IllegalStateException("The store is closed.");
+	}
+
+	private void checkIndex(long index) {
+		if (index < 0 || index >= size) throw new IndexOutOfBoundsException("Index: " + index + ", size: " + size);
+	}
+
+	private void checkTopology(Network network) {
+		if (network == null) throw new NullPointerException("Network can't be null.");
+		if (network.getLayerCount() != neuronCounts.length) {
+			throw new IllegalArgumentException("Network layer count doesn't match.");
+		}
+		for (int layer = 0; layer < neuronCounts.length; layer++) {
+			if (network.getNeuronCount(layer) != neuronCounts[layer]) {
+				throw new IllegalArgumentException("Network neuron count doesn't match on layer: " + layer);
+			}
+		}
+	}
+
+	/**
+	 * A flyweight network evaluating a stored network's connection strengths in place.
+	 * It's pointed at a network by it's index and can be moved to another one at any time,
+	 * even between the ticks of an evaluation as the neuron values are held in the evaluation's context.
+	 */
+	public final class View implements NeuralNetwork {
+
+		private DoubleBuffer slab;
+		private int offset;
+		private long index = -1;
+
+		private View() {
+		}
+
+		/**
+		 * Points the view at the given network.
+		 *
+		 * @param index The network's index
+		 * @return This view
+		 */
+		public View at(long index) {
+			checkOpen();
+			checkIndex(index);
+
+			slab = slabs.get((int) (index / networksPerSlab));
+			offset = (int) (index % networksPerSlab) * stride;
+			this.index = index;
+			return this;
+		}
+
+		/**
+		 * Returns the index of the network the view points at.
+		 *
+		 * @return The index or -1 if the view wasn't pointed at a network yet
+		 */
+		public long getIndex() {
+			return index;
+		}
+
+		@Override
+		public int getInputNeuronCount() {
+			return inputNeuronCount;
+		}
+
+		@Override
+		public int getOutputNeuronCount() {
+			return outputNeuronCount;
+		}
+
+		@Override
+		public int getLayerCount() {
+			return neuronCounts.length;
+		}
+
+		@Override
+		public int getNeuronCount(int layer) {
+			return neuronCounts[layer];
+		}
+
+		@Override
+		public Network.Context createContext() {
+			return new Network.Context(neuronCounts);
+		}
+
+		/**
+		 * Evaluates the network the view points at the same way as {@link Network#evaluate(double[], Network.Context)}.
+		 *
+		 * @param input The input neuron values
+		 * @param context The context holding the neuron values (it can't be used by multiple threads at once)
+		 * @return The output neuron values, which are overwritten by the context's next evaluation
+		 */
+		@Override
+		public double[] evaluate(double[] input, Network.Context context) {
+			if (input == null) throw new NullPointerException("Input can't be null");
+			if (context == null) throw new NullPointerException("Context can't be null");
+			if (slab == null) throw new IllegalStateException("The view doesn't point at a network.");
+			if (input.length != inputNeuronCount) {
+				throw new IllegalArgumentException("Input size doesn't match input neuron count");
+			}
+			if (!context.matches(neuronCounts)) {
+				throw new IllegalArgumentException("Context doesn't match the network's neuron counts");
+			}
+			checkOpen();
+
+			double[][] neurons = context.neurons;
+			System.arraycopy(input, 0, neurons[0], 0, inputNeuronCount);
+
+			int layerOffset = offset;
+			for (int fromLayer = 0; fromLayer < neurons.length - 1; fromLayer++) {
+				double[] neuronFromLayer = neurons[fromLayer];
+				double[] neuronToLayer = neurons[fromLayer + 1];
+
+				for (int toNeuron = 0; toNeuron < neuronToLayer.length; toNeuron++) {
+					double sum = 0;
+					int connection = layerOffset + toNeuron;
+					for (int fromNeuron = 0; fromNeuron < neuronFromLayer.length; fromNeuron++) {
+						sum += neuronFromLayer[fromNeuron] * slab.get(connection);
+						connection += neuronToLayer.length;
+					}
+					neuronToLayer[toNeuron] = Network.sigmoid(sum);
+				}
+				layerOffset += neuronFromLayer.length * neuronToLayer.length;
+			}
+
+			return neurons[neurons.length - 1];
+		}
+	}
+}
@@ -1,6 +1,7 @@
 package com.madebyaron.genai.ai;
 
 import com.madebyaron.genai.ai.processes.FlappyProcess;
+import com.madebyaron.genai.metrics.EpisodeEvent;
 
 /**
  * This class is responsible for evaluating the networks.
@@ -43,25 +44,131 @@ public interface Process<D extends Process.Data> {
 	/**
 	 * Creates a new network suitable for this process.
 	 *
+	 * @param seed The seed for the random generation
 	 * @return The new network
 	 */
-	Network createNetwork();
+	Network createNetwork(long seed);
+
+	/**
+	 * Creates a new network suitable for this process
+	 * using the calling thread's random stream.
+	 *
+	 * @return The new network
+	 */
+	default Network createNetwork() {
+		return createNetwork(RandomSource.getDefault().current().nextLong());
+	}
 
 	/**
 	 * Creates a new network suitable for this process by combining two other networks.
 	 *
 	 * @param networkA One of the networks to combine
 	 * @param networkB One of the networks to combine
+	 * @param seed The seed for the random generation
 	 * @return The new network created by combining the given networks
 	 */
-	Network createNetwork(Network networkA, Network networkB);
+	Network createNetwork(Network networkA, Network networkB, long seed);
+
+	/**
+	 * Creates a new network suitable for this process by combining two other networks.
+	 * The new network may take over the storage of a network dropped from the pool.
+	 * Processes that don't support recycling just create a new network.
+	 *
+	 * @param networkA One of the networks to combine
+	 * @param networkB One of the networks to combine
+	 * @param seed The seed for the random generation
+	 * @param recycler The recycler of the dropped networks' storage
+	 * @return The new network created by combining the given networks
+	 */
+	default Network createNetwork(Network networkA, Network networkB, long seed, NetworkRecycler recycler) {
+		return createNetwork(networkA, networkB, seed);
+	}
+
+	/**
+	 * Creates a new network suitable for this process by combining two other networks
+	 * using the calling thread's random stream.
+	 *
+	 * @param networkA One of the networks to combine
+	 * @param networkB One of the networks to combine
+	 * @return The new network created by combining the given networks
+	 */
+	default Network createNetwork(Network networkA, Network networkB) {
+		return createNetwork(networkA, networkB, RandomSource.getDefault().current().nextLong());
+	}
 
 	/**
 	 * Creates a data object for this specific process.
+	 * Every random decision of the episode should be derived from the given seed.
 	 *
+	 * @param seed The episode's seed
 	 * @return The new data object
 	 */
-	D createData();
+	D createData(long seed);
+
+	/**
+	 * Creates a data object for this specific process
+	 * using the calling thread's random stream.
+	 *
+	 * @return The new data object
+	 */
+	default D createData() {
+		return createData(RandomSource.getDefault().current().nextLong());
+	}
+
+	/**
+	 * Returns the number of episodes a network is evaluated on.
+	 * The network's evaluation is the average of it's episodes' evaluations.
+	 *
+	 * @return The episode count
+	 */
+	default int getEpisodeCount() {
+		return 1;
+	}
+
+	/**
+	 * Returns whether or not the evaluation of a network can differ between two runs with the same seed
+	 * (e.g. it depends on the timing or on randomness that isn't derived from the episode's seed).
+	 * The evaluations of a stochastic process aren't cached.
+	 *
+	 * @return True if the process is stochastic
+	 */
+	default boolean isStochastic() {
+		return false;
+	}
+
+	/**
+	 * Evaluates the given network by running every episode until it's evaluated.
+	 * The episodes' seeds are derived from the given seed so the evaluation only depends
+	 * on the network and the seed, not on where or when it's evaluated.
+	 *
+	 * @param network The evaluated network
+	 * @param seed The seed the episodes are derived from (the pool's evaluation seed of the generation)
+	 * @return The network's evaluation
+	 */
+	default double evaluate(NeuralNetwork network, long seed) {
+		double evaluation = 0;
+		for (int episode = 0; episode < getEpisodeCount(); episode++) {
+			EpisodeEvent event = new EpisodeEvent();
+			event.begin();
+
+			D data = createData(RandomSource.mix(seed, episode));
+			long tickCount = 0;
+			while (!data.isEvaluated()) {
+				tick(network, data, Graphics.NONE);
+				tickCount++;
+			}
+			evaluation += data.getEvaluation();
+
+			if (event.shouldCommit()) {
+				event.process = getName();
+				event.episode = episode;
+				event.tickCount = tickCount;
+				event.evaluation = data.getEvaluation();
+				event.commit();
+			}
+		}
+		return evaluation / getEpisodeCount();
+	}
 
 	/**
 	 * This is where one tick (e.g. step / frame) of the evaluation should be implemented.
@@ -71,7 +178,7 @@ public interface Process<D extends Process.Data> {
 	 * @param data The evaluation data (e.g. player position, environment variables)
 	 * @param graphics The graphics class used for rendering
 	 */
-	void tick(Network network, D data, Graphics graphics);
+	void tick(NeuralNetwork network, D data, Graphics graphics);
 
 	/**
 	 * The process data that is carried over from one tick to the next.
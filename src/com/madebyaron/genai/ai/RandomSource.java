@@ -0,0 +1,101 @@
+package com.madebyaron.genai.ai;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * This class is a seedable source of random number streams.
+ * Every stream is derived from a single master seed so a run can be
+ * reproduced, while every thread draws from it's own stream
+ * so there is no contention between the workers.
+ */
+public final class RandomSource {
+
+	private static final RandomSource DEFAULT = new RandomSource(System.nanoTime());
+
+	private final long seed;
+
+	private final AtomicLong threadStreams = new AtomicLong();
+	private final ThreadLocal<SplittableRandom> threadRandom = ThreadLocal.withInitial(
+			() -> stream(threadStreams.getAndIncrement())
+	);
+
+	/**
+	 * Creates a random source from a master seed.
+	 *
+	 * @param seed The master seed every stream is derived from
+	 */
+	public RandomSource(long seed) {
+		this.seed = seed;
+	}
+
+	/**
+	 * Returns the random source used when no explicit source is given.
+	 * It's seeded from the time of the class' initialization.
+	 *
+	 * @return The default random source
+	 */
+	public static RandomSource getDefault() {
+		return DEFAULT;
+	}
+
+	/**
+	 * Returns the master seed of this source.
+	 *
+	 * @return The master seed
+	 */
+	public long getSeed() {
+		return seed;
+	}
+
+	/**
+	 * Returns a new stream identified by the given keys.
+	 * The same keys always produce the same stream, independently
+	 * of the thread or the order in which the streams are requested.
+	 *
+	 * @param keys The keys identifying the stream (e.g. generation, index)
+	 * @return The new random stream
+	 */
+	public SplittableRandom stream(long... keys) {
+		return new SplittableRandom(derive(keys));
+	}
+
+	/**
+	 * Derives a seed from the master seed and the given keys.
+	 *
+	 * @param keys The keys identifying the seed
+	 * @return The derived seed
+	 */
+	public long derive(long... keys) {
+		long derived = seed;
+		for (long key : keys) derived = mix(derived, key);
+		return derived;
+	}
+
+	/**
+	 * Returns the calling thread's own stream.
+	 * The streams aren't reproducible as they depend on the order
+	 * in which the threads first ask for them, so this should only
+	 * be used where reproducibility doesn't matter.
+	 *
+	 * @return The current thread's random stream
+	 */
+	public SplittableRandom current() {
+		return threadRandom.get();
+	}
+
+	/**
+	 * Mixes a key into a seed (using the SplitMix64 finalizer)
+	 * producing a well distributed new seed.
+	 *
+	 * @param seed The seed
+	 * @param key The mixed key
+	 * @return The new seed
+	 */
+	public static long mix(long seed, long key) {
+		long z = seed + 0x9E3779B97F4A7C15L * (key + 1);
+		z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+		z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+		return z ^ (z >>> 31);
+	}
+}
@@ -0,0 +1,77 @@
+package com.madebyaron.genai.ai;
+
+import com.madebyaron.genai.ai.selections.ClassicSelection;
+import com.madebyaron.genai.ai.selections.RankSelection;
+import com.madebyaron.genai.ai.selections.StochasticUniversalSampling;
+import com.madebyaron.genai.ai.selections.TournamentSelection;
+import com.madebyaron.genai.ai.selections.TruncationSelection;
+
+import java.util.SplittableRandom;
+
+/**
+ * This interface is responsible for choosing the networks that survive a generation.
+ * The parents of the new networks are picked from the survivors.
+ * A strategy is identified by it's name which includes it's parameters (e.g. tournament-3),
+ * so it can be stored in pool files.
+ */
+public interface SelectionStrategy {
+
+	SelectionStrategy CLASSIC = new ClassicSelection();
+	SelectionStrategy TRUNCATION = new TruncationSelection();
+	SelectionStrategy RANK = new RankSelection();
+	SelectionStrategy STOCHASTIC_UNIVERSAL_SAMPLING = new StochasticUniversalSampling();
+
+	SelectionStrategy[] STRATEGIES = {
+		CLASSIC,
+		TRUNCATION,
+		new TournamentSelection(2),
+		new TournamentSelection(3),
+		new TournamentSelection(5),
+		RANK,
+		STOCHASTIC_UNIVERSAL_SAMPLING
+	};
+
+	/**
+	 * Returns a strategy by it's name. Tournaments of any size
+	 * can be created by their name (e.g. tournament-7).
+	 *
+	 * @param name The strategy's name
+	 * @return The strategy with the given name or null if there is none
+	 */
+	static SelectionStrategy getStrategy(String name) {
+		for (SelectionStrategy strategy : STRATEGIES) {
+			if (strategy.getName().equals(name)) {
+				return strategy;
+			}
+		}
+
+		if (name.startsWith(TournamentSelection.NAME + "-")) {
+			try {
+				int size = Integer.parseInt(name.substring(TournamentSelection.NAME.length() + 1));
+				if (size > 0) return new TournamentSelection(size);
+			} catch (NumberFormatException ignored) {
+
+			}
+		}
+
+		return null;
+	}
+
+	/**
+	 * Returns the strategy's name including it's parameters.
+	 *
+	 * @return The strategy's name
+	 */
+	String getName();
+
+	/**
+	 * Chooses the given number of distinct survivors.
+	 * Every random decision should be drawn from the given random stream.
+	 *
+	 * @param evaluations The evaluation of every network (higher is better)
+	 * @param count The number of survivors (at most the number of networks)
+	 * @param random The random stream of the generation
+	 * @return The survivors' indices
+	 */
+	int[] select(double[] evaluations, int count, SplittableRandom random);
+}
@@ -1,14 +1,14 @@
 package com.madebyaron.genai.ai.processes;
 
 import com.madebyaron.genai.ai.Network;
+import com.madebyaron.genai.ai.NetworkRecycler;
+import com.madebyaron.genai.ai.NeuralNetwork;
 import com.madebyaron.genai.ai.Process;
 
-import java.util.Random;
+import java.util.SplittableRandom;
 
 public final class FlappyProcess implements Process<FlappyProcess.FlappyData> {
 
-	private static final Random RANDOM = new Random();
-
 	private static final int INPUT_NEURONS = 6;
 	private static final int OUTPUT_NEURONS = 1;
 	private static final int[] HIDDEN_NEURONS = {4, 3};
@@ -30,30 +30,41 @@ public final class FlappyProcess implements Process<FlappyProcess.FlappyData> {
 	}
 
 	@Override
-	public Network createNetwork() {
+	public Network createNetwork(long seed) {
 		return new Network(
 				INPUT_NEURONS, OUTPUT_NEURONS, HIDDEN_NEURONS,
 				-1, 1,
-				RANDOM.nextLong()
+				seed
+		);
+	}
+
+	@Override
+	public Network createNetwork(Network networkA, Network networkB, long seed) {
+		return new Network(
+				networkA, networkB,
+				0.005, 0.02, 0.05,
+				seed
 		);
 	}
 
 	@Override
-	public Network createNetwork(Network networkA, Network networkB) {
+	public Network createNetwork(Network networkA, Network networkB, long seed, NetworkRecycler recycler) {
 		return new Network(
 				networkA, networkB,
 				0.005, 0.02, 0.05,
-				RANDOM.nextLong()
+				seed,
+				recycler
 		);
 	}
 
 	@Override
-	public FlappyData createData() {
-		return new FlappyData();
+	public FlappyData createData(long seed) {
+		return new FlappyData(new SplittableRandom(seed));
 	}
 
 	@Override
-	public void tick(Network network, FlappyData data, Process.Graphics graphics) {
+	public void tick(NeuralNetwork network, FlappyData data, Process.Graphics graphics) {
+		if (data.context == null) data.context = network.createContext();
 		double[] input = network.evaluate(new double[]{
 				data.flappyY,
 				data.flappyVY,
@@ -61,7 +72,7 @@ public final class FlappyProcess implements Process<FlappyProcess.FlappyData> {
 				data.pipeY,
 				data.pipeY + PIPE_HEIGHT,
 				1
-		});
+		}, data.context);
 
 		if (data.prev < 0 && input[0] > 0) {
 			data.flappyVY = FLAPPY_JUMP;
@@ -75,7 +86,7 @@ public final class FlappyProcess implements Process<FlappyProcess.FlappyData> {
 
 		if (data.pipeX == 0 || data.flappyX > data.pipeX + PIPE_WIDTH) {
 			data.pipeX = data.flappyX + (PIPE_RATE - data.flappyX % PIPE_RATE);
-			data.pipeY = RANDOM.nextDouble() * (1.0 - PIPE_HEIGHT);
+			data.pipeY = data.random.nextDouble() * (1.0 - PIPE_HEIGHT);
 		}
 
 		if (data.flappyX + FLAPPY_WIDTH > data.pipeX && data.flappyX < data.pipeX + PIPE_WIDTH) {
@@ -124,6 +135,8 @@ public final class FlappyProcess implements Process<FlappyProcess.FlappyData> {
 
 	public static class FlappyData extends Process.Data {
 
+		private final SplittableRandom random;
+
 		private double flappyX = 0;
 		private double flappyY = 0.5;
 		private double flappyVY = 0;
@@ -131,7 +144,13 @@ public final class FlappyProcess implements Process<FlappyProcess.FlappyData> {
 		private double pipeX = 0;
 		private double pipeY = 0;
 
+		private Network.Context context;
+
 		private double prev = 0;
 		private boolean died = false;
+
+		private FlappyData(SplittableRandom random) {
+			this.random = random;
+		}
 	}
 }
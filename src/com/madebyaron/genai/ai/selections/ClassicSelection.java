@@ -0,0 +1,143 @@
+package com.madebyaron.genai.ai.selections;
+
+import com.madebyaron.genai.ai.SelectionStrategy;
+
+import java.util.SplittableRandom;
+
+/**
+ * The original selection of the pool. The networks are sorted by their evaluation
+ * and removed one by one at random with a strong bias towards the worst ones.
+ * The indices are sorted as primitives and the remaining networks are counted in a Fenwick tree,
+ * so finding the removed network takes logarithmic time instead of shifting a list.
+ */
+public final class ClassicSelection implements SelectionStrategy {
+
+	public static final String NAME = "classic";
+
+	private static final int INSERTION_SORT_THRESHOLD = 16;
+
+	@Override
+	public String getName() {
+		return NAME;
+	}
+
+	@Override
+	public int[] select(double[] evaluations, int count, SplittableRandom random) {
+		int n = evaluations.length;
+		int[] sorted = new int[n];
+		for (int i = 0; i < n; i++) sorted[i] = i;
+		sort(sorted, evaluations, 0, n);
+
+		// tree[i] counts the remaining networks in the sorted positions (i - (i & -i), i]
+		int[] tree = new int[n + 1];
+		for (int i = 1; i <= n; i++) {
+			tree[i]++;
+			int parent = i + (i & -i);
+			if (parent <= n) tree[parent] += tree[i];
+		}
+
+		boolean[] removed = new boolean[n];
+		int size = n;
+		while (size > count) {
+			int position = find(tree, (int) (Math.pow(random.nextDouble(), 3) * size));
+			removed[position] = true;
+			for (int i = position + 1; i <= n; i += i & -i) tree[i]--;
+			size--;
+		}
+
+		int[] indices = new int[size];
+		int survivor = 0;
+		for (int i = 0; i < n; i++) {
+			if (!removed[i]) indices[survivor++] = sorted[i];
+		}
+		return indices;
+	}
+
+	/**
+	 * Finds the sorted position of the remaining network with the given rank.
+	 *
+	 * @param tree The Fenwick tree of the remaining networks
+	 * @param rank The rank among the remaining networks (starting from 0)
+	 * @return The sorted position
+	 */
+	private static int find(int[] tree, int rank) {
+		int position = 0;
+		int step = Integer.highestOneBit(tree.length - 1);
+		while (step > 0) {
+			int next = position + step;
+			if (next < tree.length && tree[next] <= rank) {
+				position = next;
+				rank -= tree[next];
+			}
+			step >>= 1;
+		}
+		return position;
+	}
+
+	/**
+	 * Sorts the indices in ascending order of their evaluation,
+	 * the indices of equal evaluations in ascending order.
+	 *
+	 * @param indices The indices
+	 * @param evaluations The evaluations
+	 * @param from The first sorted position (inclusive)
+	 * @param to The last sorted position (exclusive)
+	 */
+	private static void sort(int[] indices, double[] evaluations, int from, int to) {
+		while (to - from > INSERTION_SORT_THRESHOLD) {
+			int middle = (from + to) >>> 1;
+			int pivot = median(indices, evaluations, from, middle, to - 1);
+
+			int i = from;
+			int j = to - 1;
+			while (i <= j) {
+				while (compare(indices[i], pivot, evaluations) < 0) i++;
+				while (compare(indices[j], pivot, evaluations) > 0) j--;
+				if (i <= j) swap(indices, i++, j--);
+			}
+
+			// Recursing into the smaller part keeps the stack logarithmic
+			if (j - from < to - i) {
+				sort(indices, evaluations, from, j + 1);
+				from = i;
+			} else {
+				sort(indices, evaluations, i, to);
+				to = j + 1;
+			}
+		}
+
+		for (int i = from + 1; i < to; i++) {
+			int index = indices[i];
+			int j = i - 1;
+			while (j >= from && compare(indices[j], index, evaluations) > 0) {
+				indices[j + 1] = indices[j];
+				j--;
+			}
+			indices[j + 1] = index;
+		}
+	}
+
+	private static int median(int[] indices, double[] evaluations, int a, int b, int c) {
+		int x = indices[a];
+		int y = indices[b];
+		int z = indices[c];
+		if (compare(x, y, evaluations) < 0) {
+			if (compare(y, z, evaluations) < 0) return y;
+			return compare(x, z, evaluations) < 0 ? z : x;
+		} else {
+			if (compare(x, z, evaluations) < 0) return x;
+			return compare(y, z, evaluations) < 0 ? z : y;
+		}
+	}
+
+	private static int compare(int a, int b, double[] evaluations) {
+		int comparison = Double.compare(evaluations[a], evaluations[b]);
+		return comparison != 0 ? comparison : Integer.compare(a, b);
+	}
+
+	private static void swap(int[] array, int a, int b) {
+		int temporary = array[a];
+		array[a] = array[b];
+		array[b] = temporary;
+	}
+}
@@ -0,0 +1,83 @@
+package com.madebyaron.genai.ai.selections;
+
+import com.madebyaron.genai.ai.SelectionStrategy;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Rank roulette selection. The chance of a network surviving is proportional to it's rank
+ * (1 for the worst, n for the best) instead of it's evaluation, so a few outstanding
+ * networks can't take over the pool. The survivors are drawn without replacement
+ * by keeping the highest random keys weighted by the ranks.
+ * Ranking needs a sort, so unlike the other strategies it takes O(n log n) time.
+ */
+public final class RankSelection implements SelectionStrategy {
+
+	public static final String NAME = "rank";
+
+	@Override
+	public String getName() {
+		return NAME;
+	}
+
+	@Override
+	public int[] select(double[] evaluations, int count, SplittableRandom random) {
+		int n = evaluations.length;
+
+		double[] sorted = evaluations.clone();
+		Arrays.sort(sorted);
+
+		int[] ranks = rank(evaluations, sorted);
+
+		double[] keys = new double[n];
+		for (int i = 0; i < n; i++) {
+			// log(u) / w is the logarithm of the weighted random key u^(1/w)
+			keys[i] = Math.log(1 - random.nextDouble()) / ranks[i];
+		}
+
+		int[] indices = new int[n];
+		for (int i = 0; i < n; i++) indices[i] = i;
+		TruncationSelection.selectHighest(indices, keys, count, random);
+		return Arrays.copyOf(indices, count);
+	}
+
+	/**
+	 * Returns the rank of every evaluation. Equal evaluations share the average rank rounded down.
+	 *
+	 * @param evaluations The evaluations
+	 * @param sorted The evaluations in ascending order
+	 * @return The ranks (1 for the worst)
+	 */
+	private static int[] rank(double[] evaluations, double[] sorted) {
+		int[] ranks = new int[evaluations.length];
+		for (int i = 0; i < evaluations.length; i++) {
+			int first = lowerBound(sorted, evaluations[i]);
+			int last = upperBound(sorted, evaluations[i]);
+			ranks[i] = (first + 1 + last) / 2;
+		}
+		return ranks;
+	}
+
+	private static int lowerBound(double[] sorted, double value) {
+		int from = 0;
+		int to = sorted.length;
+		while (from < to) {
+			int middle = (from + to) >>> 1;
+			if (Double.compare(sorted[middle], value) < 0) from = middle + 1;
+			else to = middle;
+		}
+		return from;
+	}
+
+	private static int upperBound(double[] sorted, double value) {
+		int from = 0;
+		int to = sorted.length;
+		while (from < to) {
+			int middle = (from + to) >>> 1;
+			if (Double.compare(sorted[middle], value) <= 0) from = middle + 1;
+			else to = middle;
+		}
+		return from;
+	}
+}
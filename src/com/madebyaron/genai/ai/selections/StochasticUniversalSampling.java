@@ -0,0 +1,77 @@
+package com.madebyaron.genai.ai.selections;
+
+import com.madebyaron.genai.ai.SelectionStrategy;
+
+import java.util.SplittableRandom;
+
+/**
+ * Fitness proportionate selection with evenly spaced pointers over the evaluations,
+ * so the number of times a network is hit is as close to it's expected share as possible.
+ * The weights are the evaluations shifted to start from zero. A network hit more than once
+ * still survives only once, so the sampling is repeated over the rest of the networks
+ * until there are enough survivors. Every pass takes linear time.
+ * Networks with an infinite or undefined evaluation (e.g. a failed evaluation) have no weight.
+ */
+public final class StochasticUniversalSampling implements SelectionStrategy {
+
+	public static final String NAME = "sus";
+
+	@Override
+	public String getName() {
+		return NAME;
+	}
+
+	@Override
+	public int[] select(double[] evaluations, int count, SplittableRandom random) {
+		int n = evaluations.length;
+
+		double min = Double.POSITIVE_INFINITY;
+		for (double evaluation : evaluations) {
+			if (isFinite(evaluation)) min = Math.min(min, evaluation);
+		}
+
+		double[] weights = new double[n];
+		for (int i = 0; i < n; i++) weights[i] = isFinite(evaluations[i]) ? evaluations[i] - min : 0;
+
+		boolean[] selected = new boolean[n];
+		int[] survivors = new int[count];
+		int survivorCount = 0;
+		boolean forceUniform = false;
+
+		while (survivorCount < count) {
+			int needed = count - survivorCount;
+
+			double total = 0;
+			for (int i = 0; i < n; i++) {
+				if (!selected[i]) total += weights[i];
+			}
+
+			// If the rest of the networks are equally bad or the weights overflow they are sampled uniformly
+			boolean uniform = forceUniform || !(total > 0) || !isFinite(total);
+			if (uniform) total = n - survivorCount;
+
+			double spacing = total / needed;
+			double pointer = random.nextDouble() * spacing;
+			double cumulative = 0;
+			int passStart = survivorCount;
+			for (int i = 0; i < n && survivorCount < count; i++) {
+				if (selected[i]) continue;
+
+				cumulative += uniform ? 1 : weights[i];
+				if (cumulative > pointer) {
+					selected[i] = true;
+					survivors[survivorCount++] = i;
+					while (pointer < cumulative) pointer += spacing;
+				}
+			}
+
+			// A pass missing every network because of rounding is repeated uniformly, which always hits one
+			if (survivorCount == passStart) forceUniform = true;
+		}
+		return survivors;
+	}
+
+	private static boolean isFinite(double value) {
+		return !Double.isNaN(value) && !Double.isInfinite(value);
+	}
+}
@@ -0,0 +1,63 @@
+package com.madebyaron.genai.ai.selections;
+
+import com.madebyaron.genai.ai.SelectionStrategy;
+
+import java.util.SplittableRandom;
+
+/**
+ * Every survivor is the best of a given number of randomly picked networks
+ * that haven't survived yet. Larger tournaments mean higher selection pressure.
+ * It takes time proportional to the number of survivors times the tournament size.
+ */
+public final class TournamentSelection implements SelectionStrategy {
+
+	public static final String NAME = "tournament";
+
+	private final int size;
+
+	/**
+	 * Creates a tournament selection.
+	 *
+	 * @param size The number of networks competing in a tournament
+	 */
+	public TournamentSelection(int size) {
+		if (size < 1) throw new IllegalArgumentException("Tournament size must be positive.");
+
+		this.size = size;
+	}
+
+	/**
+	 * Returns the number of networks competing in a tournament.
+	 *
+	 * @return The tournament size
+	 */
+	public int getSize() {
+		return size;
+	}
+
+	@Override
+	public String getName() {
+		return NAME + "-" + size;
+	}
+
+	@Override
+	public int[] select(double[] evaluations, int count, SplittableRandom random) {
+		int[] candidates = new int[evaluations.length];
+		for (int i = 0; i < candidates.length; i++) candidates[i] = i;
+
+		// The survivors are moved to the end of the candidates
+		int remaining = candidates.length;
+		int[] survivors = new int[count];
+		for (int survivor = 0; survivor < count; survivor++) {
+			int winner = random.nextInt(remaining);
+			for (int i = 1; i < size; i++) {
+				int competitor = random.nextInt(remaining);
+				if (evaluations[candidates[competitor]] > evaluations[candidates[winner]]) winner = competitor;
+			}
+
+			survivors[survivor] = candidates[winner];
+			candidates[winner] = candidates[--remaining];
+		}
+		return survivors;
+	}
+}
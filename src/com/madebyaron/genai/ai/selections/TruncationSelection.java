@@ -0,0 +1,76 @@
+package com.madebyaron.genai.ai.selections;
+
+import com.madebyaron.genai.ai.SelectionStrategy;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Keeps the best networks. The survivors are found with a quickselect
+ * in linear expected time instead of sorting every network.
+ */
+public final class TruncationSelection implements SelectionStrategy {
+
+	public static final String NAME = "truncation";
+
+	@Override
+	public String getName() {
+		return NAME;
+	}
+
+	@Override
+	public int[] select(double[] evaluations, int count, SplittableRandom random) {
+		int[] indices = new int[evaluations.length];
+		for (int i = 0; i < indices.length; i++) indices[i] = i;
+
+		selectHighest(indices, evaluations, count, random);
+		return Arrays.copyOf(indices, count);
+	}
+
+	/**
+	 * Rearranges the indices so the first count of them
+	 * point to the highest keys (in no particular order).
+	 * It takes linear expected time.
+	 *
+	 * @param indices The indices of the keys
+	 * @param keys The keys
+	 * @param count The number of highest keys
+	 * @param random The random stream of the pivots
+	 */
+	public static void selectHighest(int[] indices, double[] keys, int count, SplittableRandom random) {
+		int from = 0;
+		int to = indices.length;
+		while (to - from > 1 && count > from && count < to) {
+			double pivot = keys[indices[from + random.nextInt(to - from)]];
+
+			// Three-way partition: higher, equal and lower keys
+			int higher = from;
+			int lower = to;
+			int i = from;
+			while (i < lower) {
+				double key = keys[indices[i]];
+				if (key > pivot) {
+					swap(indices, i++, higher++);
+				} else if (key < pivot) {
+					swap(indices, i, --lower);
+				} else {
+					i++;
+				}
+			}
+
+			if (count <= higher) {
+				to = higher;
+			} else if (count >= lower) {
+				from = lower;
+			} else {
+				return;
+			}
+		}
+	}
+
+	private static void swap(int[] array, int a, int b) {
+		int temporary = array[a];
+		array[a] = array[b];
+		array[b] = temporary;
+	}
+}
@@ -75,10 +75,11 @@ public final class ClientPresenter {
 	 * Evaluates the given network.
 	 *
 	 * @param network The network to be evaluated
+	 * @param seed The seed the evaluation episodes are derived from, received with the network
 	 * @return The given network's evaluation as a double value
 	 * @throws EvaluatorClient.EvaluationException Any exception that happens while evaluating
 	 */
-	private double evaluate(Network network) throws EvaluatorClient.EvaluationException {
+	private double evaluate(Network network, long seed) throws EvaluatorClient.EvaluationException {
 		if (process == null || !process.getName().equals(client.getProcess())) {
 			process = Process.getProcess(client.getProcess());
 		}
@@ -90,10 +91,9 @@ public final class ClientPresenter {
 
 		try {
 			view.setStatus("evaluating");
-			Process.Data data = process.createData();
-			while (!data.isEvaluated()) process.tick(network, data, Process.Graphics.NONE);
+			double evaluation = process.evaluate(network, seed);
 			view.setStatus("idle");
-			return data.getEvaluation();
+			return evaluation;
 		} catch (Exception e) {
 			view.showError("Error while evaluating", e.getClass().getSimpleName() + ": " + e.getMessage());
 			throw new EvaluatorClient.EvaluationException(e.getClass().getSimpleName() + ": " + e.getMessage());
@@ -13,6 +13,7 @@ public final class CreateHostPresenter {
 	private CreateHostView view;
 
 	private int port;
+	private long seed;
 
 	/**
 	 * Attaches a view to this presenter.
@@ -32,6 +33,15 @@ public final class CreateHostPresenter {
 		this.port = port;
 	}
 
+	/**
+	 * Sets the host pool's seed.
+	 *
+	 * @param seed The host pool's seed
+	 */
+	public void setSeed(long seed) {
+		this.seed = seed;
+	}
+
 	/**
 	 * Initiates the creation of a new host.
 	 * Also checks if the given parameters are valid.
@@ -59,7 +69,7 @@ public final class CreateHostPresenter {
 
 			int size = Integer.parseInt(poolSize);
 
-			Pool pool = new Pool(process, size);
+			Pool pool = new Pool(process, size, seed);
 			view.openHost(port, pool);
 		} catch (NumberFormatException e) {
 			view.showError("Wrong parameters", "The pool size must be a number.");
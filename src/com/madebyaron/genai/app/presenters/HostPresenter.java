@@ -1,35 +1,64 @@
 package com.madebyaron.genai.app.presenters;
 
+import com.madebyaron.genai.ai.Checkpointer;
+import com.madebyaron.genai.ai.EvaluationSummary;
+import com.madebyaron.genai.ai.FitnessCache;
+import com.madebyaron.genai.ai.FitnessHistory;
 import com.madebyaron.genai.ai.Pool;
+import com.madebyaron.genai.ai.SelectionStrategy;
 import com.madebyaron.genai.app.views.HostView;
+import com.madebyaron.genai.metrics.Counter;
+import com.madebyaron.genai.metrics.Histogram;
+import com.madebyaron.genai.metrics.MetricRegistry;
 import com.madebyaron.genai.net.EvaluatorConnection;
+import com.madebyaron.genai.net.EvaluatorHost;
 import com.madebyaron.genai.net.EvaluatorServer;
+import com.madebyaron.genai.net.LocalEvaluator;
 import com.madebyaron.genai.ai.Network;
-import javafx.application.Platform;
 
 import java.io.File;
 import java.io.IOException;
 import java.net.InetAddress;
 import java.net.ServerSocket;
 import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
 /**
  * The host view's presenter. Handles the host server, pool and the evaluation.
  */
 public final class HostPresenter{
 
+	public static final File CHECKPOINT_DIRECTORY = new File("checkpoints");
+	private static final int CHECKPOINT_INTERVAL = 10;
+	private static final int CHECKPOINT_COUNT = 3;
+	private static final int CACHE_CAPACITY = 100_000;
+	private static final long METRICS_INTERVAL = 1000;
+
 	private HostView view;
 	private Pool pool;
-	private EvaluatorServer server;
+	private volatile EvaluatorServer server;
+	private volatile EvaluatorHost host;
+	private Checkpointer checkpointer;
+	private LocalEvaluator localEvaluator;
+	private FitnessCache fitnessCache;
+	private ScheduledExecutorService metricsExecutor;
+
+	private boolean compressed = false;
+	private boolean steadyState = false;
 
-	private Pool.Evaluation evaluation;
-	private boolean evaluating = false;
-	private boolean evaluationStopped = false;
+	private volatile Network bestNetwork;
+	private final FitnessHistory fitnessHistory = new FitnessHistory();
 
-	private Network bestNetwork;
+	private final List<EvaluatorConnection> connections = new LinkedList<>();
 
 	private final EvaluatorServer.Listener serverListener = new ServerListener();
 	private final EvaluatorConnection.Listener evaluationListener = new EvaluationListener();
+	private final EvaluatorHost.Listener hostListener = new HostListener();
+	private final Checkpointer.Listener checkpointListener = new CheckpointListener();
 
 	/**
 	 * Attaches a view to this presenter.
@@ -63,12 +92,34 @@ public final class HostPresenter{
 			server.addEvaluationListener(evaluationListener);
 
 			view.setProcess(server.getProcess());
+			view.setSeed(pool.getSeed());
+			view.setSelectionStrategy(pool.getSelectionStrategy().getName());
 			InetAddress hostAddress = server.getAddress();
 			view.setHostAddress(hostAddress == null ? "Unknown" : hostAddress.getHostAddress(), server.getPort());
 			view.setHostLoad(server.getLoad());
+			view.setFitnessHistory(fitnessHistory);
 
 			view.setSaveEnabled(true);
 			view.setPlayEnabled(false);
+
+			checkpointer = new Checkpointer(CHECKPOINT_DIRECTORY, CHECKPOINT_INTERVAL, CHECKPOINT_COUNT);
+			checkpointer.setCompressed(compressed);
+			checkpointer.addListener(checkpointListener);
+
+			host = new EvaluatorHost(pool, server);
+			host.setCheckpointer(checkpointer);
+			host.setSteadyState(steadyState);
+			host.addListener(hostListener);
+
+			fitnessCache = new FitnessCache(CACHE_CAPACITY);
+			host.setFitnessCache(fitnessCache);
+
+			metricsExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+				Thread thread = new Thread(runnable, "HostPresenter metrics");
+				thread.setDaemon(true);
+				return thread;
+			});
+			metricsExecutor.scheduleAtFixedRate(new MetricsUpdater(), METRICS_INTERVAL, METRICS_INTERVAL, TimeUnit.MILLISECONDS);
 		} catch (IOException e) {
 			e.printStackTrace();
 			view.showError("Couldn't create server", e.getClass().getSimpleName() + ": " + e.getMessage());
@@ -80,10 +131,92 @@ public final class HostPresenter{
 	 * Stops the server from running.
 	 */
 	public void stopServer() {
+		setLocalEvaluation(false);
+
+		if (metricsExecutor != null) {
+			metricsExecutor.shutdownNow();
+			metricsExecutor = null;
+		}
+
+		if (host != null) {
+			host.close();
+			host = null;
+		}
+
 		if (server != null) {
 			server.close();
 			server = null;
 		}
+
+		if (checkpointer != null) {
+			checkpointer.close();
+			checkpointer = null;
+		}
+	}
+
+	/**
+	 * Sets whether or not the networks should also be evaluated in this process on every core.
+	 * The local evaluation runs next to the connected clients.
+	 *
+	 * @param enabled True if the networks should be evaluated locally
+	 */
+	public void setLocalEvaluation(boolean enabled) {
+		if (enabled && localEvaluator == null && server != null) {
+			localEvaluator = new LocalEvaluator(pool.getProcess(), Runtime.getRuntime().availableProcessors());
+			server.addEvaluator(localEvaluator);
+		} else if (!enabled && localEvaluator != null) {
+			if (server != null) server.removeEvaluator(localEvaluator);
+			localEvaluator.close();
+			localEvaluator = null;
+		}
+	}
+
+	/**
+	 * Sets the strategy choosing the survivors of the next generations.
+	 *
+	 * @param name The selection strategy's name
+	 */
+	public void setSelectionStrategy(String name) {
+		SelectionStrategy selection = SelectionStrategy.getStrategy(name);
+		if (selection == null) {
+			view.showError("Can't set selection", "The selection strategy can't be found.");
+		} else {
+			pool.setSelectionStrategy(selection);
+		}
+	}
+
+	/**
+	 * Sets the number of best networks that always survive a generation.
+	 *
+	 * @param eliteCount The elite count as text
+	 */
+	public void setEliteCount(String eliteCount) {
+		try {
+			pool.setEliteCount(Integer.parseInt(eliteCount.trim()));
+		} catch (IllegalArgumentException e) {
+			view.showError("Can't set elites", "The elite count must be a non-negative number.");
+		}
+	}
+
+	/**
+	 * Sets whether or not the pool should evolve in steady state mode.
+	 * It takes effect when the evaluation is started next time.
+	 *
+	 * @param steadyState True for steady state mode, false for generational mode
+	 */
+	public void setSteadyState(boolean steadyState) {
+		this.steadyState = steadyState;
+		if (host != null) host.setSteadyState(steadyState);
+	}
+
+	/**
+	 * Sets whether or not the saved pools and checkpoints should be compressed.
+	 *
+	 * @param compressed True if the saves should be compressed
+	 */
+	public void setCompressed(boolean compressed) {
+		this.compressed = compressed;
+		if (checkpointer != null) checkpointer.setCompressed(compressed);
 	}
 
 	/**
@@ -92,12 +225,16 @@ public final class HostPresenter{
 	 * @param file The save file
 	 */
 	public void save(File file) {
-		if (evaluating) {
+		if (host.isEvaluating()) {
 			view.showError("Can't save host", "Wait for the evaluation to finish.");
 		} else {
 			view.openSaveHost(file,
 					pool.getProcess().getName(),
-					new ArrayList<>(pool.getNetworks())
+					pool.getSeed(),
+					pool.getGeneration(),
+					pool.getSelectionStrategy().getName(),
+					pool.getNetworks(),
+					compressed
 			);
 		}
 	}
@@ -117,47 +254,15 @@ public final class HostPresenter{
 	 * Starts the evaluation if it's not running already.
 	 */
 	public void startEvaluation() {
-		if (!evaluating) {
-			evaluating = true;
-			evaluation = pool.createEvaluation();
-			view.setSaveEnabled(false);
-
-			for (Network network : pool.getNetworks()) {
-				server.evaluate(network);
-			}
-		}
-
-		evaluationStopped = false;
+		view.setSaveEnabled(false);
+		host.start();
 	}
 
 	/**
 	 * Stops the evaluation but only after finishing the current evaluation.
 	 */
 	public void stopEvaluation() {
-		if (evaluating) {
-			evaluationStopped = true;
-		}
-	}
-
-	/**
-	 * Called when the evaluation has finished.
-	 * If the host is still evaluating it resets and starts the evaluation again.
-	 */
-	private void onEvaluationDone() {
-		bestNetwork = evaluation.getBestNetwork();
-		view.setBestEvaluation(evaluation.getBestEvaluation());
-
-		pool.generation(evaluation, 0.5);
-		evaluating = false;
-		evaluation = null;
-		view.setSaveEnabled(true);
-		view.setPlayEnabled(true);
-
-		if (evaluationStopped) {
-			evaluationStopped = false;
-		} else {
-			startEvaluation();
-		}
+		host.stop();
 	}
 
 	/**
@@ -176,7 +281,7 @@ public final class HostPresenter{
 		}
 
 		/**
-		 * Updates the server load in the view and saves the network's evaluation.
+		 * Updates the server load in the view.
 		 *
 		 * @param network The evaluated network
 		 * @param evaluation The network's evaluation
@@ -184,12 +289,133 @@ public final class HostPresenter{
 		@Override
 		public void onEvaluationFinished(Network network, double evaluation) {
 			view.setHostLoad(server.getLoad());
+		}
+
+		/**
+		 * Shows the failure in the view.
+		 *
+		 * @param network The network whose evaluation failed
+		 * @param exception The exception the evaluation failed with
+		 */
+		@Override
+		public void onEvaluationFailed(Network network, Exception exception) {
+			view.setHostLoad(server.getLoad());
+			view.showError(
+					"Evaluation failed",
+					"The local evaluation stopped. " + exception.getClass().getSimpleName() + ": " + exception.getMessage()
+			);
+		}
+	}
 
-			if (evaluating) {
-				HostPresenter.this.evaluation.setEvaluation(network, evaluation);
-				if (HostPresenter.this.evaluation.isDone()) Platform.runLater(HostPresenter.this::onEvaluationDone);
+	/**
+	 * This is the class handling the generation callbacks of the host.
+	 */
+	private class HostListener implements EvaluatorHost.Listener {
+
+		/**
+		 * Updates the best network, it's evaluation, the fitness history and the cache statistics in the view.
+		 *
+		 * @param generation The evaluated generation
+		 * @param evaluation The generation's evaluation
+		 */
+		@Override
+		public void onGeneration(int generation, Pool.Evaluation evaluation) {
+			EvaluationSummary summary = evaluation.getSummary();
+			bestNetwork = summary.getMaxNetwork();
+			view.setBestEvaluation(summary.getMax());
+			fitnessHistory.add(generation, summary);
+			view.setPlayEnabled(true);
+
+			FitnessCache fitnessCache = HostPresenter.this.fitnessCache;
+			if (fitnessCache != null) {
+				view.setCacheStatistics(fitnessCache.getHitCount(), fitnessCache.getMissCount(), fitnessCache.getSize());
 			}
 		}
+
+		/**
+		 * Enables saving in the view.
+		 */
+		@Override
+		public void onStopped() {
+			view.setSaveEnabled(true);
+		}
+	}
+
+	/**
+	 * This is the class periodically showing the metrics in the view.
+	 */
+	private class MetricsUpdater implements Runnable {
+
+		private final Counter sentBytes = MetricRegistry.getDefault().counter("net_sent_bytes_total");
+		private final Counter receivedBytes = MetricRegistry.getDefault().counter("net_received_bytes_total");
+
+		private long lastTime = System.nanoTime();
+		private long lastEvaluationCount = 0;
+
+		/**
+		 * Updates the throughput, the traffic, the generation time and the clients' latency in the view.
+		 */
+		@Override
+		public void run() {
+			EvaluatorHost host = HostPresenter.this.host;
+			EvaluatorServer server = HostPresenter.this.server;
+			if (host == null || server == null) return;
+
+			long time = System.nanoTime();
+			long evaluationCount = host.getEvaluationCount();
+			view.setThroughput((evaluationCount - lastEvaluationCount) / ((time - lastTime) / 1e9), server.getBufferedCount());
+			lastTime = time;
+			lastEvaluationCount = evaluationCount;
+
+			view.setTraffic(sentBytes.get(), receivedBytes.get());
+			view.setGenerationTime(
+					host.getLastEvaluationTime() / 1e9,
+					host.getLastBreedingTime() / 1e9,
+					host.getLastGarbageCollectionTime() / 1e9
+			);
+
+			List<EvaluatorConnection> connections;
+			synchronized (HostPresenter.this.connections) {
+				connections = new ArrayList<>(HostPresenter.this.connections);
+			}
+			for (EvaluatorConnection connection : connections) {
+				Histogram latency = server.getLatency(connection);
+				if (latency != null && latency.getCount() > 0) {
+					view.setClientLatency(connection, latency.getQuantile(0.5) / 1e6, latency.getMax() / 1e6);
+				}
+			}
+		}
+	}
+
+	/**
+	 * This is the class handling the callbacks of the checkpointer.
+	 */
+	private class CheckpointListener implements Checkpointer.Listener {
+
+		/**
+		 * Shows the latest checkpoint in the view.
+		 *
+		 * @param file The checkpoint file
+		 * @param generation The checkpoint's generation
+		 */
+		@Override
+		public void onCheckpoint(File file, int generation) {
+			view.setCheckpoint(file.getPath(), generation);
+		}
+
+		/**
+		 * Show an error message of the exception that occurred while writing a checkpoint.
+		 *
+		 * @param exception The exception
+		 */
+		@Override
+		public void onError(IOException exception) {
+			exception.printStackTrace();
+			view.showError(
+					"Couldn't write checkpoint",
+					exception.getClass().getSimpleName() + ": " + exception.getMessage()
+			);
+		}
 	}
 
 	/**
@@ -205,6 +431,10 @@ public final class HostPresenter{
 		 */
 		@Override
 		public void onConnected(EvaluatorConnection connection) {
+			synchronized (connections) {
+				connections.add(connection);
+			}
+
 			view.addClient(connection);
 			view.setClientAddress(connection, connection.getAddress().getHostAddress(), connection.getPort());
 			view.setClientLoad(connection, connection.getPendingNetworks().size());
@@ -243,6 +473,10 @@ public final class HostPresenter{
 		 */
 		@Override
 		public void onDisconnected(EvaluatorConnection connection, IOException exception) {
+			synchronized (connections) {
+				connections.remove(connection);
+			}
+
 			view.removeClient(connection);
 
 			if (exception != null) {
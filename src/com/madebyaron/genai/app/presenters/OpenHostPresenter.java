@@ -2,12 +2,16 @@ package com.madebyaron.genai.app.presenters;
 
 import com.madebyaron.genai.ai.Network;
 import com.madebyaron.genai.ai.Pool;
+import com.madebyaron.genai.ai.PoolFile;
 import com.madebyaron.genai.ai.Process;
+import com.madebyaron.genai.ai.RandomSource;
+import com.madebyaron.genai.ai.SelectionStrategy;
 import com.madebyaron.genai.app.views.OpenHostView;
 
 import java.io.*;
+import java.util.ArrayList;
 import java.util.Collection;
-import java.util.LinkedList;
+import java.util.List;
 
 /**
  * The presenter for the host opening view.
@@ -15,9 +19,12 @@ import java.util.LinkedList;
  */
 public final class OpenHostPresenter {
 
+	private static final int PROGRESS_STEPS = 100;
+
 	private OpenHostView view;
 
 	private int port;
+	private Long seed = null;
 
 	/**
 	 * Attaches a view to this presenter.
@@ -37,8 +44,18 @@ public final class OpenHostPresenter {
 		this.port = port;
 	}
 
+	/**
+	 * Sets the host pool's seed.
+	 *
+	 * @param seed The host pool's seed or null to use the saved seed
+	 */
+	public void setSeed(Long seed) {
+		this.seed = seed;
+	}
+
 	/**
 	 * Initiates the loading of the host saved at the given file.
+	 * Both the binary and the legacy pool format can be loaded.
 	 *
 	 * @param file The save file
 	 */
@@ -46,11 +63,17 @@ public final class OpenHostPresenter {
 		view.setLoading(file.getAbsolutePath());
 
 		try {
-			ObjectInputStream in = new ObjectInputStream(new FileInputStream(file));
+			Loader loader;
+			if (PoolFile.isLegacy(file)) {
+				ObjectInputStream in = new ObjectInputStream(new BufferedInputStream(new FileInputStream(file)));
+				loader = () -> loadLegacy(in);
+			} else {
+				loader = () -> loadPoolFile(file);
+			}
 
 			Thread loadingThread = new Thread(() -> {
 				try {
-					load(in);
+					loader.load();
 				} catch (IOException | ClassNotFoundException e) {
 					view.showError(
 							"Error while loading file",
@@ -69,14 +92,66 @@ public final class OpenHostPresenter {
 	}
 
 	/**
-	 * Loads the pool from the given input stream and creates the process.
+	 * Loads the pool from the given pool file and creates the process.
+	 * Also updates the progress in the view.
+	 *
+	 * @param file The pool file
+	 * @throws IOException Any exception thrown when reading the pool file
+	 */
+	private void loadPoolFile(File file) throws IOException {
+		view.setProgress("Loading pool data", 0);
+
+		PoolFile poolFile = PoolFile.open(file, (loadedNetworks, networkCount) -> view.setProgress(
+				"Decompressing networks (" + loadedNetworks + " / " + networkCount + ")",
+				(double) loadedNetworks / networkCount
+		));
+
+		Process process = Process.getProcess(poolFile.getProcess());
+		if (process == null) {
+			view.showError("Wrong parameters", "The process can't be found.");
+			return;
+		}
+
+		SelectionStrategy selection = SelectionStrategy.getStrategy(poolFile.getSelectionStrategy());
+		if (selection == null) {
+			view.showError("Wrong parameters", "The selection strategy can't be found.");
+			return;
+		}
+
+		int networkCount = poolFile.getSize();
+		int progressStep = Math.max(networkCount / PROGRESS_STEPS, 1);
+		List<Network> networks = new ArrayList<>(networkCount);
+		for (int i = 0; i < networkCount; i++) {
+			if (i % progressStep == 0) {
+				view.setProgress(
+						"Loading networks (" + i + " / " + networkCount + ")",
+						(double) i / networkCount
+				);
+			}
+			networks.add(poolFile.getNetwork(i));
+		}
+
+		view.setProgress(poolFile.isCompressed() ? "Done (" + poolFile.getStatistics() + ")" : "Done", 1);
+
+		Pool pool = new Pool(
+				process, networks,
+				seed != null ? seed : poolFile.getSeed(),
+				poolFile.getGeneration()
+		);
+		pool.setSelectionStrategy(selection);
+
+		view.openHost(port, pool);
+	}
+
+	/**
+	 * Loads the pool from the given legacy input stream and creates the process.
 	 * Also updates the progress in the view.
 	 *
 	 * @param in The input stream
 	 * @throws IOException Any exception thrown when reading the input stream
 	 * @throws ClassNotFoundException An exception thrown when the saved network class can't be found
 	 */
-	private void load(ObjectInputStream in) throws IOException, ClassNotFoundException {
+	private void loadLegacy(ObjectInputStream in) throws IOException, ClassNotFoundException {
 		view.setProgress("Loading pool data", 0);
 
 		Process process = Process.getProcess(in.readUTF());
@@ -86,7 +161,7 @@ public final class OpenHostPresenter {
 		}
 
 		int networkCount = in.readInt();
-		Collection<Network> networks = new LinkedList<>();
+		Collection<Network> networks = new ArrayList<>(networkCount);
 		for (int i = 0; i < networkCount; i++) {
 			view.setProgress(
 					"Loading networks (" + i + " / " + networkCount + ")",
@@ -94,11 +169,26 @@ public final class OpenHostPresenter {
 			);
 			networks.add((Network) in.readObject());
 		}
+		in.close();
 
 		view.setProgress("Done", 1);
 
-		Pool pool = new Pool(process, networks);
+		Pool pool = new Pool(process, networks, seed != null ? seed : RandomSource.getDefault().current().nextLong());
 
 		view.openHost(port, pool);
 	}
+
+	/**
+	 * The loading task of a pool format.
+	 */
+	private interface Loader {
+
+		/**
+		 * Loads the pool.
+		 *
+		 * @throws IOException Any exception thrown when reading the file
+		 * @throws ClassNotFoundException An exception thrown when the saved network class can't be found
+		 */
+		void load() throws IOException, ClassNotFoundException;
+	}
 }
@@ -1,13 +1,12 @@
 package com.madebyaron.genai.app.presenters;
 
 import com.madebyaron.genai.ai.Network;
-import com.madebyaron.genai.ai.Pool;
+import com.madebyaron.genai.ai.PoolFile;
 import com.madebyaron.genai.app.views.SaveHostView;
 
-import java.io.*;
+import java.io.File;
+import java.io.IOException;
 import java.util.Collection;
-import java.util.List;
-import java.util.Set;
 
 /**
  * The presenter for the host saving view.
@@ -26,66 +25,62 @@ public final class SaveHostPresenter {
 	}
 
 	/**
-	 * Initiates the saving of a pool defined by a process name and it's networks.
+	 * Initiates the saving of a pool defined by a process name, it's seed, generation,
+	 * selection strategy and networks.
 	 *
 	 * @param file The save file
 	 * @param process The pool process' name
+	 * @param seed The pool's seed
+	 * @param generation The pool's generation
+	 * @param selection The name of the pool's selection strategy
 	 * @param networks The pool's networks
+	 * @param compressed Whether or not the pool should be compressed
 	 */
-	public void save(File file, String process, Collection<Network> networks) {
+	public void save(File file, String process, long seed, int generation, String selection,
+	                 Collection<Network> networks, boolean compressed) {
 		view.setSaving(file.getAbsolutePath());
 
-		try {
-			ObjectOutputStream out = new ObjectOutputStream(new FileOutputStream(file));
+		Thread savingThread = new Thread(() -> {
+			try {
+				write(file, process, seed, generation, selection, networks, compressed);
+			} catch (IOException e) {
+				e.printStackTrace();
+				view.showError(
+						"Error while saving file",
+						e.getClass().getSimpleName() + ": " + e.getMessage()
+				);
+			}
+		});
 
-			Thread loadingThread = new Thread(() -> {
-				try {
-					save(out, process, networks);
-				} catch (IOException e) {
-					e.printStackTrace();
-					view.showError(
-							"Error while saving file",
-							e.getClass().getSimpleName() + ": " + e.getMessage()
-					);
-				}
-			});
-
-			loadingThread.start();
-		} catch (IOException e) {
-			e.printStackTrace();
-			view.showError(
-					"Error while opening file",
-					e.getClass().getSimpleName() + ": " + e.getMessage()
-			);
-		}
+		savingThread.start();
 	}
 
 	/**
-	 * Saves a pool defined by a process name and it's networks to the given output stream.
-	 * Also updates the progress in the view.
+	 * Saves a pool defined by a process name, it's seed, generation, selection strategy
+	 * and networks to the given file. Also updates the progress in the view.
 	 *
-	 * @param out The output stream where the pool will be saved
+	 * @param file The save file
 	 * @param process The pool process' name
+	 * @param seed The pool's seed
+	 * @param generation The pool's generation
+	 * @param selection The name of the pool's selection strategy
 	 * @param networks The pool's networks
+	 * @param compressed Whether or not the pool should be compressed
 	 * @throws IOException Any exception thrown while saving
 	 */
-	private void save(ObjectOutputStream out, String process, Collection<Network> networks) throws IOException {
+	private void write(File file, String process, long seed, int generation, String selection,
+	                   Collection<Network> networks, boolean compressed) throws IOException {
 		view.setProgress("Saving pool data", 0);
 
-		out.writeUTF(process);
-
-		out.writeInt(networks.size());
-		int savedNetworks = 0;
-		for (Network network : networks) {
-			view.setProgress(
-					"Saving networks (" + savedNetworks + " / " + networks.size() + ")",
-					(double) savedNetworks / networks.size()
-			);
-			out.writeObject(network);
-			savedNetworks++;
-		}
+		PoolFile.Statistics statistics = PoolFile.write(
+				file, process, seed, generation, selection, networks, compressed,
+				(savedNetworks, networkCount) -> view.setProgress(
+						"Saving networks (" + savedNetworks + " / " + networkCount + ")",
+						(double) savedNetworks / networkCount
+				)
+		);
 
-		view.setProgress("Done", 1);
+		view.setProgress("Done (" + statistics + ")", 1);
 
 		view.close();
 	}
@@ -1,5 +1,7 @@
 package com.madebyaron.genai.app.presenters;
 
+import com.madebyaron.genai.ai.Checkpointer;
+import com.madebyaron.genai.ai.RandomSource;
 import com.madebyaron.genai.app.views.StartView;
 
 import java.io.File;
@@ -56,19 +58,45 @@ public final class StartPresenter {
 	 * Also checks if the given parameters are valid.
 	 *
 	 * @param hostPort The host's port
+	 * @param seed The run seed (the saved seed is used if it's empty)
 	 * @param file The host's save file
 	 */
-	public void openHost(String hostPort, File file) {
+	public void openHost(String hostPort, String seed, File file) {
 		if (hostPort.isEmpty()) {
 			view.showError("Wrong parameters", "Host port field is empty.");
 			return;
 		}
 
+		int port;
 		try {
-			view.openOpenHost(Integer.parseInt(hostPort), file);
+			port = Integer.parseInt(hostPort);
 		} catch (NumberFormatException e) {
 			view.showError("Wrong parameters", "The port must be a number");
+			return;
+		}
+
+		try {
+			view.openOpenHost(port, parseSeed(seed), file);
+		} catch (NumberFormatException e) {
+			view.showError("Wrong parameters", "The seed must be a number.");
+		}
+	}
+
+	/**
+	 * Initiates the opening of the host from it's latest checkpoint on the given port.
+	 * Also checks if the given parameters are valid.
+	 *
+	 * @param hostPort The host's port
+	 * @param seed The run seed (the saved seed is used if it's empty)
+	 */
+	public void resumeHost(String hostPort, String seed) {
+		File checkpoint = Checkpointer.getLatest(HostPresenter.CHECKPOINT_DIRECTORY);
+		if (checkpoint == null) {
+			view.showError("Can't resume host", "There are no checkpoints to resume from.");
+			return;
 		}
+
+		openHost(hostPort, seed, checkpoint);
 	}
 
 	/**
@@ -76,17 +104,42 @@ public final class StartPresenter {
 	 * Also checks if the given parameters are valid.
 	 *
 	 * @param hostPort The host's port
+	 * @param seed The run seed (a random seed is used if it's empty)
 	 */
-	public void createHost(String hostPort) {
+	public void createHost(String hostPort, String seed) {
 		if (hostPort.isEmpty()) {
 			view.showError("Wrong parameters", "Host port field is empty.");
 			return;
 		}
 
+		int port;
 		try {
-			view.openCreateHost(Integer.parseInt(hostPort));
+			port = Integer.parseInt(hostPort);
 		} catch (NumberFormatException e) {
 			view.showError("Wrong parameters", "The port must be a number.");
+			return;
+		}
+
+		try {
+			Long parsedSeed = parseSeed(seed);
+			view.openCreateHost(port, parsedSeed != null ? parsedSeed : RandomSource.getDefault().current().nextLong());
+		} catch (NumberFormatException e) {
+			view.showError("Wrong parameters", "The seed must be a number.");
+		}
+	}
+
+	/**
+	 * Converts the seed parameter to a seed.
+	 *
+	 * @param seed The seed parameter
+	 * @return The seed or null if the parameter is empty
+	 * @throws NumberFormatException If the seed parameter isn't a number
+	 */
+	private Long parseSeed(String seed) {
+		if (seed.isEmpty()) {
+			return null;
+		} else {
+			return Long.parseLong(seed);
 		}
 	}
 }
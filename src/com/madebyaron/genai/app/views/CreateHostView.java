@@ -30,7 +30,7 @@ public final class CreateHostView {
 	private final CreateHostPresenter presenter = new CreateHostPresenter();
 	private final Stage stage;
 
-	public CreateHostView(Stage stage, int port) {
+	public CreateHostView(Stage stage, int port, long seed) {
 		this.stage = stage;
 		stage.setWidth(STAGE_WIDTH);
 		stage.setHeight(STAGE_HEIGHT);
@@ -39,6 +39,7 @@ public final class CreateHostView {
 
 		presenter.attachView(this);
 		presenter.setPort(port);
+		presenter.setSeed(seed);
 	}
 
 	private Parent createLayout() {
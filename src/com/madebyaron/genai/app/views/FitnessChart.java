@@ -0,0 +1,124 @@
+package com.madebyaron.genai.app.views;
+
+import com.madebyaron.genai.ai.FitnessHistory;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.paint.Color;
+
+/**
+ * A chart of a fitness history drawn on a canvas. It always draws the level of the history
+ * covering the whole run, so a redraw never draws more points than the history's capacity.
+ */
+final class FitnessChart {
+
+	private static final double MARGIN = 16;
+
+	private static final Color BACKGROUND_COLOR = Color.WHITE;
+	private static final Color AXIS_COLOR = Color.DARKGRAY;
+	private static final Color TEXT_COLOR = Color.BLACK;
+	private static final Color DECILE_COLOR = Color.rgb(0, 0, 255, 0.15);
+	private static final Color BEST_COLOR = Color.GREEN;
+	private static final Color WORST_COLOR = Color.RED;
+	private static final Color MEAN_COLOR = Color.BLUE;
+	private static final Color MEDIAN_COLOR = Color.ORANGE;
+
+	private final FitnessHistory history;
+	private final Canvas canvas;
+
+	private final int[] generations;
+	private final double[][] values;
+	private final double[] xs;
+	private final double[] ys;
+	private final double[] bandXs;
+	private final double[] bandYs;
+
+	private long drawnVersion = -1;
+
+	FitnessChart(FitnessHistory history, double width, double height) {
+		this.history = history;
+		canvas = new Canvas(width, height);
+
+		int capacity = history.getCapacity();
+		generations = new int[capacity];
+		values = new double[FitnessHistory.SERIES_COUNT][capacity];
+		xs = new double[capacity];
+		ys = new double[capacity];
+		bandXs = new double[capacity * 2];
+		bandYs = new double[capacity * 2];
+
+		draw();
+	}
+
+	Canvas getCanvas() {
+		return canvas;
+	}
+
+	void update() {
+		if (history.getVersion() != drawnVersion) draw();
+	}
+
+	private void draw() {
+		drawnVersion = history.getVersion();
+		int count = history.copy(generations, values);
+
+		double width = canvas.getWidth();
+		double height = canvas.getHeight();
+		GraphicsContext graphics = canvas.getGraphicsContext2D();
+
+		graphics.setFill(BACKGROUND_COLOR);
+		graphics.fillRect(0, 0, width, height);
+		graphics.setStroke(AXIS_COLOR);
+		graphics.setLineWidth(1);
+		graphics.strokeLine(MARGIN, height - MARGIN, width - MARGIN, height - MARGIN);
+		graphics.strokeLine(MARGIN, MARGIN, MARGIN, height - MARGIN);
+
+		if (count == 0) {
+			graphics.setFill(TEXT_COLOR);
+			graphics.fillText("Run to see the fitness history", MARGIN * 2, height / 2);
+			return;
+		}
+
+		double min = Double.POSITIVE_INFINITY;
+		double max = Double.NEGATIVE_INFINITY;
+		for (int i = 0; i < count; i++) {
+			min = Math.min(min, values[FitnessHistory.WORST][i]);
+			max = Math.max(max, values[FitnessHistory.BEST][i]);
+		}
+		if (max - min < 1e-9) {
+			min -= 0.5;
+			max += 0.5;
+		}
+
+		double xScale = count > 1 ? (width - MARGIN * 2) / (count - 1) : 0;
+		double yScale = (height - MARGIN * 2) / (max - min);
+		for (int i = 0; i < count; i++) xs[i] = MARGIN + i * xScale;
+
+		// The band between the lower and the upper decile
+		for (int i = 0; i < count; i++) {
+			bandXs[i] = xs[i];
+			bandYs[i] = height - MARGIN - (values[FitnessHistory.UPPER_DECILE][i] - min) * yScale;
+			bandXs[count * 2 - 1 - i] = xs[i];
+			bandYs[count * 2 - 1 - i] = height - MARGIN - (values[FitnessHistory.LOWER_DECILE][i] - min) * yScale;
+		}
+		graphics.setFill(DECILE_COLOR);
+		graphics.fillPolygon(bandXs, bandYs, count * 2);
+
+		drawSeries(graphics, FitnessHistory.WORST, WORST_COLOR, count, min, yScale, height);
+		drawSeries(graphics, FitnessHistory.MEDIAN, MEDIAN_COLOR, count, min, yScale, height);
+		drawSeries(graphics, FitnessHistory.MEAN, MEAN_COLOR, count, min, yScale, height);
+		drawSeries(graphics, FitnessHistory.BEST, BEST_COLOR, count, min, yScale, height);
+
+		graphics.setFill(TEXT_COLOR);
+		graphics.fillText(String.format("%.3f", max), MARGIN + 4, MARGIN);
+		graphics.fillText(String.format("%.3f", min), MARGIN + 4, height - MARGIN - 4);
+		graphics.fillText("Generation " + generations[0], MARGIN, height - 2);
+		graphics.fillText("Generation " + generations[count - 1], width / 2, height - 2);
+	}
+
+	private void drawSeries(GraphicsContext graphics, int series, Color color, int count, double min, double yScale, double height) {
+		for (int i = 0; i < count; i++) ys[i] = height - MARGIN - (values[series][i] - min) * yScale;
+
+		graphics.setStroke(color);
+		graphics.strokePolyline(xs, ys, count);
+	}
+}
@@ -1,9 +1,13 @@
 package com.madebyaron.genai.app.views;
 
+import com.madebyaron.genai.ai.FitnessHistory;
 import com.madebyaron.genai.ai.Network;
 import com.madebyaron.genai.ai.Pool;
 import com.madebyaron.genai.ai.Process;
+import com.madebyaron.genai.ai.SelectionStrategy;
+import com.madebyaron.genai.app.presenters.HostPresenter;
 import com.madebyaron.genai.net.EvaluatorConnection;
+import javafx.animation.AnimationTimer;
 import javafx.application.Platform;
 import javafx.geometry.Insets;
 import javafx.scene.Node;
@@ -12,7 +16,9 @@ import javafx.scene.Scene;
 import javafx.scene.control.Alert;
 import javafx.scene.control.Button;
 import javafx.scene.control.CheckBox;
+import javafx.scene.control.ChoiceBox;
 import javafx.scene.control.ScrollPane;
+import javafx.scene.control.TextField;
 import javafx.scene.layout.*;
 import javafx.scene.paint.Color;
 import javafx.scene.paint.Paint;
@@ -22,13 +28,16 @@ import javafx.stage.Stage;
 
 import java.io.File;
 import java.util.Collection;
-import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 public final class HostView {
 
 	private static final int STAGE_WIDTH = 960;
 	private static final int STAGE_HEIGHT = 540;
 
+	private static final long FRAME_INTERVAL = 50_000_000;
+
 	private static final int CLIENT_LIST_WIDTH = 200;
 	private static final Insets CLIENT_LIST_PADDING = new Insets(8);
 	private static final int CLIENT_LIST_SPACING = 8;
@@ -40,6 +49,9 @@ public final class HostView {
 	private static final Insets DETAILS_PADDING = new Insets(8);
 	private static final int DETAILS_SPACING = 8;
 
+	private static final int CHART_WIDTH = 520;
+	private static final int CHART_HEIGHT = 200;
+
 	private static final Insets HOST_PADDING = new Insets(8);
 	private static final int HOST_SPACING = 2;
 	private static final Paint HOST_BACKGROUND_COLOR = Color.GRAY;
@@ -63,18 +75,31 @@ public final class HostView {
 	private final HostPresenter presenter = new HostPresenter();
 	private final Stage stage;
 
-	private final HashMap<EvaluatorConnection, ClientHolder> clientHolders = new HashMap<>();
+	private final HostViewModel model = new HostViewModel();
+	private long shownVersion = -1;
+	private long lastFrame = 0;
+
+	private final Map<EvaluatorConnection, ClientHolder> clientHolders = new ConcurrentHashMap<>();
 	private VBox networkListPane;
+	private VBox detailsPane;
+	private FitnessChart fitnessChart;
 
 	private Text processText;
+	private Text seedText;
 	private Text hostAddressText;
 	private Text hostPortText;
 	private Text hostLoadText;
 
 	private Button saveButton;
 	private Button playButton;
+	private ChoiceBox<String> selectionChoiceBox;
 
 	private Text bestEvaluationText;
+	private Text checkpointText;
+	private Text cacheText;
+	private Text throughputText;
+	private Text trafficText;
+	private Text generationTimeText;
 
 	public HostView(Stage stage, int port, Pool pool) {
 		this.stage = stage;
@@ -87,7 +112,49 @@ public final class HostView {
 		presenter.setPool(pool);
 		presenter.startServer(port);
 
-		stage.setOnHidden(event -> presenter.stopServer());
+		AnimationTimer timer = new AnimationTimer() {
+			@Override
+			public void handle(long now) {
+				if (now - lastFrame < FRAME_INTERVAL) return;
+				lastFrame = now;
+				update();
+				if (fitnessChart != null) fitnessChart.update();
+			}
+		};
+		timer.start();
+
+		stage.setOnHidden(event -> {
+			timer.stop();
+			presenter.stopServer();
+		});
+	}
+
+	private void update() {
+		long version = model.getVersion();
+		if (version == shownVersion) return;
+		shownVersion = version;
+
+		hostLoadText.setText("Load: " + Integer.toString(model.getHostLoad()));
+
+		for (Map.Entry<EvaluatorConnection, ClientHolder> entry : clientHolders.entrySet()) {
+			ClientHolder holder = entry.getValue();
+			int load = model.getClientLoad(entry.getKey());
+			if (holder.loadText != null && load >= 0) {
+				holder.loadText.setText("Load: " + Integer.toString(load));
+			}
+		}
+
+		double bestEvaluation = model.getBestEvaluation();
+		if (!Double.isNaN(bestEvaluation)) {
+			bestEvaluationText.setText("Best evaluation: " + Double.toString(bestEvaluation));
+		}
+
+		long cacheHitCount = model.getCacheHitCount();
+		if (cacheHitCount >= 0) {
+			cacheText.setText("Cache: " + Long.toString(cacheHitCount) + " hits, " +
+					Long.toString(model.getCacheMissCount()) + " misses (" +
+					Integer.toString(model.getCacheSize()) + " cached evaluations)");
+		}
 	}
 
 	private Parent createLayout() {
@@ -125,6 +192,8 @@ public final class HostView {
 
 		processText = new Text();
 
+		seedText = new Text();
+
 		hostAddressText = new Text();
 
 		hostPortText = new Text();
@@ -133,6 +202,7 @@ public final class HostView {
 
 		hostPane.getChildren().addAll(
 				processText,
+				seedText,
 				hostAddressText,
 				hostPortText,
 				hostLoadText
@@ -154,10 +224,14 @@ public final class HostView {
 
 		holder.loadText = new Text();
 
+		holder.latencyText = new Text();
+		holder.latencyText.setText("Latency: -");
+
 		holder.pane.getChildren().addAll(
 				holder.addressText,
 				holder.portText,
-				holder.loadText
+				holder.loadText,
+				holder.latencyText
 		);
 	}
 
@@ -186,6 +260,40 @@ public final class HostView {
 			presenter.play();
 		});
 
+		CheckBox compressCheckBox = new CheckBox("Compress saves");
+		compressCheckBox.setMaxWidth(Double.POSITIVE_INFINITY);
+		compressCheckBox.setOnAction(event -> {
+			presenter.setCompressed(compressCheckBox.isSelected());
+		});
+
+		CheckBox localCheckBox = new CheckBox("Evaluate locally");
+		localCheckBox.setMaxWidth(Double.POSITIVE_INFINITY);
+		localCheckBox.setOnAction(event -> {
+			presenter.setLocalEvaluation(localCheckBox.isSelected());
+		});
+
+		selectionChoiceBox = new ChoiceBox<>();
+		selectionChoiceBox.setMaxWidth(Double.POSITIVE_INFINITY);
+		for (SelectionStrategy strategy : SelectionStrategy.STRATEGIES) {
+			selectionChoiceBox.getItems().add(strategy.getName());
+		}
+		selectionChoiceBox.setOnAction(event -> {
+			presenter.setSelectionStrategy(selectionChoiceBox.getValue());
+		});
+
+		TextField eliteInput = new TextField();
+		eliteInput.setPromptText("Elites (0)");
+		eliteInput.setMaxWidth(Double.POSITIVE_INFINITY);
+		eliteInput.setOnAction(event -> {
+			presenter.setEliteCount(eliteInput.getText());
+		});
+
+		CheckBox steadyStateCheckBox = new CheckBox("Steady state");
+		steadyStateCheckBox.setMaxWidth(Double.POSITIVE_INFINITY);
+		steadyStateCheckBox.setOnAction(event -> {
+			presenter.setSteadyState(steadyStateCheckBox.isSelected());
+		});
+
 		CheckBox evaluateCheckBox = new CheckBox("Evaluate");
 		evaluateCheckBox.setMaxWidth(Double.POSITIVE_INFINITY);
 		evaluateCheckBox.setOnAction(event -> {
@@ -196,7 +304,8 @@ public final class HostView {
 			}
 		});
 
-		controlsPane.getChildren().addAll(saveButton, playButton, evaluateCheckBox);
+		controlsPane.getChildren().addAll(saveButton, compressCheckBox, playButton, localCheckBox, selectionChoiceBox,
+				eliteInput, steadyStateCheckBox, evaluateCheckBox);
 		controlsScrollPane.setContent(controlsPane);
 
 		return controlsScrollPane;
@@ -206,7 +315,7 @@ public final class HostView {
 		ScrollPane detailsScrollPane = new ScrollPane();
 		detailsScrollPane.setFitToWidth(true);
 
-		VBox detailsPane = new VBox();
+		detailsPane = new VBox();
 		detailsPane.setPadding(DETAILS_PADDING);
 		detailsPane.setSpacing(DETAILS_SPACING);
 		detailsPane.setFillWidth(true);
@@ -214,7 +323,29 @@ public final class HostView {
 		bestEvaluationText = new Text();
 		bestEvaluationText.setText("Run to see the best evaluation");
 
-		detailsPane.getChildren().addAll(bestEvaluationText);
+		checkpointText = new Text();
+		checkpointText.setText("No checkpoint yet");
+
+		cacheText = new Text();
+		cacheText.setText("No cached evaluations yet");
+
+		throughputText = new Text();
+		throughputText.setText("Throughput: 0 evaluations/s");
+
+		trafficText = new Text();
+		trafficText.setText("Traffic: 0 B sent, 0 B received");
+
+		generationTimeText = new Text();
+		generationTimeText.setText("Run to see the generation time");
+
+		detailsPane.getChildren().addAll(
+				bestEvaluationText,
+				checkpointText,
+				cacheText,
+				throughputText,
+				trafficText,
+				generationTimeText
+		);
 		detailsScrollPane.setContent(detailsPane);
 
 		return detailsScrollPane;
@@ -226,6 +357,19 @@ public final class HostView {
 		});
 	}
 
+	public void setSeed(long seed) {
+		Platform.runLater(() -> {
+			seedText.setText("Seed: " + Long.toString(seed));
+		});
+	}
+
+	public void setSelectionStrategy(String selection) {
+		Platform.runLater(() -> {
+			if (!selectionChoiceBox.getItems().contains(selection)) selectionChoiceBox.getItems().add(selection);
+			selectionChoiceBox.setValue(selection);
+		});
+	}
+
 	public void setHostAddress(String address, int port) {
 		Platform.runLater(() -> {
 			hostAddressText.setText("Address: " + address);
@@ -234,14 +378,20 @@ public final class HostView {
 	}
 
 	public void setHostLoad(int load) {
+		model.setHostLoad(load);
+	}
+
+	public void setFitnessHistory(FitnessHistory history) {
 		Platform.runLater(() -> {
-			hostLoadText.setText("Load: " + Integer.toString(load));
+			fitnessChart = new FitnessChart(history, CHART_WIDTH, CHART_HEIGHT);
+			detailsPane.getChildren().add(fitnessChart.getCanvas());
 		});
 	}
 
 	public void addClient(EvaluatorConnection connection) {
 		ClientHolder holder = new ClientHolder();
 		clientHolders.put(connection, holder);
+		model.addClient(connection);
 
 		Platform.runLater(() -> {
 			createClient(holder);
@@ -251,6 +401,7 @@ public final class HostView {
 
 	public void removeClient(EvaluatorConnection connection) {
 		ClientHolder holder = clientHolders.remove(connection);
+		model.removeClient(connection);
 		if (holder != null) {
 			Platform.runLater(() -> {
 				networkListPane.getChildren().remove(holder.pane);
@@ -269,10 +420,14 @@ public final class HostView {
 	}
 
 	public void setClientLoad(EvaluatorConnection connection, int load) {
+		model.setClientLoad(connection, load);
+	}
+
+	public void setClientLatency(EvaluatorConnection connection, double medianMillis, double maxMillis) {
 		ClientHolder holder = clientHolders.get(connection);
 		if (holder != null) {
 			Platform.runLater(() -> {
-				holder.loadText.setText("Load: " + Integer.toString(load));
+				holder.latencyText.setText(String.format("Latency: %.1f ms (max %.1f ms)", medianMillis, maxMillis));
 			});
 		}
 	}
@@ -290,11 +445,49 @@ public final class HostView {
 	}
 
 	public void setBestEvaluation(double evaluation) {
+		model.setBestEvaluation(evaluation);
+	}
+
+	public void setCheckpoint(String file, int generation) {
 		Platform.runLater(() -> {
-			bestEvaluationText.setText("Best evaluation: " + Double.toString(evaluation));
+			checkpointText.setText("Checkpoint: " + file + " (generation " + Integer.toString(generation) + ")");
 		});
 	}
 
+	public void setCacheStatistics(long hitCount, long missCount, int size) {
+		model.setCacheStatistics(hitCount, missCount, size);
+	}
+
+	public void setThroughput(double evaluationsPerSecond, int bufferedCount) {
+		Platform.runLater(() -> {
+			throughputText.setText(String.format("Throughput: %.1f evaluations/s (%d buffered)", evaluationsPerSecond, bufferedCount));
+		});
+	}
+
+	public void setTraffic(long sentBytes, long receivedBytes) {
+		Platform.runLater(() -> {
+			trafficText.setText("Traffic: " + formatBytes(sentBytes) + " sent, " + formatBytes(receivedBytes) + " received");
+		});
+	}
+
+	public void setGenerationTime(double evaluationSeconds, double breedingSeconds, double garbageCollectionSeconds) {
+		Platform.runLater(() -> {
+			generationTimeText.setText(String.format(
+					"Generation time: %.3f s evaluation, %.3f s breeding, %.3f s GC",
+					evaluationSeconds,
+					breedingSeconds,
+					garbageCollectionSeconds
+			));
+		});
+	}
+
+	private static String formatBytes(long bytes) {
+		if (bytes < 1024) return bytes + " B";
+		if (bytes < 1024 * 1024) return String.format("%.1f KiB", bytes / 1024.0);
+		if (bytes < 1024 * 1024 * 1024) return String.format("%.1f MiB", bytes / (1024.0 * 1024));
+		return String.format("%.1f GiB", bytes / (1024.0 * 1024 * 1024));
+	}
+
 	public void showError(String title, String message) {
 		Platform.runLater(() -> {
 			Alert alert = new Alert(Alert.AlertType.ERROR);
@@ -305,9 +498,10 @@ public final class HostView {
 		});
 	}
 
-	public void openSaveHost(File file, String process, Collection<Network> networks) {
+	public void openSaveHost(File file, String process, long seed, int generation, String selection,
+	                         Collection<Network> networks, boolean compressed) {
 		Platform.runLater(() -> {
-			new SaveHostView(new Stage(), file, process, networks);
+			new SaveHostView(new Stage(), file, process, seed, generation, selection, networks, compressed);
 		});
 	}
 
@@ -327,5 +521,6 @@ public final class HostView {
 		Text addressText;
 		Text portText;
 		Text loadText;
+		Text latencyText;
 	}
 }
@@ -0,0 +1,161 @@
+package com.madebyaron.genai.app.views;
+
+import com.madebyaron.genai.net.EvaluatorConnection;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The state of the host view that changes with every evaluation. It's written by the networking threads
+ * with atomics and read by the view once every frame, so the cost of updating the view
+ * doesn't depend on the evaluation rate. The version changes after every write,
+ * so the view can skip the frames where nothing has changed.
+ */
+final class HostViewModel {
+
+	private final AtomicLong version = new AtomicLong();
+
+	private final AtomicInteger hostLoad = new AtomicInteger();
+	private final Map<EvaluatorConnection, AtomicInteger> clientLoads = new ConcurrentHashMap<>();
+
+	private final AtomicLong bestEvaluation = new AtomicLong(Double.doubleToRawLongBits(Double.NaN));
+
+	private final AtomicLong cacheHitCount = new AtomicLong(-1);
+	private final AtomicLong cacheMissCount = new AtomicLong();
+	private final AtomicInteger cacheSize = new AtomicInteger();
+
+	/**
+	 * Returns the version of the model, which changes after every write.
+	 *
+	 * @return The version
+	 */
+	long getVersion() {
+		return version.get();
+	}
+
+	/**
+	 * Returns the load on the host.
+	 *
+	 * @return The host load
+	 */
+	int getHostLoad() {
+		return hostLoad.get();
+	}
+
+	/**
+	 * Sets the load on the host.
+	 *
+	 * @param load The host load
+	 */
+	void setHostLoad(int load) {
+		hostLoad.set(load);
+		version.incrementAndGet();
+	}
+
+	/**
+	 * Starts tracking the load of the given client.
+	 *
+	 * @param connection The client's connection
+	 */
+	void addClient(EvaluatorConnection connection) {
+		clientLoads.putIfAbsent(connection, new AtomicInteger());
+		version.incrementAndGet();
+	}
+
+	/**
+	 * Stops tracking the load of the given client.
+	 *
+	 * @param connection The client's connection
+	 */
+	void removeClient(EvaluatorConnection connection) {
+		clientLoads.remove(connection);
+		version.incrementAndGet();
+	}
+
+	/**
+	 * Returns the load on the given client.
+	 *
+	 * @param connection The client's connection
+	 * @return The client load or -1 if the client isn't tracked
+	 */
+	int getClientLoad(EvaluatorConnection connection) {
+		AtomicInteger load = clientLoads.get(connection);
+		return load != null ? load.get() : -1;
+	}
+
+	/**
+	 * Sets the load on the given client. It's ignored if the client isn't tracked.
+	 *
+	 * @param connection The client's connection
+	 * @param load The client load
+	 */
+	void setClientLoad(EvaluatorConnection connection, int load) {
+		AtomicInteger clientLoad = clientLoads.get(connection);
+		if (clientLoad != null) {
+			clientLoad.set(load);
+			version.incrementAndGet();
+		}
+	}
+
+	/**
+	 * Returns the best evaluation of the latest generation.
+	 *
+	 * @return The best evaluation or NaN if there's no evaluated generation yet
+	 */
+	double getBestEvaluation() {
+		return Double.longBitsToDouble(bestEvaluation.get());
+	}
+
+	/**
+	 * Sets the best evaluation of the latest generation.
+	 *
+	 * @param evaluation The best evaluation
+	 */
+	void setBestEvaluation(double evaluation) {
+		bestEvaluation.set(Double.doubleToRawLongBits(evaluation));
+		version.incrementAndGet();
+	}
+
+	/**
+	 * Returns the fitness cache's hit count.
+	 *
+	 * @return The hit count or -1 if there are no cache statistics yet
+	 */
+	long getCacheHitCount() {
+		return cacheHitCount.get();
+	}
+
+	/**
+	 * Returns the fitness cache's miss count.
+	 *
+	 * @return The miss count
+	 */
+	long getCacheMissCount() {
+		return cacheMissCount.get();
+	}
+
+	/**
+	 * Returns the number of cached evaluations.
+	 *
+	 * @return The cache size
+	 */
+	int getCacheSize() {
+		return cacheSize.get();
+	}
+
+	/**
+	 * Sets the fitness cache's statistics.
+	 *
+	 * @param hitCount The hit count
+	 * @param missCount The miss count
+	 * @param size The number of cached evaluations
+	 */
+	void setCacheStatistics(long hitCount, long missCount, int size) {
+		cacheMissCount.set(missCount);
+		cacheSize.set(size);
+		cacheHitCount.set(hitCount);
+		version.incrementAndGet();
+	}
+}
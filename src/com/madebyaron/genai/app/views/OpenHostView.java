@@ -28,7 +28,7 @@ public final class OpenHostView {
 	private Label progressLabel;
 	private ProgressBar progressBar;
 
-	public OpenHostView(Stage stage, int port, File file) {
+	public OpenHostView(Stage stage, int port, Long seed, File file) {
 		this.stage = stage;
 		stage.setWidth(STAGE_WIDTH);
 		stage.setScene(new Scene(createLayout()));
@@ -36,6 +36,7 @@ public final class OpenHostView {
 
 		presenter.attachView(this);
 		presenter.setPort(port);
+		presenter.setSeed(seed);
 		presenter.load(file);
 	}
 
@@ -29,14 +29,15 @@ public final class SaveHostView {
 	private Label progressLabel;
 	private ProgressBar progressBar;
 
-	public SaveHostView(Stage stage, File file, String process, Collection<Network> networks) {
+	public SaveHostView(Stage stage, File file, String process, long seed, int generation, String selection,
+	                    Collection<Network> networks, boolean compressed) {
 		this.stage = stage;
 		stage.setWidth(STAGE_WIDTH);
 		stage.setScene(new Scene(createLayout()));
 		stage.show();
 
 		presenter.attachView(this);
-		presenter.save(file, process, networks);
+		presenter.save(file, process, seed, generation, selection, networks, compressed);
 	}
 
 	private Parent createLayout() {
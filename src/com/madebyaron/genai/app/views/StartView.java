@@ -98,6 +98,10 @@ public final class StartView {
 		Label hostPortLabel = new Label("Host Port");
 		TextField hostPortInput = new TextField("8800");
 
+		Label seedLabel = new Label("Seed");
+		TextField seedInput = new TextField("");
+		seedInput.setPromptText("Random");
+
 		HBox buttons = new HBox();
 		buttons.setSpacing(SERVER_PANE_SPACING);
 		buttons.setAlignment(Pos.BOTTOM_RIGHT);
@@ -106,24 +110,32 @@ public final class StartView {
 		openButton.setOnAction((actionEvent) -> {
 			FileChooser fileChooser = new FileChooser();
 			File file = fileChooser.showOpenDialog(stage);
-			if (file != null) presenter.openHost(hostPortInput.getText(), file);
+			if (file != null) presenter.openHost(hostPortInput.getText(), seedInput.getText(), file);
+		});
+
+		Button resumeButton = new Button("Resume");
+		resumeButton.setOnAction((actionEvent) -> {
+			presenter.resumeHost(hostPortInput.getText(), seedInput.getText());
 		});
 
 		Button createButton = new Button("Create");
 		createButton.setOnAction((actionEvent) -> {
-			presenter.createHost(hostPortInput.getText());
+			presenter.createHost(hostPortInput.getText(), seedInput.getText());
 		});
 
 		GridPane.setHgrow(hostPortInput, Priority.ALWAYS);
+		GridPane.setHgrow(seedInput, Priority.ALWAYS);
 		GridPane.setHgrow(buttons, Priority.ALWAYS);
 		GridPane.setVgrow(buttons, Priority.ALWAYS);
 		GridPane.setHalignment(buttons, HPos.RIGHT);
 		GridPane.setValignment(buttons, VPos.BOTTOM);
 
-		buttons.getChildren().addAll(openButton, createButton);
+		buttons.getChildren().addAll(openButton, resumeButton, createButton);
 
 		pane.add(hostPortLabel, 0, 0);
 		pane.add(hostPortInput, 1, 0);
+		pane.add(seedLabel, 0, 1);
+		pane.add(seedInput, 1, 1);
 		pane.add(buttons, 1, 2);
 
 		return pane;
@@ -145,15 +157,15 @@ public final class StartView {
 		});
 	}
 
-	public void openOpenHost(int port, File file) {
+	public void openOpenHost(int port, Long seed, File file) {
 		Platform.runLater(() -> {
-			new OpenHostView(new Stage(), port, file);
+			new OpenHostView(new Stage(), port, seed, file);
 		});
 	}
 
-	public void openCreateHost(int port) {
+	public void openCreateHost(int port, long seed) {
 		Platform.runLater(() -> {
-			new CreateHostView(new Stage(), port);
+			new CreateHostView(new Stage(), port, seed);
 		});
 	}
 }
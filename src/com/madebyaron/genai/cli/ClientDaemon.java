@@ -0,0 +1,339 @@
+package com.madebyaron.genai.cli;
+
+import com.madebyaron.genai.ai.Network;
+import com.madebyaron.genai.ai.Process;
+import com.madebyaron.genai.ai.RandomSource;
+import com.madebyaron.genai.metrics.MetricRegistry;
+import com.madebyaron.genai.net.EvaluatorClient;
+import com.madebyaron.genai.net.MetricsEndpoint;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The headless evaluator client. It connects to every given host, evaluates their networks
+ * on all cores and reconnects with an exponential backoff if a connection is lost or refused.
+ * The cores are shared between the hosts so the idle hosts' threads don't go to waste.
+ */
+public final class ClientDaemon {
+
+	private static final int DEFAULT_PORT = 8800;
+	private static final int CONNECTION_TIMEOUT = 2000;
+	private static final long MIN_BACKOFF = 1000;
+
+	private static final String USAGE = String.join(System.lineSeparator(),
+			"Usage: ClientDaemon [options] <host[:port]>...",
+			"  --threads <count>      The number of evaluating threads (default: the number of cores)",
+			"  --max-backoff <s>      The maximum delay between two reconnections (default: 60)",
+			"  --report <s>           The interval of the throughput reports (default: 10)",
+			"  --metrics-port <port>  Serves the metrics on http://localhost:<port>/metrics"
+	);
+
+	private final List<InetSocketAddress> hosts = new ArrayList<>();
+	private int threadCount = Runtime.getRuntime().availableProcessors();
+	private long maxBackoff = 60_000;
+	private long reportInterval = 10_000;
+	private int metricsPort = 0;
+
+	private final List<HostConnection> connections = new ArrayList<>();
+	private Semaphore cores;
+
+	private final AtomicLong evaluationCount = new AtomicLong();
+
+	public static void main(String[] args) {
+		ClientDaemon daemon = new ClientDaemon();
+		try {
+			daemon.parse(args);
+		} catch (IllegalArgumentException e) {
+			System.err.println(e.getMessage());
+			System.err.println(USAGE);
+			System.exit(2);
+		}
+
+		daemon.run();
+	}
+
+	/**
+	 * Parses the command line options and the host addresses.
+	 *
+	 * @param args The command line arguments
+	 * @throws IllegalArgumentException If an option is unknown or malformed
+	 */
+	private void parse(String[] args) {
+		for (int i = 0; i < args.length; i++) {
+			String arg = args[i];
+			if (!arg.startsWith("--")) {
+				hosts.add(parseAddress(arg));
+				continue;
+			}
+
+			if (arg.equals("--help")) throw new IllegalArgumentException("");
+			if (i + 1 >= args.length) throw new IllegalArgumentException("Missing value of option: " + arg);
+
+			String value = args[++i];
+			try {
+				switch (arg) {
+					case "--threads": threadCount = Integer.parseInt(value); break;
+					case "--max-backoff": maxBackoff = Long.parseLong(value) * 1000; break;
+					case "--report": reportInterval = Long.parseLong(value) * 1000; break;
+					case "--metrics-port": metricsPort = Integer.parseInt(value); break;
+					default: throw new IllegalArgumentException("Unknown option: " + arg);
+				}
+			} catch (NumberFormatException e) {
+				throw new IllegalArgumentException("The value of " + arg + " must be a number: " + value);
+			}
+		}
+
+		if (hosts.isEmpty()) throw new IllegalArgumentException("No hosts given.");
+		if (threadCount < 1) throw new IllegalArgumentException("Thread count must be positive.");
+		if (maxBackoff < MIN_BACKOFF) throw new IllegalArgumentException("Maximum backoff must be at least a second.");
+		if (reportInterval <= 0) throw new IllegalArgumentException("Report interval must be positive.");
+	}
+
+	/**
+	 * Parses a host address in the form of host[:port].
+	 *
+	 * @param address The address
+	 * @return The socket address
+	 */
+	private static InetSocketAddress parseAddress(String address) {
+		int separator = address.lastIndexOf(':');
+		if (separator < 0) return InetSocketAddress.createUnresolved(address, DEFAULT_PORT);
+
+		try {
+			return InetSocketAddress.createUnresolved(
+					address.substring(0, separator),
+					Integer.parseInt(address.substring(separator + 1))
+			);
+		} catch (IllegalArgumentException e) {
+			throw new IllegalArgumentException("Invalid host address: " + address);
+		}
+	}
+
+	/**
+	 * Connects to every host and reports the throughput until the process is terminated.
+	 */
+	private void run() {
+		cores = new Semaphore(threadCount);
+
+		for (InetSocketAddress host : hosts) {
+			HostConnection connection = new HostConnection(host);
+			connections.add(connection);
+			connection.start();
+		}
+
+		ScheduledExecutorService reporter = Executors.newSingleThreadScheduledExecutor();
+		reporter.scheduleAtFixedRate(new Reporter(), reportInterval, reportInterval, TimeUnit.MILLISECONDS);
+
+		MetricRegistry metrics = MetricRegistry.getDefault();
+		metrics.gauge("client_evaluations_total", evaluationCount::get);
+		metrics.gauge("client_busy_threads", () -> threadCount - cores.availablePermits());
+		metrics.gauge("client_threads", () -> threadCount);
+
+		MetricsEndpoint metricsEndpoint = null;
+		if (metricsPort > 0) {
+			try {
+				metricsEndpoint = new MetricsEndpoint(metrics, metricsPort);
+				System.out.println("Serving metrics on http://localhost:" + metricsEndpoint.getPort() + "/metrics");
+			} catch (IOException e) {
+				System.err.println("Couldn't serve metrics: " + e.getMessage());
+			}
+		}
+
+		MetricsEndpoint finalMetricsEndpoint = metricsEndpoint;
+		Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+			reporter.shutdownNow();
+			if (finalMetricsEndpoint != null) finalMetricsEndpoint.close();
+			for (HostConnection connection : connections) {
+				connection.close();
+			}
+		}));
+
+		System.out.println("Evaluating on " + threadCount + " threads for " + hosts.size() + " hosts");
+	}
+
+	/**
+	 * Evaluates the given network on one of the shared cores.
+	 *
+	 * @param process The network's process
+	 * @param network The network to be evaluated
+	 * @param seed The seed the evaluation episodes are derived from, received with the network
+	 * @return The given network's evaluation as a double value
+	 * @throws EvaluatorClient.EvaluationException Any exception that happens while evaluating
+	 */
+	private double evaluate(Process process, Network network, long seed) throws EvaluatorClient.EvaluationException {
+		try {
+			cores.acquire();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new EvaluatorClient.EvaluationException("Interrupted");
+		}
+
+		try {
+			double evaluation = process.evaluate(network, seed);
+			evaluationCount.incrementAndGet();
+			return evaluation;
+		} catch (Exception e) {
+			throw new EvaluatorClient.EvaluationException(e.getClass().getSimpleName() + ": " + e.getMessage());
+		} finally {
+			cores.release();
+		}
+	}
+
+	/**
+	 * The connection loop of a single host. It connects to the host,
+	 * waits until the connection ends and reconnects after a growing delay.
+	 * The delay is reset when a connection succeeds.
+	 */
+	private final class HostConnection {
+
+		private final InetSocketAddress host;
+		private final Thread thread = new Thread(this::connect);
+
+		private volatile boolean closed = false;
+		private volatile EvaluatorClient client = null;
+
+		private HostConnection(InetSocketAddress host) {
+			this.host = host;
+			thread.setName("ClientDaemon " + host.getHostString() + ":" + host.getPort());
+			thread.setDaemon(true);
+		}
+
+		private void start() {
+			thread.start();
+		}
+
+		/**
+		 * Stops reconnecting and disconnects from the host.
+		 */
+		private void close() {
+			closed = true;
+			thread.interrupt();
+
+			EvaluatorClient client = this.client;
+			if (client != null) client.disconnect();
+		}
+
+		private boolean isConnected() {
+			EvaluatorClient client = this.client;
+			return client != null && client.isConnected();
+		}
+
+		/**
+		 * The reconnection loop.
+		 */
+		private void connect() {
+			long backoff = MIN_BACKOFF;
+
+			while (!closed) {
+				try {
+					Socket socket = new Socket();
+					try {
+						socket.connect(new InetSocketAddress(host.getHostString(), host.getPort()), CONNECTION_TIMEOUT);
+					} catch (IOException e) {
+						socket.close();
+						throw e;
+					}
+
+					CountDownLatch ready = new CountDownLatch(1);
+					CountDownLatch disconnected = new CountDownLatch(1);
+					IOException[] disconnectionException = new IOException[1];
+					Process[] process = new Process[1];
+
+					// The process is only known after the handshake, so the evaluations wait for it
+					EvaluatorClient client = new EvaluatorClient(socket, (network, seed) -> {
+						try {
+							ready.await();
+						} catch (InterruptedException e) {
+							throw new EvaluatorClient.EvaluationException("Interrupted");
+						}
+						if (process[0] == null) throw new EvaluatorClient.EvaluationException("The process can't be found.");
+						return evaluate(process[0], network, seed);
+					}, threadCount);
+					client.addConnectionListener(exception -> {
+						disconnectionException[0] = exception;
+						disconnected.countDown();
+					});
+					if (client.getProcess() != null) process[0] = Process.getProcess(client.getProcess());
+					ready.countDown();
+					this.client = client;
+
+					if (client.isConnected()) {
+						System.out.println("Connected to " + this + " (" + client.getProcess() + ")");
+						backoff = MIN_BACKOFF;
+					}
+
+					disconnected.await();
+					this.client = null;
+
+					IOException exception = disconnectionException[0];
+					System.out.println("Disconnected from " + this +
+							(exception != null ? " (" + exception.getMessage() + ")" : ""));
+				} catch (IOException e) {
+					System.out.println("Couldn't connect to " + this + " (" + e.getMessage() + ")");
+				} catch (InterruptedException e) {
+					return;
+				}
+
+				if (closed) return;
+
+				try {
+					long delay = backoff / 2 + (long) (RandomSource.getDefault().current().nextDouble() * (backoff / 2));
+					Thread.sleep(delay);
+				} catch (InterruptedException e) {
+					return;
+				}
+				backoff = Math.min(backoff * 2, maxBackoff);
+			}
+		}
+
+		@Override
+		public String toString() {
+			return host.getHostString() + ":" + host.getPort();
+		}
+	}
+
+	/**
+	 * Prints the throughput since the last report.
+	 */
+	private final class Reporter implements Runnable {
+
+		private long lastTime = System.nanoTime();
+		private long lastEvaluationCount = 0;
+
+		@Override
+		public void run() {
+			long time = System.nanoTime();
+			long evaluationCount = ClientDaemon.this.evaluationCount.get();
+			double seconds = (time - lastTime) / 1e9;
+
+			int connected = 0;
+			for (HostConnection connection : connections) {
+				if (connection.isConnected()) connected++;
+			}
+
+			System.out.println(String.format(
+					"%d evaluations in %.1f s (%.1f evaluations/s), %d/%d hosts connected, %d/%d threads busy",
+					evaluationCount - lastEvaluationCount,
+					seconds,
+					(evaluationCount - lastEvaluationCount) / seconds,
+					connected,
+					connections.size(),
+					threadCount - cores.availablePermits(),
+					threadCount
+			));
+
+			lastTime = time;
+			lastEvaluationCount = evaluationCount;
+		}
+	}
+}
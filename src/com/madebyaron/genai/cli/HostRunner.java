@@ -0,0 +1,642 @@
+package com.madebyaron.genai.cli;
+
+import com.madebyaron.genai.ai.Checkpointer;
+import com.madebyaron.genai.ai.EvaluationSummary;
+import com.madebyaron.genai.ai.FitnessCache;
+import com.madebyaron.genai.ai.Network;
+import com.madebyaron.genai.ai.Pool;
+import com.madebyaron.genai.ai.PoolFile;
+import com.madebyaron.genai.ai.PopulationStore;
+import com.madebyaron.genai.ai.Process;
+import com.madebyaron.genai.ai.RandomSource;
+import com.madebyaron.genai.ai.SelectionStrategy;
+import com.madebyaron.genai.metrics.MetricRegistry;
+import com.madebyaron.genai.net.EvaluatorConnection;
+import com.madebyaron.genai.net.EvaluatorHost;
+import com.madebyaron.genai.net.EvaluatorServer;
+import com.madebyaron.genai.net.Island;
+import com.madebyaron.genai.net.LocalEvaluator;
+import com.madebyaron.genai.net.MetricsEndpoint;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * The headless host. It runs the generation loop of a pool on an evaluator server
+ * without any user interface and prints the throughput statistics of every generation.
+ */
+public final class HostRunner {
+
+	private static final String USAGE = String.join(System.lineSeparator(),
+			"Usage: HostRunner [options]",
+			"  --port <port>                 The server port (default: 8800)",
+			"  --process <name>              The process of a new pool (default: flappy)",
+			"  --size <count>                The size of a new pool (default: 1000)",
+			"  --pool <file>                 Opens the pool from the given file instead of creating one",
+			"  --convert <legacy> <file>     Converts a legacy pool file to the binary format and exits",
+			"                                (the --seed and --compress options apply to the converted file)",
+			"  --export-store <pool> <file>  Writes the networks of a pool file to a new population store and exits",
+			"  --evaluate-store <file>       Evaluates every network of a population store in place and exits",
+			"                                (with the --process and --seed options, on the --local threads)",
+			"  --seed <seed>                 The run seed (default: the saved seed or a random one)",
+			"  --purge <ratio>               The ratio of the networks removed every generation (default: 0.5)",
+			"  --selection <name>            The selection strategy: classic, truncation, tournament-<size>, rank or sus",
+			"                                (default: the saved strategy or classic)",
+			"  --elites <count>              The number of best networks that always survive (default: 0)",
+			"  --steady-state                Replaces the networks one by one instead of whole generations",
+			"  --generations <count>         Stops after the given number of generations (default: unlimited)",
+			"  --checkpoint <directory>      Checkpoints to and resumes from the given directory",
+			"  --checkpoint-interval <count> The number of generations between checkpoints (default: 10)",
+			"  --checkpoint-keep <count>     The number of kept checkpoints (default: 3)",
+			"  --compress                    Compresses the checkpoints",
+			"  --local <threads>             Also evaluates in this process on the given number of threads",
+			"  --cache <capacity>            Caches the given number of evaluations so equal networks aren't evaluated again",
+			"  --island-port <port>          Runs as an island receiving migrants on the given port",
+			"  --island-address <address>    The address the island port is bound to (default: every address)",
+			"  --peer <host:port>            An other island the best networks are sent to (repeatable, in ring order)",
+			"  --topology <name>             The migration topology: ring or random (default: ring)",
+			"  --migration-interval <count>  The number of generations between migrations (default: 10)",
+			"  --migrants <count>            The number of best networks sent in a migration (default: 5)",
+			"  --metrics-port <port>         Serves the metrics on http://localhost:<port>/metrics"
+	);
+
+	private int port = 8800;
+	private String process = "flappy";
+	private int size = 1000;
+	private File poolFile = null;
+	private File legacyFile = null;
+	private File convertedFile = null;
+	private File exportedPoolFile = null;
+	private File storeFile = null;
+	private boolean storeEvaluation = false;
+	private Long seed = null;
+	private double purgeRatio = 0.5;
+	private int generationLimit = 0;
+	private File checkpointDirectory = null;
+	private int checkpointInterval = 10;
+	private int checkpointCount = 3;
+	private boolean compressed = false;
+	private boolean steadyState = false;
+	private String selection = null;
+	private int eliteCount = 0;
+	private int localThreadCount = 0;
+	private int cacheCapacity = 0;
+	private int islandPort = 0;
+	private String islandAddress = null;
+	private final List<InetSocketAddress> peers = new ArrayList<>();
+	private Island.Topology topology = Island.Topology.RING;
+	private int migrationInterval = 10;
+	private int migrantCount = 5;
+	private int metricsPort = 0;
+
+	public static void main(String[] args) {
+		HostRunner runner = new HostRunner();
+		try {
+			runner.parse(args);
+		} catch (IllegalArgumentException e) {
+			System.err.println(e.getMessage());
+			System.err.println(USAGE);
+			System.exit(2);
+		}
+
+		try {
+			if (runner.legacyFile != null) {
+				runner.convert();
+			} else if (runner.exportedPoolFile != null) {
+				runner.exportStore();
+			} else if (runner.storeEvaluation) {
+				runner.evaluateStore();
+			} else {
+				runner.run();
+			}
+		} catch (IOException | InterruptedException e) {
+			System.err.println(e.getClass().getSimpleName() + ": " + e.getMessage());
+			System.exit(1);
+		}
+	}
+
+	/**
+	 * Parses the command line options.
+	 *
+	 * @param args The command line arguments
+	 * @throws IllegalArgumentException If an option is unknown or malformed
+	 */
+	private void parse(String[] args) {
+		for (int i = 0; i < args.length; i++) {
+			String option = args[i];
+			if (option.equals("--compress")) {
+				compressed = true;
+				continue;
+			}
+			if (option.equals("--steady-state")) {
+				steadyState = true;
+				continue;
+			}
+			if (option.equals("--convert")) {
+				if (i + 2 >= args.length) throw new IllegalArgumentException("Missing value of option: " + option);
+				legacyFile = new File(args[++i]);
+				convertedFile = new File(args[++i]);
+				continue;
+			}
+			if (option.equals("--export-store")) {
+				if (i + 2 >= args.length) throw new IllegalArgumentException("Missing value of option: " + option);
+				exportedPoolFile = new File(args[++i]);
+				storeFile = new File(args[++i]);
+				continue;
+			}
+			if (option.equals("--help")) throw new IllegalArgumentException("");
+			if (i + 1 >= args.length) throw new IllegalArgumentException("Missing value of option: " + option);
+
+			String value = args[++i];
+			try {
+				switch (option) {
+					case "--port": port = Integer.parseInt(value); break;
+					case "--process": process = value; break;
+					case "--size": size = Integer.parseInt(value); break;
+					case "--pool": poolFile = new File(value); break;
+					case "--evaluate-store": storeFile = new File(value); storeEvaluation = true; break;
+					case "--seed": seed = Long.parseLong(value); break;
+					case "--purge": purgeRatio = Double.parseDouble(value); break;
+					case "--selection": selection = value; break;
+					case "--elites": eliteCount = Integer.parseInt(value); break;
+					case "--generations": generationLimit = Integer.parseInt(value); break;
+					case "--checkpoint": checkpointDirectory = new File(value); break;
+					case "--checkpoint-interval": checkpointInterval = Integer.parseInt(value); break;
+					case "--checkpoint-keep": checkpointCount = Integer.parseInt(value); break;
+					case "--local": localThreadCount = Integer.parseInt(value); break;
+					case "--cache": cacheCapacity = Integer.parseInt(value); break;
+					case "--island-port": islandPort = Integer.parseInt(value); break;
+					case "--island-address": islandAddress = value; break;
+					case "--peer": peers.add(parseAddress(value)); break;
+					case "--topology": topology = parseTopology(value); break;
+					case "--migration-interval": migrationInterval = Integer.parseInt(value); break;
+					case "--migrants": migrantCount = Integer.parseInt(value); break;
+					case "--metrics-port": metricsPort = Integer.parseInt(value); break;
+					default: throw new IllegalArgumentException("Unknown option: " + option);
+				}
+			} catch (NumberFormatException e) {
+				throw new IllegalArgumentException("The value of " + option + " must be a number: " + value);
+			}
+		}
+
+		if (!peers.isEmpty() && islandPort == 0) throw new IllegalArgumentException("Peers require an island port.");
+	}
+
+	/**
+	 * Parses a peer address in the form of host:port.
+	 *
+	 * @param address The address
+	 * @return The socket address
+	 */
+	private static InetSocketAddress parseAddress(String address) {
+		int separator = address.lastIndexOf(':');
+		if (separator < 0) throw new IllegalArgumentException("The port of the peer is missing: " + address);
+
+		try {
+			return InetSocketAddress.createUnresolved(
+					address.substring(0, separator),
+					Integer.parseInt(address.substring(separator + 1))
+			);
+		} catch (IllegalArgumentException e) {
+			throw new IllegalArgumentException("Invalid peer address: " + address);
+		}
+	}
+
+	/**
+	 * Parses the name of a migration topology.
+	 *
+	 * @param name The topology's name
+	 * @return The topology
+	 */
+	private static Island.Topology parseTopology(String name) {
+		switch (name) {
+			case "ring": return Island.Topology.RING;
+			case "random": return Island.Topology.RANDOM;
+			default: throw new IllegalArgumentException("Unknown topology: " + name);
+		}
+	}
+
+	/**
+	 * Converts the legacy pool file to the binary pool format.
+	 *
+	 * @throws IOException Any exception thrown while reading or writing the pool files
+	 */
+	private void convert() throws IOException {
+		if (!PoolFile.isLegacy(legacyFile)) throw new IOException("Not a legacy pool file: " + legacyFile);
+
+		try {
+			PoolFile.convertLegacy(
+					legacyFile, convertedFile,
+					seed != null ? seed : RandomSource.getDefault().current().nextLong(),
+					compressed, null
+			);
+		} catch (ClassNotFoundException e) {
+			throw new IOException("The saved network class can't be found: " + e.getMessage(), e);
+		}
+		System.out.println("Converted " + legacyFile.getPath() + " to " + convertedFile.getPath());
+	}
+
+	/**
+	 * Writes the networks of the pool file to a new population store.
+	 *
+	 * @throws IOException Any exception thrown while reading the pool file or writing the store
+	 */
+	private void exportStore() throws IOException {
+		if (storeFile.exists()) throw new IOException("The population store already exists: " + storeFile);
+		if (PoolFile.isLegacy(exportedPoolFile)) {
+			throw new IOException("Legacy pool files must be converted first with --convert: " + exportedPoolFile);
+		}
+
+		PoolFile poolFile = PoolFile.open(exportedPoolFile);
+		Process process = Process.getProcess(poolFile.getProcess());
+		if (process == null) throw new IOException("The process can't be found: " + poolFile.getProcess());
+
+		Network network = process.createNetwork(0);
+		try (PopulationStore store = PopulationStore.open(
+				storeFile,
+				network.getInputNeuronCount(), network.getOutputNeuronCount(), getHiddenNeuronCount(network),
+				poolFile.getSize()
+		)) {
+			for (int index = 0; index < poolFile.getSize(); index++) store.add(poolFile.getNetwork(index));
+		} catch (IllegalArgumentException e) {
+			throw new IOException("The pool file's networks don't match the process: " + e.getMessage(), e);
+		}
+		System.out.println("Exported " + poolFile.getSize() + " networks of " + exportedPoolFile.getPath() +
+				" to " + storeFile.getPath());
+	}
+
+	/**
+	 * Evaluates every network of the population store in place through views, without creating them on the heap,
+	 * and prints the best and the mean evaluation.
+	 *
+	 * @throws IOException Any exception thrown while opening the store or evaluating a network
+	 * @throws InterruptedException If the waiting for the evaluations is interrupted
+	 */
+	private void evaluateStore() throws IOException, InterruptedException {
+		Process process = Process.getProcess(this.process);
+		if (process == null) throw new IOException("The process can't be found: " + this.process);
+
+		Network network = process.createNetwork(0);
+		long runSeed = seed != null ? seed : RandomSource.getDefault().current().nextLong();
+		int threadCount = Math.max(localThreadCount, 1);
+
+		try (PopulationStore store = PopulationStore.open(
+				storeFile,
+				network.getInputNeuronCount(), network.getOutputNeuronCount(), getHiddenNeuronCount(network)
+		)) {
+			long size = store.getSize();
+			long start = System.nanoTime();
+
+			ExecutorService executor = Executors.newFixedThreadPool(threadCount);
+			try {
+				List<Future<StoreEvaluation>> futures = new ArrayList<>(threadCount);
+				for (int thread = 0; thread < threadCount; thread++) {
+					long first = thread;
+					futures.add(executor.submit((Callable<StoreEvaluation>) () -> {
+						StoreEvaluation evaluation = new StoreEvaluation();
+						PopulationStore.View view = store.createView();
+						for (long index = first; index < size; index += threadCount) {
+							evaluation.add(index, process.evaluate(view.at(index), runSeed));
+						}
+						return evaluation;
+					}));
+				}
+
+				StoreEvaluation evaluation = new StoreEvaluation();
+				for (Future<StoreEvaluation> future : futures) evaluation.add(future.get());
+
+				double seconds = (System.nanoTime() - start) / 1e9;
+				System.out.println(String.format(
+						"Evaluated %d networks in %.2f s (%.1f evaluations/s): best %.4f (network %d), mean %.4f",
+						size,
+						seconds,
+						size / seconds,
+						evaluation.best,
+						evaluation.bestIndex,
+						evaluation.sum / Math.max(size, 1)
+				));
+			} catch (ExecutionException e) {
+				throw new IOException("The evaluation failed: " + e.getCause(), e.getCause());
+			} finally {
+				executor.shutdownNow();
+			}
+		}
+	}
+
+	/**
+	 * Returns the number of hidden neurons in every hidden layer of the network.
+	 *
+	 * @param network The network
+	 * @return The hidden neuron count as an array where each value is a layer
+	 */
+	private static int[] getHiddenNeuronCount(Network network) {
+		int[] hiddenNeuronCount = new int[network.getHiddenLayerCount()];
+		for (int layer = 0; layer < hiddenNeuronCount.length; layer++) {
+			hiddenNeuronCount[layer] = network.getHiddenNeuronCount(layer);
+		}
+		return hiddenNeuronCount;
+	}
+
+	/**
+	 * Creates or loads the pool, starts the server and runs the generations until the limit is reached.
+	 *
+	 * @throws IOException Any exception thrown while loading the pool or starting the server
+	 * @throws InterruptedException If the waiting for the host is interrupted
+	 */
+	private void run() throws IOException, InterruptedException {
+		Pool pool = createPool();
+		pool.setEliteCount(eliteCount);
+		EvaluatorServer server = new EvaluatorServer(new ServerSocket(port), pool.getProcess().getName());
+		LocalEvaluator localEvaluator = null;
+		if (localThreadCount > 0) {
+			localEvaluator = new LocalEvaluator(pool.getProcess(), localThreadCount);
+			server.addEvaluator(localEvaluator);
+		}
+
+		EvaluatorHost host = new EvaluatorHost(pool, server);
+		host.setPurgeRatio(purgeRatio);
+		host.setGenerationLimit(generationLimit);
+		host.setSteadyState(steadyState);
+		if (cacheCapacity > 0) host.setFitnessCache(new FitnessCache(cacheCapacity));
+
+		Checkpointer checkpointer = null;
+		if (checkpointDirectory != null) {
+			checkpointer = new Checkpointer(checkpointDirectory, checkpointInterval, checkpointCount);
+			checkpointer.setCompressed(compressed);
+			checkpointer.addListener(new Checkpointer.Listener() {
+				@Override
+				public void onCheckpoint(File file, int generation) {
+					System.out.println("Checkpoint: " + file.getPath());
+				}
+
+				@Override
+				public void onError(IOException exception) {
+					System.err.println("Couldn't write checkpoint: " + exception.getMessage());
+				}
+			});
+			host.setCheckpointer(checkpointer);
+		}
+
+		server.addListener(new EvaluatorServer.Listener() {
+			@Override
+			public void onConnected(EvaluatorConnection connection) {
+				System.out.println("Client connected: " + connection.getAddress().getHostAddress() + ":" + connection.getPort());
+			}
+
+			@Override
+			public void onDisconnected(EvaluatorConnection connection, IOException exception) {
+				System.out.println("Client disconnected: " + connection.getAddress().getHostAddress() + ":" + connection.getPort() +
+						(exception != null ? " (" + exception.getMessage() + ")" : ""));
+			}
+
+			@Override
+			public void onError(IOException exception) {
+				System.out.println("Server closed: " + exception.getMessage());
+			}
+		});
+
+		server.addEvaluationListener(new EvaluatorConnection.Listener() {
+			@Override
+			public void onEvaluationStared(Network network) {
+
+			}
+
+			@Override
+			public void onEvaluationFinished(Network network, double evaluation) {
+
+			}
+
+			@Override
+			public void onEvaluationFailed(Network network, Exception exception) {
+				System.out.println("Evaluation failed, the evaluator stopped: " +
+						exception.getClass().getSimpleName() + ": " + exception.getMessage());
+			}
+		});
+
+		Island island = null;
+		if (islandPort > 0) {
+			ServerSocket islandSocket = islandAddress != null ?
+					new ServerSocket(islandPort, 0, InetAddress.getByName(islandAddress)) :
+					new ServerSocket(islandPort);
+			island = new Island(pool, islandSocket, peers);
+			island.setTopology(topology);
+			island.setMigrationInterval(migrationInterval);
+			island.setMigrantCount(migrantCount);
+			island.addListener(new Island.Listener() {
+				@Override
+				public void onEmigrated(InetSocketAddress peer, int count) {
+					System.out.println("Sent " + count + " migrants to " + peer.getHostString() + ":" + peer.getPort());
+				}
+
+				@Override
+				public void onImmigrated(InetAddress address, int count) {
+					System.out.println("Received " + count + " migrants from " + address.getHostAddress());
+				}
+
+				@Override
+				public void onError(InetSocketAddress peer, IOException exception) {
+					System.out.println("Migration " + (peer != null ? "to " + peer.getHostString() + ":" + peer.getPort() : "from a peer") +
+							" failed: " + exception.getMessage());
+				}
+			});
+			host.addListener(island);
+		}
+
+		MetricsEndpoint metricsEndpoint = null;
+		if (metricsPort > 0) {
+			metricsEndpoint = new MetricsEndpoint(MetricRegistry.getDefault(), metricsPort);
+			System.out.println("Serving metrics on http://localhost:" + metricsEndpoint.getPort() + "/metrics");
+		}
+
+		CountDownLatch stopped = new CountDownLatch(1);
+		host.addListener(new StatisticsListener(host, stopped));
+
+		Checkpointer finalCheckpointer = checkpointer;
+		LocalEvaluator finalLocalEvaluator = localEvaluator;
+		Island finalIsland = island;
+		MetricsEndpoint finalMetricsEndpoint = metricsEndpoint;
+		Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+			host.close();
+			server.close();
+			if (finalIsland != null) finalIsland.close();
+			if (finalMetricsEndpoint != null) finalMetricsEndpoint.close();
+			if (finalLocalEvaluator != null) finalLocalEvaluator.close();
+			if (finalCheckpointer != null) finalCheckpointer.close();
+		}));
+
+		System.out.println("Hosting " + pool.getProcess().getName() + " on port " + server.getPort() +
+				" (seed " + pool.getSeed() + ", generation " + pool.getGeneration() + ", " +
+				pool.getSelectionStrategy().getName() + " selection, " +
+				pool.getNetworks().size() + " networks" +
+				(island != null ? ", island on port " + island.getPort() + " with " + peers.size() + " peers" : "") + ")");
+		host.start();
+		stopped.await();
+
+		host.close();
+		server.close();
+		if (island != null) island.close();
+		if (metricsEndpoint != null) metricsEndpoint.close();
+		if (localEvaluator != null) localEvaluator.close();
+		if (checkpointer != null) checkpointer.close();
+	}
+
+	/**
+	 * Creates the pool. It's resumed from the latest checkpoint if there is one,
+	 * loaded from the pool file if one is given or created otherwise.
+	 *
+	 * @return The pool
+	 * @throws IOException Any exception thrown while loading the pool
+	 */
+	private Pool createPool() throws IOException {
+		File file = poolFile;
+		if (checkpointDirectory != null) {
+			File checkpoint = Checkpointer.getLatest(checkpointDirectory);
+			if (checkpoint != null) {
+				System.out.println("Resuming from checkpoint: " + checkpoint.getPath());
+				file = checkpoint;
+			}
+		}
+
+		if (file != null) {
+			if (PoolFile.isLegacy(file)) {
+				throw new IOException("Legacy pool files must be converted first with --convert: " + file);
+			}
+
+			PoolFile poolFile = PoolFile.open(file);
+			Process process = Process.getProcess(poolFile.getProcess());
+			if (process == null) throw new IOException("The process can't be found: " + poolFile.getProcess());
+
+			Pool pool = new Pool(
+					process, poolFile.getNetworks(),
+					seed != null ? seed : poolFile.getSeed(),
+					poolFile.getGeneration()
+			);
+			pool.setSelectionStrategy(getSelectionStrategy(selection != null ? selection : poolFile.getSelectionStrategy()));
+			return pool;
+		} else {
+			Process process = Process.getProcess(this.process);
+			if (process == null) throw new IOException("The process can't be found: " + this.process);
+
+			Pool pool = new Pool(process, size, seed != null ? seed : RandomSource.getDefault().current().nextLong());
+			if (selection != null) pool.setSelectionStrategy(getSelectionStrategy(selection));
+			return pool;
+		}
+	}
+
+	/**
+	 * Returns the selection strategy with the given name.
+	 *
+	 * @param name The strategy's name
+	 * @return The strategy
+	 * @throws IOException If there is no strategy with the given name
+	 */
+	private static SelectionStrategy getSelectionStrategy(String name) throws IOException {
+		SelectionStrategy selection = SelectionStrategy.getStrategy(name);
+		if (selection == null) throw new IOException("The selection strategy can't be found: " + name);
+		return selection;
+	}
+
+	/**
+	 * The best and the summed evaluation of the networks of a population store evaluated by a thread.
+	 */
+	private static final class StoreEvaluation {
+
+		private double best = Double.NEGATIVE_INFINITY;
+		private long bestIndex = -1;
+		private double sum = 0;
+
+		private void add(long index, double evaluation) {
+			sum += evaluation;
+			if (bestIndex < 0 || evaluation > best) {
+				best = evaluation;
+				bestIndex = index;
+			}
+		}
+
+		private void add(StoreEvaluation other) {
+			sum += other.sum;
+			if (other.bestIndex >= 0 && (bestIndex < 0 || other.best > best)) {
+				best = other.best;
+				bestIndex = other.bestIndex;
+			}
+		}
+	}
+
+	/**
+	 * The listener printing the statistics of every generation.
+	 */
+	private static final class StatisticsListener implements EvaluatorHost.Listener {
+
+		private final EvaluatorHost host;
+		private final CountDownLatch stopped;
+
+		private long lastTime = System.nanoTime();
+		private long lastEvaluationCount = 0;
+		private long lastHitCount = 0;
+		private long lastMissCount = 0;
+
+		private StatisticsListener(EvaluatorHost host, CountDownLatch stopped) {
+			this.host = host;
+			this.stopped = stopped;
+		}
+
+		@Override
+		public void onGeneration(int generation, Pool.Evaluation evaluation) {
+			long time = System.nanoTime();
+			long evaluationCount = host.getEvaluationCount();
+			double seconds = (time - lastTime) / 1e9;
+			EvaluationSummary summary = evaluation.getSummary();
+
+			System.out.println(String.format(
+					"Generation %d: best %.4f, worst %.4f, mean %.4f, median %.4f, %d evaluations in %.2f s (%.1f evaluations/s), %d clients" +
+							" (evaluation %.3f s, breeding %.3f s, gc %.3f s)",
+					generation,
+					summary.getMax(),
+					summary.getMin(),
+					summary.getMean(),
+					summary.getQuantile(0.5),
+					evaluationCount - lastEvaluationCount,
+					seconds,
+					(evaluationCount - lastEvaluationCount) / seconds,
+					host.getServer().getConnections().size(),
+					host.getLastEvaluationTime() / 1e9,
+					host.getLastBreedingTime() / 1e9,
+					host.getLastGarbageCollectionTime() / 1e9
+			));
+
+			FitnessCache fitnessCache = host.getFitnessCache();
+			if (fitnessCache != null) {
+				long hitCount = fitnessCache.getHitCount();
+				long missCount = fitnessCache.getMissCount();
+				System.out.println(String.format(
+						"  Cache: %d hits, %d misses, %d/%d entries",
+						hitCount - lastHitCount,
+						missCount - lastMissCount,
+						fitnessCache.getSize(),
+						fitnessCache.getCapacity()
+				));
+				lastHitCount = hitCount;
+				lastMissCount = missCount;
+			}
+
+			lastTime = time;
+			lastEvaluationCount = evaluationCount;
+		}
+
+		@Override
+		public void onStopped() {
+			stopped.countDown();
+		}
+	}
+}
@@ -0,0 +1,274 @@
+package com.madebyaron.genai.cli;
+
+import com.madebyaron.genai.ai.RandomSource;
+import com.madebyaron.genai.metrics.MetricRegistry;
+import com.madebyaron.genai.net.EvaluatorRelay;
+import com.madebyaron.genai.net.EvaluatorServer;
+import com.madebyaron.genai.net.MetricsEndpoint;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The headless relay. It connects to a host (or an other relay) and serves it's own clients,
+ * so a host can drive a tree of clients. It reconnects with an exponential backoff
+ * if the connection to the host is lost or refused. The clients have to reconnect too,
+ * as the relay's server is restarted with the host's process on every connection.
+ */
+public final class RelayDaemon {
+
+	private static final int DEFAULT_PORT = 8800;
+	private static final int CONNECTION_TIMEOUT = 2000;
+	private static final long MIN_BACKOFF = 1000;
+
+	private static final String USAGE = String.join(System.lineSeparator(),
+			"Usage: RelayDaemon [options] <host[:port]>",
+			"  --port <port>          The port the clients connect to (default: 8800)",
+			"  --max-backoff <s>      The maximum delay between two reconnections (default: 60)",
+			"  --report <s>           The interval of the throughput reports (default: 10)",
+			"  --metrics-port <port>  Serves the metrics on http://localhost:<port>/metrics"
+	);
+
+	private InetSocketAddress host = null;
+	private int port = DEFAULT_PORT;
+	private long maxBackoff = 60_000;
+	private long reportInterval = 10_000;
+	private int metricsPort = 0;
+
+	private volatile EvaluatorRelay relay = null;
+
+	public static void main(String[] args) {
+		RelayDaemon daemon = new RelayDaemon();
+		try {
+			daemon.parse(args);
+		} catch (IllegalArgumentException e) {
+			System.err.println(e.getMessage());
+			System.err.println(USAGE);
+			System.exit(2);
+		}
+
+		daemon.run();
+	}
+
+	/**
+	 * Parses the command line options and the host address.
+	 *
+	 * @param args The command line arguments
+	 * @throws IllegalArgumentException If an option is unknown or malformed
+	 */
+	private void parse(String[] args) {
+		for (int i = 0; i < args.length; i++) {
+			String arg = args[i];
+			if (!arg.startsWith("--")) {
+				if (host != null) throw new IllegalArgumentException("Only one host can be given.");
+				host = parseAddress(arg);
+				continue;
+			}
+
+			if (arg.equals("--help")) throw new IllegalArgumentException("");
+			if (i + 1 >= args.length) throw new IllegalArgumentException("Missing value of option: " + arg);
+
+			String value = args[++i];
+			try {
+				switch (arg) {
+					case "--port": port = Integer.parseInt(value); break;
+					case "--max-backoff": maxBackoff = Long.parseLong(value) * 1000; break;
+					case "--report": reportInterval = Long.parseLong(value) * 1000; break;
+					case "--metrics-port": metricsPort = Integer.parseInt(value); break;
+					default: throw new IllegalArgumentException("Unknown option: " + arg);
+				}
+			} catch (NumberFormatException e) {
+				throw new IllegalArgumentException("The value of " + arg + " must be a number: " + value);
+			}
+		}
+
+		if (host == null) throw new IllegalArgumentException("No host given.");
+		if (maxBackoff < MIN_BACKOFF) throw new IllegalArgumentException("Maximum backoff must be at least a second.");
+		if (reportInterval <= 0) throw new IllegalArgumentException("Report interval must be positive.");
+	}
+
+	/**
+	 * Parses a host address in the form of host[:port].
+	 *
+	 * @param address The address
+	 * @return The socket address
+	 */
+	private static InetSocketAddress parseAddress(String address) {
+		int separator = address.lastIndexOf(':');
+		if (separator < 0) return InetSocketAddress.createUnresolved(address, DEFAULT_PORT);
+
+		try {
+			return InetSocketAddress.createUnresolved(
+					address.substring(0, separator),
+					Integer.parseInt(address.substring(separator + 1))
+			);
+		} catch (IllegalArgumentException e) {
+			throw new IllegalArgumentException("Invalid host address: " + address);
+		}
+	}
+
+	/**
+	 * Relays between the host and the clients and reports the throughput until the process is terminated.
+	 */
+	private void run() {
+		ScheduledExecutorService reporter = Executors.newSingleThreadScheduledExecutor(runnable -> {
+			Thread thread = new Thread(runnable, "RelayDaemon reporter");
+			thread.setDaemon(true);
+			return thread;
+		});
+		reporter.scheduleAtFixedRate(new Reporter(), reportInterval, reportInterval, TimeUnit.MILLISECONDS);
+
+		MetricRegistry metrics = MetricRegistry.getDefault();
+		metrics.gauge("relay_forwarded_evaluations_total", () -> {
+			EvaluatorRelay relay = this.relay;
+			return relay != null ? relay.getForwardedCount() : 0;
+		});
+		metrics.gauge("relay_batches_total", () -> {
+			EvaluatorRelay relay = this.relay;
+			return relay != null ? relay.getBatchCount() : 0;
+		});
+		metrics.gauge("relay_threads", () -> {
+			EvaluatorRelay relay = this.relay;
+			return relay != null ? relay.getThreadCount() : 0;
+		});
+
+		MetricsEndpoint metricsEndpoint = null;
+		if (metricsPort > 0) {
+			try {
+				metricsEndpoint = new MetricsEndpoint(metrics, metricsPort);
+				System.out.println("Serving metrics on http://localhost:" + metricsEndpoint.getPort() + "/metrics");
+			} catch (IOException e) {
+				System.err.println("Couldn't serve metrics: " + e.getMessage());
+			}
+		}
+
+		MetricsEndpoint finalMetricsEndpoint = metricsEndpoint;
+		Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+			reporter.shutdownNow();
+			if (finalMetricsEndpoint != null) finalMetricsEndpoint.close();
+			EvaluatorRelay relay = this.relay;
+			if (relay != null) relay.disconnect();
+		}));
+
+		System.out.println("Relaying from " + this + " on port " + port);
+		connect();
+	}
+
+	/**
+	 * The reconnection loop.
+	 */
+	private void connect() {
+		long backoff = MIN_BACKOFF;
+
+		while (true) {
+			try {
+				Socket socket = new Socket();
+				try {
+					socket.connect(new InetSocketAddress(host.getHostString(), host.getPort()), CONNECTION_TIMEOUT);
+				} catch (IOException e) {
+					socket.close();
+					throw e;
+				}
+
+				ServerSocket serverSocket;
+				try {
+					serverSocket = new ServerSocket(port);
+				} catch (IOException e) {
+					socket.close();
+					throw e;
+				}
+
+				CountDownLatch disconnected = new CountDownLatch(1);
+				IOException[] disconnectionException = new IOException[1];
+
+				EvaluatorRelay relay = new EvaluatorRelay(socket, serverSocket);
+				relay.addConnectionListener(exception -> {
+					disconnectionException[0] = exception;
+					disconnected.countDown();
+				});
+				this.relay = relay;
+
+				if (relay.isConnected()) {
+					System.out.println("Connected to " + this + " (" + relay.getProcess() + ")");
+					backoff = MIN_BACKOFF;
+				}
+
+				disconnected.await();
+				this.relay = null;
+
+				IOException exception = disconnectionException[0];
+				System.out.println("Disconnected from " + this +
+						(exception != null ? " (" + exception.getMessage() + ")" : ""));
+			} catch (IOException e) {
+				System.out.println("Couldn't connect to " + this + " (" + e.getMessage() + ")");
+			} catch (InterruptedException e) {
+				return;
+			}
+
+			try {
+				long delay = backoff / 2 + (long) (RandomSource.getDefault().current().nextDouble() * (backoff / 2));
+				Thread.sleep(delay);
+			} catch (InterruptedException e) {
+				return;
+			}
+			backoff = Math.min(backoff * 2, maxBackoff);
+		}
+	}
+
+	@Override
+	public String toString() {
+		return host.getHostString() + ":" + host.getPort();
+	}
+
+	/**
+	 * Prints the throughput since the last report.
+	 */
+	private final class Reporter implements Runnable {
+
+		private EvaluatorRelay lastRelay = null;
+		private long lastTime = System.nanoTime();
+		private long lastForwardedCount = 0;
+		private long lastBatchCount = 0;
+
+		@Override
+		public void run() {
+			long time = System.nanoTime();
+			double seconds = (time - lastTime) / 1e9;
+			lastTime = time;
+
+			EvaluatorRelay relay = RelayDaemon.this.relay;
+			if (relay != lastRelay) {
+				lastRelay = relay;
+				lastForwardedCount = 0;
+				lastBatchCount = 0;
+			}
+			if (relay == null) {
+				System.out.println("Not connected to " + RelayDaemon.this);
+				return;
+			}
+
+			long forwardedCount = relay.getForwardedCount();
+			long batchCount = relay.getBatchCount();
+			EvaluatorServer server = relay.getServer();
+
+			System.out.println(String.format(
+					"%d evaluations in %d batches in %.1f s (%.1f evaluations/s), %d clients with %d threads",
+					forwardedCount - lastForwardedCount,
+					batchCount - lastBatchCount,
+					seconds,
+					(forwardedCount - lastForwardedCount) / seconds,
+					server != null ? server.getConnections().size() : 0,
+					relay.getThreadCount()
+			));
+
+			lastForwardedCount = forwardedCount;
+			lastBatchCount = batchCount;
+		}
+	}
+}
@@ -0,0 +1,116 @@
+package com.madebyaron.genai.cli;
+
+import com.madebyaron.genai.ai.SelectionStrategy;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * A micro benchmark of the selection strategies. Every strategy selects half of
+ * randomly evaluated pools of increasing size, and the median time of the runs
+ * is printed after a few warm-up runs.
+ */
+public final class SelectionBenchmark {
+
+	private static final String USAGE = String.join(System.lineSeparator(),
+			"Usage: SelectionBenchmark [options]",
+			"  --sizes <n,...>    The benchmarked pool sizes (default: 1000,10000,100000)",
+			"  --runs <count>     The number of measured runs per size (default: 15)",
+			"  --warmup <count>   The number of warm-up runs per size (default: 5)"
+	);
+
+	private int[] sizes = {1000, 10_000, 100_000};
+	private int runCount = 15;
+	private int warmupCount = 5;
+
+	public static void main(String[] args) {
+		SelectionBenchmark benchmark = new SelectionBenchmark();
+		try {
+			benchmark.parse(args);
+		} catch (IllegalArgumentException e) {
+			System.err.println(e.getMessage());
+			System.err.println(USAGE);
+			System.exit(2);
+		}
+
+		benchmark.run();
+	}
+
+	/**
+	 * Parses the command line options.
+	 *
+	 * @param args The command line arguments
+	 * @throws IllegalArgumentException If an option is unknown or malformed
+	 */
+	private void parse(String[] args) {
+		for (int i = 0; i < args.length; i++) {
+			String arg = args[i];
+			if (arg.equals("--help")) throw new IllegalArgumentException("");
+			if (i + 1 >= args.length) throw new IllegalArgumentException("Missing value of option: " + arg);
+			String value = args[++i];
+
+			try {
+				switch (arg) {
+					case "--sizes":
+						sizes = Arrays.stream(value.split(",")).mapToInt(size -> Integer.parseInt(size.trim())).toArray();
+						for (int size : sizes) {
+							if (size < 1) throw new IllegalArgumentException("Sizes must be positive.");
+						}
+						break;
+					case "--runs":
+						runCount = Integer.parseInt(value);
+						if (runCount < 1) throw new IllegalArgumentException("Run count must be positive.");
+						break;
+					case "--warmup":
+						warmupCount = Integer.parseInt(value);
+						if (warmupCount < 0) throw new IllegalArgumentException("Warm-up count can't be negative.");
+						break;
+					default:
+						throw new IllegalArgumentException("Unknown option: " + arg);
+				}
+			} catch (NumberFormatException e) {
+				throw new IllegalArgumentException("Invalid number: " + value);
+			}
+		}
+	}
+
+	/**
+	 * Runs the benchmark of every strategy on every size.
+	 */
+	private void run() {
+		SplittableRandom random = new SplittableRandom(0);
+		long checksum = 0;
+
+		for (int size : sizes) {
+			double[] evaluations = new double[size];
+			for (int i = 0; i < size; i++) {
+				// Every fourth network ties with others like the discrete scores of most processes
+				evaluations[i] = random.nextInt(4) == 0 ? random.nextInt(10) : random.nextDouble() * 10;
+			}
+
+			for (SelectionStrategy strategy : SelectionStrategy.STRATEGIES) {
+				long[] times = new long[runCount];
+				for (int run = -warmupCount; run < runCount; run++) {
+					long start = System.nanoTime();
+					int[] survivors = strategy.select(evaluations, size / 2, new SplittableRandom(run));
+					long time = System.nanoTime() - start;
+
+					checksum += survivors.length;
+					if (run >= 0) times[run] = time;
+				}
+				Arrays.sort(times);
+
+				System.out.println(String.format(
+						"%-12s %9d networks: median %10.3f ms, min %10.3f ms",
+						strategy.getName(),
+						size,
+						times[runCount / 2] / 1e6,
+						times[0] / 1e6
+				));
+			}
+		}
+
+		// Keeps the selections from being optimized away
+		if (checksum == 0) System.out.println();
+	}
+}
@@ -0,0 +1,33 @@
+package com.madebyaron.genai.metrics;
+
+/**
+ * A flight recorder event spanning the selection and breeding of a pool's next generation.
+ */
+public final class BreedingEvent extends FlightEvent {
+
+	private static final Type TYPE = new Type(
+			"com.madebyaron.genai.Breeding", "Breeding",
+			new String[]{"GenAI", "Pool"},
+			"The selection and breeding of a pool's next generation",
+			new Field(int.class, "generation", "Generation", "The generation being bred", false),
+			new Field(int.class, "networkCount", "Networks"),
+			new Field(int.class, "survivorCount", "Survivors"),
+			new Field(int.class, "immigrantCount", "Immigrants"),
+			new Field(String.class, "selection", "Selection Strategy")
+	);
+
+	public int generation;
+	public int networkCount;
+	public int survivorCount;
+	public int immigrantCount;
+	public String selection;
+
+	public BreedingEvent() {
+		super(TYPE);
+	}
+
+	@Override
+	protected Object[] getValues() {
+		return new Object[]{generation, networkCount, survivorCount, immigrantCount, selection};
+	}
+}
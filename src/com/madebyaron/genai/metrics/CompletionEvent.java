@@ -0,0 +1,32 @@
+package com.madebyaron.genai.metrics;
+
+/**
+ * A flight recorder event of an evaluation arriving from a client.
+ * It can be matched with it's dispatch event by the connection and the network ID.
+ */
+public final class CompletionEvent extends FlightEvent {
+
+	private static final Type TYPE = new Type(
+			"com.madebyaron.genai.Completion", "Completion",
+			new String[]{"GenAI", "Network"},
+			"An evaluation arriving from a client",
+			new Field(String.class, "connection", "Connection"),
+			new Field(long.class, "networkID", "Network ID"),
+			new Field(double.class, "evaluation", "Evaluation"),
+			new Field(long.class, "size", "Size", "The size of the message carrying the evaluation (shared by a whole batch)", true)
+	);
+
+	public String connection;
+	public long networkID;
+	public double evaluation;
+	public long size;
+
+	public CompletionEvent() {
+		super(TYPE);
+	}
+
+	@Override
+	protected Object[] getValues() {
+		return new Object[]{connection, networkID, evaluation, size};
+	}
+}
@@ -0,0 +1,42 @@
+package com.madebyaron.genai.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A monotonically increasing counter. It can be incremented from many threads without contention.
+ */
+public final class Counter {
+
+	private final LongAdder count = new LongAdder();
+
+	Counter() {
+
+	}
+
+	/**
+	 * Increments the counter by one.
+	 */
+	public void increment() {
+		count.increment();
+	}
+
+	/**
+	 * Increments the counter by the given amount.
+	 *
+	 * @param amount The amount (it can't be negative)
+	 */
+	public void add(long amount) {
+		if (amount < 0) throw new IllegalArgumentException("Amount can't be negative.");
+
+		count.add(amount);
+	}
+
+	/**
+	 * Returns the current value of the counter.
+	 *
+	 * @return The count
+	 */
+	public long get() {
+		return count.sum();
+	}
+}
@@ -0,0 +1,29 @@
+package com.madebyaron.genai.metrics;
+
+/**
+ * A flight recorder event spanning the serialization and sending of a network to a client.
+ */
+public final class DispatchEvent extends FlightEvent {
+
+	private static final Type TYPE = new Type(
+			"com.madebyaron.genai.Dispatch", "Dispatch",
+			new String[]{"GenAI", "Network"},
+			"The serialization and sending of a network to a client",
+			new Field(String.class, "connection", "Connection"),
+			new Field(long.class, "networkID", "Network ID"),
+			new Field(long.class, "size", "Size", null, true)
+	);
+
+	public String connection;
+	public long networkID;
+	public long size;
+
+	public DispatchEvent() {
+		super(TYPE);
+	}
+
+	@Override
+	protected Object[] getValues() {
+		return new Object[]{connection, networkID, size};
+	}
+}
@@ -0,0 +1,31 @@
+package com.madebyaron.genai.metrics;
+
+/**
+ * A flight recorder event spanning an evaluation episode of a network.
+ */
+public final class EpisodeEvent extends FlightEvent {
+
+	private static final Type TYPE = new Type(
+			"com.madebyaron.genai.Episode", "Episode",
+			new String[]{"GenAI", "Evaluation"},
+			"An evaluation episode of a network",
+			new Field(String.class, "process", "Process"),
+			new Field(int.class, "episode", "Episode"),
+			new Field(long.class, "tickCount", "Ticks"),
+			new Field(double.class, "evaluation", "Evaluation")
+	);
+
+	public String process;
+	public int episode;
+	public long tickCount;
+	public double evaluation;
+
+	public EpisodeEvent() {
+		super(TYPE);
+	}
+
+	@Override
+	protected Object[] getValues() {
+		return new Object[]{process, episode, tickCount, evaluation};
+	}
+}
@@ -0,0 +1,218 @@
+package com.madebyaron.genai.metrics;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A flight recorder event that doesn't depend on the flight recorder at compile time.
+ * The event types are registered reflectively through jdk.jfr.EventFactory if the runtime has the jdk.jfr module,
+ * otherwise every event is disabled and costs a single null check. The events are used like the recorder's own ones:
+ * they're begun, the fields are set if they should be committed and then they're committed.
+ */
+public abstract class FlightEvent {
+
+	private final Type type;
+	private final Object event;
+
+	/**
+	 * Creates an event of the given type.
+	 *
+	 * @param type The event type
+	 */
+	protected FlightEvent(Type type) {
+		this.type = type;
+		this.event = type.newEvent();
+	}
+
+	/**
+	 * Starts the timing of the event.
+	 */
+	public final void begin() {
+		if (event != null) type.invoke(type.begin, event);
+	}
+
+	/**
+	 * Returns whether or not the event is recorded, so it's fields have to be set.
+	 *
+	 * @return True if the event should be committed
+	 */
+	public final boolean shouldCommit() {
+		return event != null && Boolean.TRUE.equals(type.invoke(type.shouldCommit, event));
+	}
+
+	/**
+	 * Ends the timing of the event and records it's fields.
+	 */
+	public final void commit() {
+		if (event == null) return;
+
+		Object[] values = getValues();
+		for (int field = 0; field < values.length; field++) type.invoke(type.set, event, field, values[field]);
+		type.invoke(type.commit, event);
+	}
+
+	/**
+	 * Returns the values of the event's fields in the order of the type's fields.
+	 *
+	 * @return The values
+	 */
+	protected abstract Object[] getValues();
+
+	/**
+	 * An event type with it's name, label, category, description and fields.
+	 */
+	public static final class Type {
+
+		private final Object factory;
+		private final Method newEvent;
+		private final Method begin;
+		private final Method shouldCommit;
+		private final Method set;
+		private final Method commit;
+
+		/**
+		 * Creates and registers an event type. The stack traces of the events aren't recorded.
+		 *
+		 * @param name The unique name of the type
+		 * @param label The label of the type
+		 * @param category The category path of the type
+		 * @param description The description of the type
+		 * @param fields The fields of the events
+		 */
+		public Type(String name, String label, String[] category, String description, Field... fields) {
+			Object factory = null;
+			Method newEvent = null;
+			Method begin = null;
+			Method shouldCommit = null;
+			Method set = null;
+			Method commit = null;
+
+			try {
+				Class<?> eventClass = Class.forName("jdk.jfr.Event");
+				Class<?> factoryClass = Class.forName("jdk.jfr.EventFactory");
+
+				List<Object> annotations = new ArrayList<>();
+				annotations.add(annotation("jdk.jfr.Name", name));
+				annotations.add(annotation("jdk.jfr.Label", label));
+				annotations.add(annotation("jdk.jfr.Category", category));
+				annotations.add(annotation("jdk.jfr.Description", description));
+				annotations.add(annotation("jdk.jfr.StackTrace", false));
+
+				List<Object> descriptors = new ArrayList<>(fields.length);
+				for (Field field : fields) descriptors.add(field.createDescriptor());
+
+				factory = factoryClass.getMethod("create", List.class, List.class).invoke(null, annotations, descriptors);
+				newEvent = factoryClass.getMethod("newEvent");
+				begin = eventClass.getMethod("begin");
+				shouldCommit = eventClass.getMethod("shouldCommit");
+				set = eventClass.getMethod("set", int.class, Object.class);
+				commit = eventClass.getMethod("commit");
+			} catch (ReflectiveOperationException | RuntimeException | LinkageError e) {
+				// The flight recorder isn't available, the events are disabled
+				factory = null;
+			}
+
+			this.factory = factory;
+			this.newEvent = newEvent;
+			this.begin = begin;
+			this.shouldCommit = shouldCommit;
+			this.set = set;
+			this.commit = commit;
+		}
+
+		private Object newEvent() {
+			return factory != null ? invoke(newEvent, factory) : null;
+		}
+
+		private Object invoke(Method method, Object target, Object... arguments) {
+			try {
+				return method.invoke(target, arguments);
+			} catch (IllegalAccessException e) {
+				throw new IllegalStateException(e);
+			} catch (InvocationTargetException e) {
+				Throwable cause = e.getCause();
+				if (cause instanceof RuntimeException) throw (RuntimeException) cause;
+				if (cause instanceof Error) throw (Error) cause;
+				throw new IllegalStateException(cause);
+			}
+		}
+	}
+
+	/**
+	 * A field of an event type.
+	 */
+	public static final class Field {
+
+		private final Class<?> type;
+		private final String name;
+		private final String label;
+		private final String description;
+		private final boolean dataAmount;
+
+		/**
+		 * Creates a field.
+		 *
+		 * @param type The type of the field (a primitive or a string)
+		 * @param name The name of the field
+		 * @param label The label of the field
+		 */
+		public Field(Class<?> type, String name, String label) {
+			this(type, name, label, null, false);
+		}
+
+		/**
+		 * Creates a field.
+		 *
+		 * @param type The type of the field (a primitive or a string)
+		 * @param name The name of the field
+		 * @param label The label of the field
+		 * @param description The description of the field (it can be null)
+		 * @param dataAmount Whether or not the field is a number of bytes
+		 */
+		public Field(Class<?> type, String name, String label, String description, boolean dataAmount) {
+			if (type == null) throw new NullPointerException("Type can't be null.");
+			if (name == null) throw new NullPointerException("Name can't be null.");
+			if (label == null) throw new NullPointerException("Label can't be null.");
+
+			this.type = type;
+			this.name = name;
+			this.label = label;
+			this.description = description;
+			this.dataAmount = dataAmount;
+		}
+
+		/**
+		 * Creates the jdk.jfr.ValueDescriptor of the field.
+		 *
+		 * @return The value descriptor
+		 * @throws ReflectiveOperationException If the flight recorder isn't available
+		 */
+		private Object createDescriptor() throws ReflectiveOperationException {
+			List<Object> annotations = new ArrayList<>();
+			annotations.add(annotation("jdk.jfr.Label", label));
+			if (description != null) annotations.add(annotation("jdk.jfr.Description", description));
+			if (dataAmount) annotations.add(annotation("jdk.jfr.DataAmount", "BYTES"));
+
+			Constructor<?> constructor = Class.forName("jdk.jfr.ValueDescriptor").getConstructor(Class.class, String.class, List.class);
+			return constructor.newInstance(type, name, Collections.unmodifiableList(annotations));
+		}
+	}
+
+	/**
+	 * Creates a jdk.jfr.AnnotationElement of an annotation with a single value.
+	 *
+	 * @param annotation The annotation's class name
+	 * @param value The annotation's value
+	 * @return The annotation element
+	 * @throws ReflectiveOperationException If the flight recorder isn't available
+	 */
+	private static Object annotation(String annotation, Object value) throws ReflectiveOperationException {
+		Class<?> annotationClass = Class.forName(annotation);
+		Constructor<?> constructor = Class.forName("jdk.jfr.AnnotationElement").getConstructor(Class.class, Object.class);
+		return constructor.newInstance(annotationClass, value);
+	}
+}
@@ -0,0 +1,32 @@
+package com.madebyaron.genai.metrics;
+
+/**
+ * A flight recorder event spanning a generation of the host
+ * from the start of it's evaluation to the end of the breeding.
+ */
+public final class GenerationEvent extends FlightEvent {
+
+	private static final Type TYPE = new Type(
+			"com.madebyaron.genai.Generation", "Generation",
+			new String[]{"GenAI", "Host"},
+			"A generation from the start of it's evaluation to the end of the breeding",
+			new Field(int.class, "generation", "Generation"),
+			new Field(int.class, "networkCount", "Networks"),
+			new Field(int.class, "dispatchedCount", "Dispatched Networks", "The networks sent to the server, the rest had a known or cached evaluation", false),
+			new Field(boolean.class, "steadyState", "Steady State")
+	);
+
+	public int generation;
+	public int networkCount;
+	public int dispatchedCount;
+	public boolean steadyState;
+
+	public GenerationEvent() {
+		super(TYPE);
+	}
+
+	@Override
+	protected Object[] getValues() {
+		return new Object[]{generation, networkCount, dispatchedCount, steadyState};
+	}
+}
@@ -0,0 +1,133 @@
+package com.madebyaron.genai.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A histogram of durations in nanoseconds with log-linear buckets (like an HDR histogram).
+ * Every power of two is split into 32 buckets, so the quantiles are within about 3% of the
+ * recorded values while recording is a single atomic increment without any allocation.
+ */
+public final class Histogram {
+
+	private static final int SUB_BUCKET_BITS = 5;
+	private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+	private static final int BUCKET_COUNT = (64 - SUB_BUCKET_BITS) * SUB_BUCKET_COUNT;
+
+	private final AtomicLongArray buckets = new AtomicLongArray(BUCKET_COUNT);
+	private final AtomicLong count = new AtomicLong();
+	private final AtomicLong sum = new AtomicLong();
+	private final AtomicLong max = new AtomicLong();
+
+	Histogram() {
+
+	}
+
+	/**
+	 * Records a duration.
+	 *
+	 * @param nanos The duration in nanoseconds (negative durations are recorded as 0)
+	 */
+	public void record(long nanos) {
+		if (nanos < 0) nanos = 0;
+
+		buckets.incrementAndGet(getBucket(nanos));
+		count.incrementAndGet();
+		sum.addAndGet(nanos);
+
+		long max;
+		do {
+			max = this.max.get();
+		} while (nanos > max && !this.max.compareAndSet(max, nanos));
+	}
+
+	/**
+	 * Returns the number of recorded durations.
+	 *
+	 * @return The count
+	 */
+	public long getCount() {
+		return count.get();
+	}
+
+	/**
+	 * Returns the sum of the recorded durations.
+	 *
+	 * @return The sum in nanoseconds
+	 */
+	public long getSum() {
+		return sum.get();
+	}
+
+	/**
+	 * Returns the longest recorded duration.
+	 *
+	 * @return The maximum in nanoseconds
+	 */
+	public long getMax() {
+		return max.get();
+	}
+
+	/**
+	 * Returns the average of the recorded durations.
+	 *
+	 * @return The mean in nanoseconds or 0 if nothing has been recorded
+	 */
+	public double getMean() {
+		long count = this.count.get();
+		return count == 0 ? 0 : (double) sum.get() / count;
+	}
+
+	/**
+	 * Returns the duration that the given ratio of the recorded durations doesn't exceed.
+	 * As the recording isn't stopped, it's only an estimate while other threads are recording.
+	 *
+	 * @param quantile The quantile (0 = the shortest, 1 = the longest)
+	 * @return The quantile in nanoseconds or 0 if nothing has been recorded
+	 */
+	public long getQuantile(double quantile) {
+		if (quantile < 0 || quantile > 1) throw new IllegalArgumentException("Quantile out of bounds.");
+
+		long count = 0;
+		for (int bucket = 0; bucket < BUCKET_COUNT; bucket++) count += buckets.get(bucket);
+		if (count == 0) return 0;
+
+		long rank = Math.max(1, (long) Math.ceil(quantile * count));
+		long seen = 0;
+		for (int bucket = 0; bucket < BUCKET_COUNT; bucket++) {
+			seen += buckets.get(bucket);
+			if (seen >= rank) return Math.min(getBucketMiddle(bucket), max.get());
+		}
+		return max.get();
+	}
+
+	/**
+	 * Returns the bucket of a duration. The durations below 32 have their own buckets,
+	 * the rest are bucketed by their highest bit and the following 5 bits.
+	 *
+	 * @param nanos The duration
+	 * @return The bucket's index
+	 */
+	private static int getBucket(long nanos) {
+		if (nanos < SUB_BUCKET_COUNT) return (int) nanos;
+
+		int exponent = 63 - Long.numberOfLeadingZeros(nanos);
+		int subBucket = (int) (nanos >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKET_COUNT - 1);
+		return ((exponent - SUB_BUCKET_BITS + 1) << SUB_BUCKET_BITS) | subBucket;
+	}
+
+	/**
+	 * Returns the middle of the range of durations in a bucket.
+	 *
+	 * @param bucket The bucket's index
+	 * @return The middle duration
+	 */
+	private static long getBucketMiddle(int bucket) {
+		if (bucket < SUB_BUCKET_COUNT) return bucket;
+
+		int exponent = (bucket >>> SUB_BUCKET_BITS) + SUB_BUCKET_BITS - 1;
+		long subBucket = bucket & (SUB_BUCKET_COUNT - 1);
+		long lowest = (1L << exponent) | (subBucket << (exponent - SUB_BUCKET_BITS));
+		return lowest + (1L << (exponent - SUB_BUCKET_BITS)) / 2;
+	}
+}
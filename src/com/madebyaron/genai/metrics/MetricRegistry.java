@@ -0,0 +1,242 @@
+package com.madebyaron.genai.metrics;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.DoubleSupplier;
+
+/**
+ * This class is a named collection of counters, gauges and histograms.
+ * The metrics are identified by their name and their labels (e.g. the address of a client),
+ * and they can be written in the plain text format scraped by the common monitoring tools.
+ * The histograms are written as summaries in seconds.
+ */
+public final class MetricRegistry {
+
+	private static final MetricRegistry DEFAULT = new MetricRegistry();
+
+	private static final double[] QUANTILES = {0.5, 0.9, 0.99, 1};
+
+	private final Map<String, Counter> counters = new TreeMap<>();
+	private final Map<String, DoubleSupplier> gauges = new TreeMap<>();
+	private final Map<String, Histogram> histograms = new TreeMap<>();
+
+	/**
+	 * Returns the registry every component of this process reports to.
+	 * The garbage collection metrics of the JVM are registered in it.
+	 *
+	 * @return The default registry
+	 */
+	public static MetricRegistry getDefault() {
+		return DEFAULT;
+	}
+
+	static {
+		DEFAULT.gauge("jvm_gc_collections_total", () -> getGarbageCollectionCount());
+		DEFAULT.gauge("jvm_gc_pause_seconds_total", () -> getGarbageCollectionTime() / 1e9);
+		DEFAULT.gauge("jvm_heap_used_bytes", () -> {
+			Runtime runtime = Runtime.getRuntime();
+			return runtime.totalMemory() - runtime.freeMemory();
+		});
+	}
+
+	/**
+	 * Returns the total time the garbage collectors of the JVM have spent collecting.
+	 * Most of the collectors stop the application while collecting, so it approximates the pauses.
+	 *
+	 * @return The collection time in nanoseconds
+	 */
+	public static long getGarbageCollectionTime() {
+		long time = 0;
+		for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+			long collectionTime = collector.getCollectionTime();
+			if (collectionTime > 0) time += collectionTime;
+		}
+		return time * 1_000_000;
+	}
+
+	/**
+	 * Returns the number of collections of the garbage collectors of the JVM.
+	 *
+	 * @return The collection count
+	 */
+	public static long getGarbageCollectionCount() {
+		long count = 0;
+		for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+			long collectionCount = collector.getCollectionCount();
+			if (collectionCount > 0) count += collectionCount;
+		}
+		return count;
+	}
+
+	/**
+	 * Returns the counter with the given name and labels. It's created if it doesn't exist.
+	 *
+	 * @param name The counter's name
+	 * @param labels The label names and values in pairs
+	 * @return The counter
+	 */
+	public Counter counter(String name, String... labels) {
+		String key = getKey(name, labels);
+		synchronized (counters) {
+			return counters.computeIfAbsent(key, k -> new Counter());
+		}
+	}
+
+	/**
+	 * Returns the histogram with the given name and labels. It's created if it doesn't exist.
+	 *
+	 * @param name The histogram's name
+	 * @param labels The label names and values in pairs
+	 * @return The histogram
+	 */
+	public Histogram histogram(String name, String... labels) {
+		String key = getKey(name, labels);
+		synchronized (histograms) {
+			return histograms.computeIfAbsent(key, k -> new Histogram());
+		}
+	}
+
+	/**
+	 * Registers a gauge that's value is read when the metrics are written.
+	 * A previously registered gauge with the same name and labels is replaced.
+	 *
+	 * @param name The gauge's name
+	 * @param gauge The function returning the gauge's current value
+	 * @param labels The label names and values in pairs
+	 */
+	public void gauge(String name, DoubleSupplier gauge, String... labels) {
+		if (gauge == null) throw new NullPointerException("Gauge can't be null.");
+
+		String key = getKey(name, labels);
+		synchronized (gauges) {
+			gauges.put(key, gauge);
+		}
+	}
+
+	/**
+	 * Removes every metric with the given name and labels.
+	 *
+	 * @param name The metric's name
+	 * @param labels The label names and values in pairs
+	 */
+	public void remove(String name, String... labels) {
+		String key = getKey(name, labels);
+		synchronized (counters) {
+			counters.remove(key);
+		}
+		synchronized (gauges) {
+			gauges.remove(key);
+		}
+		synchronized (histograms) {
+			histograms.remove(key);
+		}
+	}
+
+	/**
+	 * Writes every metric in the plain text exposition format.
+	 *
+	 * @param writer The writer
+	 * @throws IOException Any exception thrown by the writer
+	 */
+	public void write(Writer writer) throws IOException {
+		List<Map.Entry<String, Counter>> counters;
+		List<Map.Entry<String, DoubleSupplier>> gauges;
+		List<Map.Entry<String, Histogram>> histograms;
+		synchronized (this.counters) {
+			counters = new ArrayList<>(this.counters.entrySet());
+		}
+		synchronized (this.gauges) {
+			gauges = new ArrayList<>(this.gauges.entrySet());
+		}
+		synchronized (this.histograms) {
+			histograms = new ArrayList<>(this.histograms.entrySet());
+		}
+
+		String type = null;
+		for (Map.Entry<String, Counter> counter : counters) {
+			type = writeType(writer, counter.getKey(), "counter", type);
+			writer.write(counter.getKey() + " " + counter.getValue().get() + "\n");
+		}
+
+		type = null;
+		for (Map.Entry<String, DoubleSupplier> gauge : gauges) {
+			type = writeType(writer, gauge.getKey(), "gauge", type);
+			writer.write(gauge.getKey() + " " + format(gauge.getValue().getAsDouble()) + "\n");
+		}
+
+		type = null;
+		for (Map.Entry<String, Histogram> histogram : histograms) {
+			type = writeType(writer, histogram.getKey(), "summary", type);
+
+			String key = histogram.getKey();
+			int labelStart = key.indexOf('{');
+			String name = labelStart < 0 ? key : key.substring(0, labelStart);
+			String labels = labelStart < 0 ? "" : key.substring(labelStart + 1, key.length() - 1);
+
+			Histogram value = histogram.getValue();
+			for (double quantile : QUANTILES) {
+				writer.write(name + "{" + labels + (labels.isEmpty() ? "" : ",") +
+						"quantile=\"" + format(quantile) + "\"} " + format(value.getQuantile(quantile) / 1e9) + "\n");
+			}
+			writer.write(name + "_sum" + (labels.isEmpty() ? "" : "{" + labels + "}") + " " + format(value.getSum() / 1e9) + "\n");
+			writer.write(name + "_count" + (labels.isEmpty() ? "" : "{" + labels + "}") + " " + value.getCount() + "\n");
+		}
+	}
+
+	/**
+	 * Writes the type line of a metric unless it has already been written for the metric's name.
+	 *
+	 * @param writer The writer
+	 * @param key The metric's name and labels
+	 * @param type The metric's type
+	 * @param previousName The name of the previously written metric
+	 * @return The metric's name
+	 * @throws IOException Any exception thrown by the writer
+	 */
+	private static String writeType(Writer writer, String key, String type, String previousName) throws IOException {
+		int labelStart = key.indexOf('{');
+		String name = labelStart < 0 ? key : key.substring(0, labelStart);
+		if (!name.equals(previousName)) writer.write("# TYPE " + name + " " + type + "\n");
+		return name;
+	}
+
+	/**
+	 * Formats a value the way the scrapers parse it.
+	 *
+	 * @param value The value
+	 * @return The formatted value
+	 */
+	private static String format(double value) {
+		if (Double.isInfinite(value)) return value > 0 ? "+Inf" : "-Inf";
+		if (value == (long) value) return Long.toString((long) value);
+		return Double.toString(value);
+	}
+
+	/**
+	 * Returns the key of a metric made of it's name and labels.
+	 *
+	 * @param name The metric's name
+	 * @param labels The label names and values in pairs
+	 * @return The key
+	 */
+	private static String getKey(String name, String... labels) {
+		if (name == null) throw new NullPointerException("Name can't be null.");
+		if (labels.length % 2 != 0) throw new IllegalArgumentException("Labels must be name and value pairs.");
+		if (labels.length == 0) return name;
+
+		StringBuilder key = new StringBuilder(name).append('{');
+		for (int i = 0; i < labels.length; i += 2) {
+			if (i > 0) key.append(',');
+			key.append(labels[i]).append("=\"")
+					.append(labels[i + 1].replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n"))
+					.append('"');
+		}
+		return key.append('}').toString();
+	}
+}
@@ -0,0 +1,33 @@
+package com.madebyaron.genai.metrics;
+
+/**
+ * A flight recorder event spanning the saving or loading of a pool file.
+ */
+public final class PoolFileEvent extends FlightEvent {
+
+	private static final Type TYPE = new Type(
+			"com.madebyaron.genai.PoolFile", "Pool File",
+			new String[]{"GenAI", "Pool"},
+			"The saving or loading of a pool file",
+			new Field(String.class, "path", "Path"),
+			new Field(boolean.class, "saving", "Saving", "True if the pool was saved, false if it was loaded", false),
+			new Field(int.class, "networkCount", "Networks"),
+			new Field(boolean.class, "compressed", "Compressed"),
+			new Field(long.class, "fileSize", "File Size", null, true)
+	);
+
+	public String path;
+	public boolean saving;
+	public int networkCount;
+	public boolean compressed;
+	public long fileSize;
+
+	public PoolFileEvent() {
+		super(TYPE);
+	}
+
+	@Override
+	protected Object[] getValues() {
+		return new Object[]{path, saving, networkCount, compressed, fileSize};
+	}
+}
@@ -0,0 +1,153 @@
+package com.madebyaron.genai.metrics;
+
+import java.util.Arrays;
+
+/**
+ * A streaming estimate of a few quantiles of a series of values in constant memory,
+ * using the extended P-square algorithm. For every tracked quantile it keeps a marker,
+ * and between two markers (and at both ends) it keeps an other one. The heights of the markers
+ * are adjusted with a piecewise-parabolic fit as the values arrive, so no value has to be stored.
+ * Until there are enough values to place every marker, the quantiles are exact.
+ * Other quantiles are interpolated linearly between the two closest markers.
+ */
+public final class QuantileSketch {
+
+	private final double[] markerQuantiles;
+	private final double[] heights;
+	private final double[] positions;
+	private final double[] desiredPositions;
+
+	private long count = 0;
+
+	/**
+	 * Creates an empty sketch tracking the given quantiles.
+	 *
+	 * @param quantiles The tracked quantiles between 0 and 1 in ascending order
+	 */
+	public QuantileSketch(double... quantiles) {
+		if (quantiles == null) throw new NullPointerException("Quantiles can't be null.");
+		if (quantiles.length == 0) throw new IllegalArgumentException("At least one quantile must be tracked.");
+		for (int i = 0; i < quantiles.length; i++) {
+			if (quantiles[i] <= 0 || quantiles[i] >= 1) throw new IllegalArgumentException("Quantiles must be between 0 and 1.");
+			if (i > 0 && quantiles[i] <= quantiles[i - 1]) throw new IllegalArgumentException("Quantiles must be ascending.");
+		}
+
+		int markerCount = quantiles.length * 2 + 3;
+		markerQuantiles = new double[markerCount];
+		markerQuantiles[markerCount - 1] = 1;
+		for (int i = 0; i < quantiles.length; i++) markerQuantiles[i * 2 + 2] = quantiles[i];
+		for (int i = 1; i < markerCount; i += 2) {
+			markerQuantiles[i] = (markerQuantiles[i - 1] + markerQuantiles[i + 1]) / 2;
+		}
+
+		heights = new double[markerCount];
+		positions = new double[markerCount];
+		desiredPositions = new double[markerCount];
+	}
+
+	/**
+	 * Returns the number of added values.
+	 *
+	 * @return The count
+	 */
+	public long getCount() {
+		return count;
+	}
+
+	/**
+	 * Adds a value to the sketch.
+	 *
+	 * @param value The value
+	 */
+	public void add(double value) {
+		int markerCount = heights.length;
+
+		if (count < markerCount) {
+			heights[(int) count] = value;
+			count++;
+			if (count == markerCount) {
+				Arrays.sort(heights);
+				for (int i = 0; i < markerCount; i++) positions[i] = i + 1;
+			}
+			return;
+		}
+
+		int cell;
+		if (value < heights[0]) {
+			heights[0] = value;
+			cell = 0;
+		} else if (value >= heights[markerCount - 1]) {
+			heights[markerCount - 1] = value;
+			cell = markerCount - 2;
+		} else {
+			cell = 0;
+			while (value >= heights[cell + 1]) cell++;
+		}
+
+		for (int i = cell + 1; i < markerCount; i++) positions[i]++;
+		count++;
+		for (int i = 0; i < markerCount; i++) desiredPositions[i] = (count - 1) * markerQuantiles[i] + 1;
+
+		for (int i = 1; i < markerCount - 1; i++) {
+			double difference = desiredPositions[i] - positions[i];
+			if ((difference >= 1 && positions[i + 1] - positions[i] > 1) ||
+					(difference <= -1 && positions[i - 1] - positions[i] < -1)) {
+				int sign = difference > 0 ? 1 : -1;
+
+				double height = parabolic(i, sign);
+				if (heights[i - 1] < height && height < heights[i + 1]) {
+					heights[i] = height;
+				} else {
+					heights[i] += sign * (heights[i + sign] - heights[i]) / (positions[i + sign] - positions[i]);
+				}
+				positions[i] += sign;
+			}
+		}
+	}
+
+	/**
+	 * Returns the estimate of the given quantile.
+	 *
+	 * @param quantile The quantile between 0 and 1
+	 * @return The estimated value or NaN if no value has been added
+	 */
+	public double getQuantile(double quantile) {
+		if (quantile < 0 || quantile > 1) throw new IllegalArgumentException("Quantile must be between 0 and 1.");
+		if (count == 0) return Double.NaN;
+
+		int markerCount = heights.length;
+		if (count < markerCount) {
+			double[] sorted = Arrays.copyOf(heights, (int) count);
+			Arrays.sort(sorted);
+			return sorted[(int) Math.round(quantile * (sorted.length - 1))];
+		}
+
+		int upper = 1;
+		while (upper < markerCount - 1 && markerQuantiles[upper] < quantile) upper++;
+		int lower = upper - 1;
+
+		double fraction = (quantile - markerQuantiles[lower]) / (markerQuantiles[upper] - markerQuantiles[lower]);
+		return heights[lower] + fraction * (heights[upper] - heights[lower]);
+	}
+
+	/**
+	 * Removes every value from the sketch.
+	 */
+	public void clear() {
+		count = 0;
+	}
+
+	/**
+	 * Calculates the adjusted height of a marker with the piecewise-parabolic formula.
+	 *
+	 * @param i The marker's index
+	 * @param sign The direction the marker is moved in
+	 * @return The adjusted height
+	 */
+	private double parabolic(int i, int sign) {
+		return heights[i] + sign / (positions[i + 1] - positions[i - 1]) * (
+				(positions[i] - positions[i - 1] + sign) * (heights[i + 1] - heights[i]) / (positions[i + 1] - positions[i]) +
+				(positions[i + 1] - positions[i] - sign) * (heights[i] - heights[i - 1]) / (positions[i] - positions[i - 1])
+		);
+	}
+}
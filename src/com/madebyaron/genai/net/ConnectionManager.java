@@ -1,18 +1,29 @@
 package com.madebyaron.genai.net;
 
+import com.madebyaron.genai.metrics.Counter;
+import com.madebyaron.genai.metrics.MetricRegistry;
+
 import java.io.EOFException;
+import java.io.FilterInputStream;
+import java.io.FilterOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
+import java.io.OutputStream;
 import java.net.Socket;
 import java.util.LinkedList;
 import java.util.List;
 
 /**
  * A wrapper class that handles a socket's connection.
+ * The bytes sent and received on every connection are counted in the default metric registry.
  */
 public final class ConnectionManager {
 
+	private static final Counter SENT_BYTES = MetricRegistry.getDefault().counter("net_sent_bytes_total");
+	private static final Counter RECEIVED_BYTES = MetricRegistry.getDefault().counter("net_received_bytes_total");
+
 	private final Socket socket;
 
 	private ObjectOutputStream out = null;
@@ -20,6 +31,9 @@ public final class ConnectionManager {
 
 	private boolean connected;
 
+	private volatile long sentBytes = 0;
+	private volatile long receivedBytes = 0;
+
 	private final List<Listener> listeners = new LinkedList<>();
 
 	private IOException disconnectionException = null;
@@ -34,8 +48,8 @@ public final class ConnectionManager {
 		connected = true;
 
 		perform((in, out) -> {
-			this.out = new ObjectOutputStream(socket.getOutputStream());
-			this.in = new ObjectInputStream(socket.getInputStream());
+			this.out = new ObjectOutputStream(new CountingOutputStream(socket.getOutputStream()));
+			this.in = new ObjectInputStream(new CountingInputStream(socket.getInputStream()));
 		});
 	}
 
@@ -50,6 +64,26 @@ public final class ConnectionManager {
 		}
 	}
 
+	/**
+	 * Returns the number of bytes written to the socket.
+	 * It's only exact when read while holding the lock of the writes.
+	 *
+	 * @return The sent bytes
+	 */
+	public long getSentBytes() {
+		return sentBytes;
+	}
+
+	/**
+	 * Returns the number of bytes read from the socket.
+	 * It's only exact when read on the reading thread.
+	 *
+	 * @return The received bytes
+	 */
+	public long getReceivedBytes() {
+		return receivedBytes;
+	}
+
 	/**
 	 * Adds a connection listener to this connection.
 	 *
@@ -128,6 +162,70 @@ public final class ConnectionManager {
 		disconnect(null);
 	}
 
+	/**
+	 * An output stream counting the bytes written to the socket.
+	 */
+	private final class CountingOutputStream extends FilterOutputStream {
+
+		private CountingOutputStream(OutputStream out) {
+			super(out);
+		}
+
+		@Override
+		public void write(int b) throws IOException {
+			out.write(b);
+			sentBytes++;
+			SENT_BYTES.increment();
+		}
+
+		@Override
+		public void write(byte[] b, int off, int len) throws IOException {
+			out.write(b, off, len);
+			sentBytes += len;
+			SENT_BYTES.add(len);
+		}
+	}
+
+	/**
+	 * An input stream counting the bytes read from the socket.
+	 */
+	private final class CountingInputStream extends FilterInputStream {
+
+		private CountingInputStream(InputStream in) {
+			super(in);
+		}
+
+		@Override
+		public int read() throws IOException {
+			int b = in.read();
+			if (b >= 0) {
+				receivedBytes++;
+				RECEIVED_BYTES.increment();
+			}
+			return b;
+		}
+
+		@Override
+		public int read(byte[] b, int off, int len) throws IOException {
+			int count = in.read(b, off, len);
+			if (count > 0) {
+				receivedBytes += count;
+				RECEIVED_BYTES.add(count);
+			}
+			return count;
+		}
+
+		@Override
+		public long skip(long n) throws IOException {
+			long count = in.skip(n);
+			if (count > 0) {
+				receivedBytes += count;
+				RECEIVED_BYTES.add(count);
+			}
+			return count;
+		}
+	}
+
 	/**
 	 * A task that can be performed by a connection manager.
 	 */
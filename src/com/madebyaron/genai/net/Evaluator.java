@@ -0,0 +1,45 @@
+package com.madebyaron.genai.net;
+
+import com.madebyaron.genai.ai.Network;
+
+/**
+ * Something the server can distribute networks to, either a connected client or a local evaluator.
+ */
+public interface Evaluator {
+
+	/**
+	 * Returns the number of pending networks representing the load on the evaluator.
+	 *
+	 * @return The load on the evaluator
+	 */
+	int getLoad();
+
+	/**
+	 * Returns the number of threads the evaluator evaluates on.
+	 *
+	 * @return The thread count
+	 */
+	int getThreadCount();
+
+	/**
+	 * Initiates the evaluation of the given network.
+	 *
+	 * @param network The network to be evaluated
+	 * @param seed The seed the evaluation episodes are derived from
+	 */
+	void evaluate(Network network, long seed);
+
+	/**
+	 * Adds an evaluation listener to this evaluator
+	 *
+	 * @param listener The listener
+	 */
+	void addListener(EvaluatorConnection.Listener listener);
+
+	/**
+	 * Removes an evaluation listener from this evaluator
+	 *
+	 * @param listener The listener
+	 */
+	void removeListener(EvaluatorConnection.Listener listener);
+}
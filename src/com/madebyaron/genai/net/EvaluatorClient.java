@@ -5,8 +5,9 @@ import com.madebyaron.genai.ai.Network;
 import java.io.IOException;
 import java.net.InetAddress;
 import java.net.Socket;
+import java.util.AbstractCollection;
 import java.util.Collection;
-import java.util.Collections;
+import java.util.Iterator;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.LinkedBlockingQueue;
 
@@ -19,41 +20,69 @@ public final class EvaluatorClient {
 
 	private final Socket socket;
 	private final EvaluationHandler handler;
+	private final int threadCount;
 
 	private final ConnectionManager connectionManager;
 
 	private String process;
 
 	private final Thread requestHandlingThread = new Thread(this::handleRequest);
-	private final Thread evaluationHandlingThread = new Thread(this::handleEvaluation);
+	private final Thread[] evaluationHandlingThreads;
 
-	private final BlockingQueue<Network> pendingNetworks = new LinkedBlockingQueue<>();
-	private final BlockingQueue<Long> pendingNetworkIDs = new LinkedBlockingQueue<>();
-	private final Collection<Network> unmodifiablePendingNetworks = Collections.unmodifiableCollection(pendingNetworks);
+	private final BlockingQueue<Request> pendingRequests = new LinkedBlockingQueue<>();
+	private final Collection<Network> unmodifiablePendingNetworks = new PendingNetworks();
 
 	/**
-	 * Creates a client that handles evaluations from a given host.
+	 * Creates a client that handles evaluations from a given host on a single thread.
 	 *
 	 * @param socket The socket connected to a host
 	 * @param handler The handler that handles the network evaluations
 	 */
 	public EvaluatorClient(Socket socket, EvaluationHandler handler) {
+		this(socket, handler, 1);
+	}
+
+	/**
+	 * Creates a client that handles evaluations from a given host on the given number of threads.
+	 * The thread count is sent to the host so it can keep every thread busy.
+	 * The handler is called concurrently if there are more than one threads.
+	 *
+	 * @param socket The socket connected to a host
+	 * @param handler The handler that handles the network evaluations
+	 * @param threadCount The number of evaluating threads
+	 */
+	public EvaluatorClient(Socket socket, EvaluationHandler handler, int threadCount) {
+		if (threadCount < 1) throw new IllegalArgumentException("Thread count must be positive.");
+
 		this.socket = socket;
 		this.handler = handler;
+		this.threadCount = threadCount;
+
+		evaluationHandlingThreads = new Thread[threadCount];
+		for (int i = 0; i < threadCount; i++) {
+			evaluationHandlingThreads[i] = new Thread(this::handleEvaluation);
+		}
 
 		connectionManager = new ConnectionManager(socket);
-		connectionManager.addListener(exception -> evaluationHandlingThread.interrupt());
+		connectionManager.addListener(exception -> {
+			for (Thread thread : evaluationHandlingThreads) {
+				thread.interrupt();
+			}
+		});
 		connectionManager.perform((in, out) -> {
 			socket.setSoTimeout(VALIDATION_TIMEOUT);
 
 			process = in.readUTF();
 			out.writeUTF(process);
+			out.writeInt(threadCount);
 			out.flush();
 
 			socket.setSoTimeout(0);
 
 			requestHandlingThread.start();
-			evaluationHandlingThread.start();
+			for (Thread thread : evaluationHandlingThreads) {
+				thread.start();
+			}
 		});
 	}
 
@@ -84,6 +113,24 @@ public final class EvaluatorClient {
 		return process;
 	}
 
+	/**
+	 * Returns the number of evaluating threads.
+	 *
+	 * @return The thread count
+	 */
+	public int getThreadCount() {
+		return threadCount;
+	}
+
+	/**
+	 * Returns whether or not the client is still connected to the host.
+	 *
+	 * @return The client's connection status
+	 */
+	public boolean isConnected() {
+		return connectionManager.isConnected();
+	}
+
 	/**
 	 * Returns networks waiting to be evaluated.
 	 *
@@ -144,10 +191,10 @@ public final class EvaluatorClient {
 				try {
 					if (in.readByte() == 0) {
 						long networkID = in.readLong();
+						long seed = in.readLong();
 						Network network = (Network) in.readObject();
 
-						pendingNetworks.add(network);
-						pendingNetworkIDs.add(networkID);
+						pendingRequests.add(new Request(networkID, seed, network));
 					} else {
 						String message = in.readUTF();
 						throw new IOException("Server error: " + message);
@@ -166,17 +213,13 @@ public final class EvaluatorClient {
 		while (connectionManager.isConnected()) {
 			connectionManager.perform((in, out) -> {
 				try {
-					Network network;
-					long networkID;
-
-					network = pendingNetworks.take();
-					networkID = pendingNetworkIDs.take();
+					Request request = pendingRequests.take();
 
-					double evaluation = handler.evaluate(network);
+					double evaluation = handler.evaluate(request.network, request.seed);
 
 					synchronized (connectionManager) {
 						out.writeByte(0);
-						out.writeLong(networkID);
+						out.writeLong(request.networkID);
 						out.writeDouble(evaluation);
 						out.flush();
 					}
@@ -189,6 +232,51 @@ public final class EvaluatorClient {
 		}
 	}
 
+	/**
+	 * A network received from the host with the ID it's evaluation is sent back with
+	 * and the seed it's evaluation episodes are derived from.
+	 */
+	private static final class Request {
+
+		private final long networkID;
+		private final long seed;
+		private final Network network;
+
+		private Request(long networkID, long seed, Network network) {
+			this.networkID = networkID;
+			this.seed = seed;
+			this.network = network;
+		}
+	}
+
+	/**
+	 * An unmodifiable view of the networks of the pending requests.
+	 */
+	private final class PendingNetworks extends AbstractCollection<Network> {
+
+		@Override
+		public Iterator<Network> iterator() {
+			Iterator<Request> iterator = pendingRequests.iterator();
+			return new Iterator<Network>() {
+
+				@Override
+				public boolean hasNext() {
+					return iterator.hasNext();
+				}
+
+				@Override
+				public Network next() {
+					return iterator.next().network;
+				}
+			};
+		}
+
+		@Override
+		public int size() {
+			return pendingRequests.size();
+		}
+	}
+
 	/**
 	 * The handler that handles network evaluations
 	 */
@@ -196,12 +284,14 @@ public final class EvaluatorClient {
 
 		/**
 		 * Evaluates the given network.
+		 * The evaluation should only depend on the network and the seed.
 		 *
 		 * @param network The network to be evaluated
+		 * @param seed The seed the evaluation episodes are derived from, received with the network
 		 * @return The given network's evaluation as a double value
 		 * @throws EvaluatorClient.EvaluationException Any exception that happens while evaluating
 		 */
-		double evaluate(Network network) throws EvaluationException;
+		double evaluate(Network network, long seed) throws EvaluationException;
 	}
 
 	/**
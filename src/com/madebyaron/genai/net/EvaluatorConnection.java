@@ -1,28 +1,37 @@
 package com.madebyaron.genai.net;
 
 import com.madebyaron.genai.ai.Network;
+import com.madebyaron.genai.ai.RandomSource;
+import com.madebyaron.genai.metrics.CompletionEvent;
+import com.madebyaron.genai.metrics.DispatchEvent;
 
 import java.io.*;
 import java.net.InetAddress;
 import java.net.Socket;
 import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 /**
  * This is the server side connection of a connected client.
+ * The client can be a relay, which sends the evaluations in batches
+ * and updates it's thread count as it's own clients come and go.
+ * The finished evaluations are passed to the listeners on the connection's own event bus,
+ * so slow listeners don't block the receiving of the evaluations.
  */
-public final class EvaluatorConnection {
+public final class EvaluatorConnection implements Evaluator {
 
 	private static final int VALIDATION_TIMEOUT = 5000;
-	private static final Random RANDOM = new Random();
 
 	private final Socket socket;
 	private final String process;
+	private volatile int threadCount = 1;
 
 	private final ConnectionManager connectionManager;
 
 	private final Thread responseHandlingThread = new Thread(this::handleResponse);
 
-	private final List<Listener> listeners = new LinkedList<>();
+	private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+	private final EventBus eventBus;
 
 	private final Map<Long, Network> pendingNetworks = new HashMap<>();
 	private final Collection<Network> unmodifiablePendingNetworks = Collections.unmodifiableCollection(pendingNetworks.values());
@@ -37,7 +46,10 @@ public final class EvaluatorConnection {
 		this.socket = socket;
 		this.process = process;
 
+		eventBus = new EventBus("EvaluatorConnection " + toString());
+
 		connectionManager = new ConnectionManager(socket);
+		connectionManager.addListener(exception -> eventBus.close());
 		connectionManager.perform((in, out) -> {
 			socket.setSoTimeout(VALIDATION_TIMEOUT);
 
@@ -46,6 +58,10 @@ public final class EvaluatorConnection {
 			if (!in.readUTF().equals(process)) {
 				throw new IOException("Invalid connection");
 			}
+			threadCount = in.readInt();
+			if (threadCount < 1) {
+				throw new IOException("Invalid thread count: " + threadCount);
+			}
 
 			socket.setSoTimeout(0);
 
@@ -80,6 +96,15 @@ public final class EvaluatorConnection {
 		return process;
 	}
 
+	/**
+	 * Returns the number of threads the client evaluates on.
+	 *
+	 * @return The client's thread count
+	 */
+	public int getThreadCount() {
+		return threadCount;
+	}
+
 	/**
 	 * Returns networks waiting to be evaluated.
 	 *
@@ -109,9 +134,7 @@ public final class EvaluatorConnection {
 	 * @param listener The listener
 	 */
 	public void addListener(Listener listener) {
-		synchronized (listeners) {
-			listeners.add(listener);
-		}
+		listeners.add(listener);
 	}
 
 	/**
@@ -120,9 +143,7 @@ public final class EvaluatorConnection {
 	 * @param listener The listener
 	 */
 	public void removeListener(Listener listener) {
-		synchronized (listeners) {
-			listeners.remove(listener);
-		}
+		listeners.remove(listener);
 	}
 
 	/**
@@ -169,16 +190,18 @@ public final class EvaluatorConnection {
 
 	/**
 	 * Initiates the evaluation of the given network.
+	 * The seed is sent with the network, so the client evaluates it on the requested episodes.
 	 *
 	 * @param network The network to be evaluated
+	 * @param seed The seed the evaluation episodes are derived from
 	 */
-	public void evaluate(Network network) {
+	public void evaluate(Network network, long seed) {
 		long networkID;
 
 		synchronized (pendingNetworks) {
 			long uniqueID;
 			do {
-				uniqueID = RANDOM.nextLong();
+				uniqueID = RandomSource.getDefault().current().nextLong();
 			} while (pendingNetworks.containsKey(uniqueID));
 			networkID = uniqueID;
 		}
@@ -187,18 +210,30 @@ public final class EvaluatorConnection {
 			pendingNetworks.put(networkID, network);
 		}
 
-		synchronized (listeners) {
-			for (Listener listener : listeners) {
-				listener.onEvaluationStared(network);
-			}
+		for (Listener listener : listeners) {
+			listener.onEvaluationStared(network);
 		}
 
 		connectionManager.perform((in, out) -> {
 			synchronized (connectionManager) {
+				DispatchEvent event = new DispatchEvent();
+				event.begin();
+				long sentBytes = connectionManager.getSentBytes();
+
 				out.writeByte(0);
 				out.writeLong(networkID);
+				out.writeLong(seed);
 				out.writeObject(network);
+				// Clears both streams' handle tables, so the sent networks aren't kept reachable by them
+				out.reset();
 				out.flush();
+
+				if (event.shouldCommit()) {
+					event.connection = toString();
+					event.networkID = networkID;
+					event.size = connectionManager.getSentBytes() - sentBytes;
+					event.commit();
+				}
 			}
 		});
 	}
@@ -209,20 +244,40 @@ public final class EvaluatorConnection {
 	private void handleResponse() {
 		while (connectionManager.isConnected()) {
 			connectionManager.perform((in, out) -> {
-				if (in.readByte() == 0) {
+				long receivedBytes = connectionManager.getReceivedBytes();
+				byte type = in.readByte();
+				if (type == 0) {
 					long networkID = in.readLong();
 					double evaluation = in.readDouble();
-					Network network;
+					finishEvaluation(networkID, evaluation, connectionManager.getReceivedBytes() - receivedBytes);
+				} else if (type == 2) {
+					int count = in.readInt();
+					if (count < 1 || count > getLoad()) {
+						throw new IOException("Invalid batch size: " + count);
+					}
+					long[] networkIDs = new long[count];
+					double[] evaluations = new double[count];
+					for (int i = 0; i < count; i++) {
+						networkIDs[i] = in.readLong();
+						evaluations[i] = in.readDouble();
+					}
 
-					synchronized (pendingNetworks) {
-						network = pendingNetworks.remove(networkID);
+					long size = connectionManager.getReceivedBytes() - receivedBytes;
+					for (int i = 0; i < count; i++) {
+						finishEvaluation(networkIDs[i], evaluations[i], size);
+					}
+				} else if (type == 3) {
+					int threadCount = in.readInt();
+					if (threadCount < 1) {
+						throw new IOException("Invalid thread count: " + threadCount);
 					}
+					this.threadCount = threadCount;
 
-					synchronized (listeners) {
+					eventBus.post(() -> {
 						for (Listener listener : listeners) {
-							listener.onEvaluationFinished(network, evaluation);
+							listener.onThreadCountChanged(threadCount);
 						}
-					}
+					});
 				} else {
 					String message = in.readUTF();
 					throw new IOException("Client error: " + message);
@@ -231,6 +286,41 @@ public final class EvaluatorConnection {
 		}
 	}
 
+	/**
+	 * Removes a finished network from the pending networks and posts the listeners' notification.
+	 *
+	 * @param networkID The ID the network was sent with
+	 * @param evaluation The network's evaluation
+	 * @param size The size of the message the evaluation arrived in
+	 */
+	private void finishEvaluation(long networkID, double evaluation, long size) {
+		CompletionEvent event = new CompletionEvent();
+		if (event.shouldCommit()) {
+			event.connection = toString();
+			event.networkID = networkID;
+			event.evaluation = evaluation;
+			event.size = size;
+			event.commit();
+		}
+
+		Network network;
+
+		synchronized (pendingNetworks) {
+			network = pendingNetworks.remove(networkID);
+		}
+
+		eventBus.post(() -> {
+			for (Listener listener : listeners) {
+				listener.onEvaluationFinished(network, evaluation);
+			}
+		});
+	}
+
+	@Override
+	public String toString() {
+		return socket.getInetAddress().getHostAddress() + ":" + socket.getPort();
+	}
+
 	/**
 	 * A listener that is listening for the start and finish of networks' evaluation.
 	 */
@@ -250,5 +340,25 @@ public final class EvaluatorConnection {
 		 * @param evaluation The network's evaluation
 		 */
 		void onEvaluationFinished(Network network, double evaluation);
+
+		/**
+		 * Called when a network's evaluation fails with an exception.
+		 * The network isn't evaluated, the failing evaluator stops receiving networks like a disconnected client.
+		 *
+		 * @param network The network
+		 * @param exception The exception the evaluation failed with
+		 */
+		default void onEvaluationFailed(Network network, Exception exception) {
+
+		}
+
+		/**
+		 * Called when the number of the evaluator's threads changes (e.g. a relay's clients change).
+		 *
+		 * @param threadCount The new thread count
+		 */
+		default void onThreadCountChanged(int threadCount) {
+
+		}
 	}
 }
@@ -0,0 +1,626 @@
+package com.madebyaron.genai.net;
+
+import com.madebyaron.genai.ai.Checkpointer;
+import com.madebyaron.genai.ai.FitnessCache;
+import com.madebyaron.genai.ai.Network;
+import com.madebyaron.genai.ai.NetworkRecycler;
+import com.madebyaron.genai.ai.Pool;
+import com.madebyaron.genai.metrics.GenerationEvent;
+import com.madebyaron.genai.metrics.Histogram;
+import com.madebyaron.genai.metrics.MetricRegistry;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The host that evolves a pool by evaluating it's generations on an evaluator server.
+ * It runs the generation loop: every network of the pool is evaluated, then the next
+ * generation is calculated and evaluated again until it's stopped.
+ * The generations are calculated on the host's own thread, not on the networking threads.
+ * In steady state mode there is no barrier between the generations: every finished
+ * evaluation replaces a poorly performing network with a child that's dispatched right away.
+ * If a fitness cache is set, the networks with a cached evaluation aren't sent to the server.
+ * The wall time of every generation is reported to the default metric registry
+ * split into evaluation, breeding and garbage collection.
+ */
+public final class EvaluatorHost {
+
+	private static final double DEFAULT_PURGE_RATIO = 0.5;
+
+	private final Pool pool;
+	private final EvaluatorServer server;
+
+	private volatile Checkpointer checkpointer = null;
+	private volatile FitnessCache fitnessCache = null;
+	private volatile double purgeRatio = DEFAULT_PURGE_RATIO;
+	private volatile int generationLimit = 0;
+	private volatile boolean steadyState = false;
+
+	private final Object evaluationLock = new Object();
+	private Pool.Evaluation evaluation = null;
+	private Pool.SteadyState state = null;
+	private boolean evaluating = false;
+	private boolean evaluationStopped = false;
+	private int generations = 0;
+	private long generationStartTime = 0;
+	private long generationStartGarbageCollectionTime = 0;
+	private GenerationEvent generationEvent = null;
+
+	private final MetricRegistry metrics = MetricRegistry.getDefault();
+	private final Histogram generationTime = metrics.histogram("generation_seconds");
+	private final Histogram evaluationTime = metrics.histogram("generation_evaluation_seconds");
+	private final Histogram breedingTime = metrics.histogram("generation_breeding_seconds");
+	private final Histogram garbageCollectionTime = metrics.histogram("generation_gc_seconds");
+
+	private volatile long lastEvaluationTime = 0;
+	private volatile long lastBreedingTime = 0;
+	private volatile long lastGarbageCollectionTime = 0;
+
+	private final AtomicLong evaluationCount = new AtomicLong();
+	private final Map<Network, Long> evaluationSeeds = new HashMap<>();
+
+	private final List<Listener> listeners = new LinkedList<>();
+
+	private final ExecutorService generationExecutor = Executors.newSingleThreadExecutor(runnable -> {
+		Thread thread = new Thread(runnable, "EvaluatorHost");
+		thread.setDaemon(true);
+		return thread;
+	});
+
+	/**
+	 * Creates a host evolving the given pool on the given server.
+	 *
+	 * @param pool The evolved pool
+	 * @param server The server evaluating the networks
+	 */
+	public EvaluatorHost(Pool pool, EvaluatorServer server) {
+		if (pool == null) throw new NullPointerException("Pool can't be null.");
+		if (server == null) throw new NullPointerException("Server can't be null.");
+
+		this.pool = pool;
+		this.server = server;
+
+		server.addEvaluationListener(new EvaluationListener());
+
+		NetworkRecycler recycler = pool.getRecycler();
+		metrics.gauge("pool_recycled_blocks_total", recycler::getRecycledCount);
+		metrics.gauge("pool_allocated_blocks_total", recycler::getAllocatedCount);
+		metrics.gauge("pool_free_blocks", recycler::getFreeCount);
+	}
+
+	/**
+	 * Returns the evolved pool.
+	 *
+	 * @return The pool
+	 */
+	public Pool getPool() {
+		return pool;
+	}
+
+	/**
+	 * Returns the server evaluating the networks.
+	 *
+	 * @return The server
+	 */
+	public EvaluatorServer getServer() {
+		return server;
+	}
+
+	/**
+	 * Sets the checkpointer that is notified after every generation.
+	 *
+	 * @param checkpointer The checkpointer (it can be null)
+	 */
+	public void setCheckpointer(Checkpointer checkpointer) {
+		this.checkpointer = checkpointer;
+	}
+
+	/**
+	 * Sets the cache the evaluations are looked up in before they're sent to the server.
+	 * The cache isn't used if the pool's process is stochastic.
+	 *
+	 * @param fitnessCache The fitness cache (it can be null)
+	 */
+	public void setFitnessCache(FitnessCache fitnessCache) {
+		this.fitnessCache = fitnessCache;
+
+		if (fitnessCache != null) {
+			metrics.gauge("fitness_cache_hits_total", fitnessCache::getHitCount);
+			metrics.gauge("fitness_cache_misses_total", fitnessCache::getMissCount);
+			metrics.gauge("fitness_cache_size", fitnessCache::getSize);
+		} else {
+			metrics.remove("fitness_cache_hits_total");
+			metrics.remove("fitness_cache_misses_total");
+			metrics.remove("fitness_cache_size");
+		}
+	}
+
+	/**
+	 * Returns the cache the evaluations are looked up in.
+	 *
+	 * @return The fitness cache or null if there is none
+	 */
+	public FitnessCache getFitnessCache() {
+		return fitnessCache;
+	}
+
+	/**
+	 * Sets the ratio of the networks removed in every generation.
+	 *
+	 * @param purgeRatio The purge ratio (0 = none, 1 = all)
+	 */
+	public void setPurgeRatio(double purgeRatio) {
+		if (purgeRatio < 0 || purgeRatio > 1) throw new IllegalArgumentException("Purge ratio out of bounds.");
+
+		this.purgeRatio = purgeRatio;
+	}
+
+	/**
+	 * Sets the number of generations after which the host stops.
+	 *
+	 * @param generationLimit The number of generations (0 = unlimited)
+	 */
+	public void setGenerationLimit(int generationLimit) {
+		if (generationLimit < 0) throw new IllegalArgumentException("Generation limit can't be negative.");
+
+		this.generationLimit = generationLimit;
+	}
+
+	/**
+	 * Sets whether or not the pool should evolve in steady state mode.
+	 * The purge ratio isn't used in steady state mode. It takes effect on the next start.
+	 *
+	 * @param steadyState True for steady state mode, false for generational mode
+	 */
+	public void setSteadyState(boolean steadyState) {
+		this.steadyState = steadyState;
+	}
+
+	/**
+	 * Returns whether or not a generation is being evaluated.
+	 *
+	 * @return True if the host is evaluating
+	 */
+	public boolean isEvaluating() {
+		synchronized (evaluationLock) {
+			return evaluating;
+		}
+	}
+
+	/**
+	 * Returns the number of finished evaluations since the host was created.
+	 *
+	 * @return The evaluation count
+	 */
+	public long getEvaluationCount() {
+		return evaluationCount.get();
+	}
+
+	/**
+	 * Returns the time the evaluation of the last generation took.
+	 * In steady state mode it's the wall time of the last generation.
+	 *
+	 * @return The evaluation time in nanoseconds
+	 */
+	public long getLastEvaluationTime() {
+		return lastEvaluationTime;
+	}
+
+	/**
+	 * Returns the time the breeding of the last generation took.
+	 * In steady state mode the breeding is part of the evaluation, so it's 0.
+	 *
+	 * @return The breeding time in nanoseconds
+	 */
+	public long getLastBreedingTime() {
+		return lastBreedingTime;
+	}
+
+	/**
+	 * Returns the time the garbage collectors spent collecting during the last generation.
+	 *
+	 * @return The garbage collection time in nanoseconds
+	 */
+	public long getLastGarbageCollectionTime() {
+		return lastGarbageCollectionTime;
+	}
+
+	/**
+	 * Adds a host listener to this host.
+	 *
+	 * @param listener The listener
+	 */
+	public void addListener(Listener listener) {
+		synchronized (listeners) {
+			listeners.add(listener);
+		}
+	}
+
+	/**
+	 * Removes a host listener from this host.
+	 *
+	 * @param listener The listener
+	 */
+	public void removeListener(Listener listener) {
+		synchronized (listeners) {
+			listeners.remove(listener);
+		}
+	}
+
+	/**
+	 * Starts the evaluation if it's not running already.
+	 * Every network of the generation is evaluated on the generation's episodes.
+	 * Networks with a cached evaluation on those episodes aren't sent to the server.
+	 */
+	public void start() {
+		List<Network> networks = new ArrayList<>();
+		Pool.Evaluation finishedEvaluation = null;
+		long seed;
+
+		synchronized (evaluationLock) {
+			evaluationStopped = false;
+			if (evaluating) return;
+
+			evaluating = true;
+			generationStartTime = System.nanoTime();
+			generationStartGarbageCollectionTime = MetricRegistry.getGarbageCollectionTime();
+			generationEvent = new GenerationEvent();
+			generationEvent.begin();
+			seed = pool.getEvaluationSeed(pool.getGeneration());
+			if (steadyState) {
+				state = pool.createSteadyState();
+				networks.addAll(pool.getNetworks());
+			} else {
+				evaluation = pool.createEvaluation();
+				for (Network network : pool.getNetworks()) {
+					Double cachedEvaluation = getCachedEvaluation(network, seed);
+					if (cachedEvaluation != null) {
+						evaluation.setEvaluation(network, cachedEvaluation);
+					} else {
+						networks.add(network);
+					}
+				}
+
+				if (evaluation.isDone()) {
+					finishedEvaluation = evaluation;
+					evaluation = null;
+				}
+			}
+			generationEvent.networkCount = pool.getNetworks().size();
+			generationEvent.dispatchedCount = networks.size();
+		}
+
+		if (finishedEvaluation != null) {
+			Pool.Evaluation doneEvaluation = finishedEvaluation;
+			generationExecutor.execute(() -> onEvaluationDone(doneEvaluation));
+			return;
+		}
+
+		for (Network network : networks) {
+			if (steadyState) {
+				Double cachedEvaluation = getCachedEvaluation(network, seed);
+				if (cachedEvaluation != null) {
+					onSteadyStateEvaluationFinished(network, cachedEvaluation);
+					continue;
+				}
+			}
+			dispatch(network, seed);
+		}
+	}
+
+	/**
+	 * Stops the evaluation but only after finishing the current generation.
+	 */
+	public void stop() {
+		synchronized (evaluationLock) {
+			if (evaluating) evaluationStopped = true;
+		}
+	}
+
+	/**
+	 * Stops the host's thread. The server isn't closed.
+	 */
+	public void close() {
+		stop();
+		generationExecutor.shutdown();
+
+		metrics.remove("pool_recycled_blocks_total");
+		metrics.remove("pool_allocated_blocks_total");
+		metrics.remove("pool_free_blocks");
+	}
+
+	/**
+	 * Sends a network to the server and remembers the seed it's evaluated with,
+	 * so it's evaluation is cached with the same seed.
+	 *
+	 * @param network The network
+	 * @param seed The seed the evaluation episodes are derived from
+	 */
+	private void dispatch(Network network, long seed) {
+		synchronized (evaluationSeeds) {
+			evaluationSeeds.put(network, seed);
+		}
+		server.evaluate(network, seed);
+	}
+
+	/**
+	 * Called on the host's thread when every network of the generation has been evaluated.
+	 * Calculates the next generation and starts it's evaluation unless the host has been stopped.
+	 *
+	 * @param evaluation The finished evaluation
+	 */
+	private void onEvaluationDone(Pool.Evaluation evaluation) {
+		long startTime;
+		long startGarbageCollectionTime;
+		GenerationEvent event;
+		synchronized (evaluationLock) {
+			startTime = generationStartTime;
+			startGarbageCollectionTime = generationStartGarbageCollectionTime;
+			event = generationEvent;
+			generationEvent = null;
+		}
+
+		long evaluationEndTime = System.nanoTime();
+		int generation = pool.getGeneration();
+		pool.generation(evaluation, purgeRatio);
+		long breedingEndTime = System.nanoTime();
+
+		lastEvaluationTime = evaluationEndTime - startTime;
+		lastBreedingTime = breedingEndTime - evaluationEndTime;
+		lastGarbageCollectionTime = MetricRegistry.getGarbageCollectionTime() - startGarbageCollectionTime;
+		generationTime.record(breedingEndTime - startTime);
+		evaluationTime.record(lastEvaluationTime);
+		breedingTime.record(lastBreedingTime);
+		garbageCollectionTime.record(lastGarbageCollectionTime);
+
+		if (event != null && event.shouldCommit()) {
+			event.generation = generation;
+			event.steadyState = false;
+			event.commit();
+		}
+
+		Checkpointer checkpointer = this.checkpointer;
+		if (checkpointer != null) checkpointer.onGeneration(pool);
+
+		boolean stopped;
+		synchronized (evaluationLock) {
+			generations++;
+			evaluating = false;
+			stopped = evaluationStopped || (generationLimit > 0 && generations >= generationLimit);
+			evaluationStopped = false;
+		}
+
+		synchronized (listeners) {
+			for (Listener listener : listeners) {
+				listener.onGeneration(generation, evaluation);
+			}
+		}
+
+		if (stopped) {
+			synchronized (listeners) {
+				for (Listener listener : listeners) {
+					listener.onStopped();
+				}
+			}
+		} else {
+			start();
+		}
+	}
+
+	/**
+	 * Called on the host's thread when the steady state has completed a generation.
+	 * Stops the evaluation if the host has been stopped or the generation limit has been reached.
+	 *
+	 * @param generation The completed generation
+	 * @param state The steady state
+	 */
+	private void onSteadyStateGeneration(int generation, Pool.SteadyState state) {
+		long time = System.nanoTime();
+		long garbageCollectionTime = MetricRegistry.getGarbageCollectionTime();
+		long startTime;
+		long startGarbageCollectionTime;
+		GenerationEvent event;
+		synchronized (evaluationLock) {
+			startTime = generationStartTime;
+			startGarbageCollectionTime = generationStartGarbageCollectionTime;
+			generationStartTime = time;
+			generationStartGarbageCollectionTime = garbageCollectionTime;
+
+			event = generationEvent;
+			generationEvent = new GenerationEvent();
+			generationEvent.begin();
+		}
+
+		if (event != null && event.shouldCommit()) {
+			event.generation = generation;
+			event.networkCount = pool.getNetworks().size();
+			event.dispatchedCount = pool.getNetworks().size();
+			event.steadyState = true;
+			event.commit();
+		}
+
+		lastEvaluationTime = time - startTime;
+		lastBreedingTime = 0;
+		lastGarbageCollectionTime = garbageCollectionTime - startGarbageCollectionTime;
+		generationTime.record(lastEvaluationTime);
+		evaluationTime.record(lastEvaluationTime);
+		this.garbageCollectionTime.record(lastGarbageCollectionTime);
+
+		Checkpointer checkpointer = this.checkpointer;
+		if (checkpointer != null) checkpointer.onGeneration(pool);
+
+		boolean stopped;
+		synchronized (evaluationLock) {
+			generations++;
+			stopped = evaluationStopped || (generationLimit > 0 && generations >= generationLimit);
+			if (stopped) {
+				this.state = null;
+				evaluating = false;
+				evaluationStopped = false;
+			}
+		}
+
+		Pool.Evaluation evaluation = state.createEvaluation();
+		synchronized (listeners) {
+			for (Listener listener : listeners) {
+				listener.onGeneration(generation, evaluation);
+			}
+		}
+
+		if (stopped) {
+			synchronized (listeners) {
+				for (Listener listener : listeners) {
+					listener.onStopped();
+				}
+			}
+		}
+	}
+
+	/**
+	 * Replaces a poorly performing network with a new child and dispatches it.
+	 * The child is evaluated on the episodes of the generation it's born in.
+	 * Children with a cached evaluation are fed back without being dispatched.
+	 * The generations are reported on the host's thread.
+	 *
+	 * @param network The evaluated network
+	 * @param evaluation The network's evaluation
+	 */
+	private void onSteadyStateEvaluationFinished(Network network, double evaluation) {
+		Pool.SteadyState state;
+		synchronized (evaluationLock) {
+			state = this.state;
+		}
+		if (state == null) return;
+
+		while (true) {
+			Network child;
+			int generation;
+			int childGeneration;
+			synchronized (state) {
+				generation = pool.getGeneration();
+				child = state.setEvaluation(network, evaluation);
+				childGeneration = pool.getGeneration();
+			}
+			boolean generationDone = childGeneration != generation;
+
+			if (generationDone) generationExecutor.execute(() -> onSteadyStateGeneration(generation, state));
+
+			synchronized (evaluationLock) {
+				if (this.state != state) return;
+			}
+			if (child == null) return;
+
+			long seed = pool.getEvaluationSeed(childGeneration);
+			Double cachedEvaluation = getCachedEvaluation(child, seed);
+			if (cachedEvaluation == null) {
+				dispatch(child, seed);
+				return;
+			}
+
+			network = child;
+			evaluation = cachedEvaluation;
+		}
+	}
+
+	/**
+	 * Returns the cached evaluation of the given network on the episodes of the given seed.
+	 *
+	 * @param network The network
+	 * @param seed The seed the evaluation episodes are derived from
+	 * @return The evaluation or null if it isn't cached or the cache can't be used
+	 */
+	private Double getCachedEvaluation(Network network, long seed) {
+		FitnessCache fitnessCache = this.fitnessCache;
+		if (fitnessCache == null || pool.getProcess().isStochastic()) return null;
+
+		return fitnessCache.get(network, seed, pool.getProcess().getEpisodeCount());
+	}
+
+	/**
+	 * Caches the evaluation of the given network if the cache can be used.
+	 * Undefined and infinite evaluations aren't cached.
+	 *
+	 * @param network The network
+	 * @param seed The seed the network was evaluated with
+	 * @param evaluation The network's evaluation
+	 */
+	private void cacheEvaluation(Network network, long seed, double evaluation) {
+		FitnessCache fitnessCache = this.fitnessCache;
+		if (fitnessCache == null || pool.getProcess().isStochastic()) return;
+		if (Double.isNaN(evaluation) || Double.isInfinite(evaluation)) return;
+
+		fitnessCache.put(network, seed, pool.getProcess().getEpisodeCount(), evaluation);
+	}
+
+	/**
+	 * This is the class collecting the evaluations from the server.
+	 */
+	private class EvaluationListener implements EvaluatorConnection.Listener {
+
+		@Override
+		public void onEvaluationStared(Network network) {
+
+		}
+
+		/**
+		 * Saves the network's evaluation and schedules the next generation if every network has been evaluated.
+		 *
+		 * @param network The evaluated network
+		 * @param evaluation The network's evaluation
+		 */
+		@Override
+		public void onEvaluationFinished(Network network, double evaluation) {
+			evaluationCount.incrementAndGet();
+
+			Long seed;
+			synchronized (evaluationSeeds) {
+				seed = evaluationSeeds.remove(network);
+			}
+			if (network != null && seed != null) cacheEvaluation(network, seed, evaluation);
+
+			if (steadyState) {
+				onSteadyStateEvaluationFinished(network, evaluation);
+				return;
+			}
+
+			Pool.Evaluation finishedEvaluation;
+			synchronized (evaluationLock) {
+				finishedEvaluation = EvaluatorHost.this.evaluation;
+				if (finishedEvaluation == null) return;
+
+				finishedEvaluation.setEvaluation(network, evaluation);
+				if (!finishedEvaluation.isDone()) return;
+
+				EvaluatorHost.this.evaluation = null;
+			}
+
+			generationExecutor.execute(() -> onEvaluationDone(finishedEvaluation));
+		}
+	}
+
+	/**
+	 * A listener that is listening for the finished generations of the host.
+	 */
+	public interface Listener {
+
+		/**
+		 * Gets called on the host's thread after a generation has been evaluated
+		 * and the next one has been calculated.
+		 *
+		 * @param generation The evaluated generation
+		 * @param evaluation The generation's evaluation
+		 */
+		void onGeneration(int generation, Pool.Evaluation evaluation);
+
+		/**
+		 * Gets called when the host stops after a generation.
+		 */
+		void onStopped();
+	}
+}
@@ -0,0 +1,413 @@
+package com.madebyaron.genai.net;
+
+import com.madebyaron.genai.ai.Network;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A relay between a host and a cluster of clients. It connects to the host like a client
+ * and serves it's own clients like a host, so the host only has to send every network once
+ * to the relay instead of to every client. The finished evaluations are sent back in batches.
+ * The relay reports the sum of it's clients' threads as it's own thread count,
+ * so relays can be chained into a tree of any depth.
+ */
+public final class EvaluatorRelay {
+
+	private static final int VALIDATION_TIMEOUT = 5000;
+	private static final int BATCH_SIZE = 64;
+	private static final long BATCH_DELAY = 20;
+
+	private final Socket socket;
+	private final ServerSocket serverSocket;
+
+	private final ConnectionManager connectionManager;
+
+	private String process;
+	private volatile EvaluatorServer server = null;
+
+	private final Thread requestHandlingThread = new Thread(this::handleRequest);
+
+	private final Map<Network, Deque<Long>> pendingRequests = new HashMap<>();
+
+	private final Object batchLock = new Object();
+	private long[] batchIDs = new long[BATCH_SIZE];
+	private double[] batchEvaluations = new double[BATCH_SIZE];
+	private int batchSize = 0;
+
+	private final Map<EvaluatorConnection, Integer> clientThreadCounts = new HashMap<>();
+	private int clientThreadCount = 0;
+	private int reportedThreadCount = 1;
+
+	private final AtomicLong forwardedCount = new AtomicLong();
+	private final AtomicLong batchCount = new AtomicLong();
+
+	private final ScheduledExecutorService batchExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+		Thread thread = new Thread(runnable, "EvaluatorRelay");
+		thread.setDaemon(true);
+		return thread;
+	});
+
+	/**
+	 * Creates a relay connected to a host that serves it's own clients on the given server socket.
+	 * The server is only started after the host's process is received.
+	 *
+	 * @param socket The socket connected to a host (or an other relay)
+	 * @param serverSocket The server socket the relay's clients connect to
+	 */
+	public EvaluatorRelay(Socket socket, ServerSocket serverSocket) {
+		if (socket == null) throw new NullPointerException("Socket can't be null.");
+		if (serverSocket == null) throw new NullPointerException("Server socket can't be null.");
+
+		this.socket = socket;
+		this.serverSocket = serverSocket;
+
+		connectionManager = new ConnectionManager(socket);
+		connectionManager.addListener(exception -> close());
+		connectionManager.perform((in, out) -> {
+			socket.setSoTimeout(VALIDATION_TIMEOUT);
+
+			process = in.readUTF();
+			out.writeUTF(process);
+			out.writeInt(reportedThreadCount);
+			out.flush();
+
+			socket.setSoTimeout(0);
+
+			server = new EvaluatorServer(serverSocket, process);
+			server.addListener(new ServerListener());
+			server.addEvaluationListener(new EvaluationListener());
+
+			requestHandlingThread.start();
+			batchExecutor.scheduleWithFixedDelay(this::sendBatch, BATCH_DELAY, BATCH_DELAY, TimeUnit.MILLISECONDS);
+		});
+	}
+
+	/**
+	 * Returns the address of the host.
+	 *
+	 * @return The address as an InetAddress
+	 */
+	public InetAddress getAddress() {
+		return socket.getInetAddress();
+	}
+
+	/**
+	 * Returns the port of the host.
+	 *
+	 * @return The port as an int
+	 */
+	public int getPort() {
+		return socket.getPort();
+	}
+
+	/**
+	 * Returns the evaluator process' name
+	 *
+	 * @return The process' name
+	 */
+	public String getProcess() {
+		return process;
+	}
+
+	/**
+	 * Returns the server the relay's clients are connected to.
+	 *
+	 * @return The server or null if the connection to the host failed
+	 */
+	public EvaluatorServer getServer() {
+		return server;
+	}
+
+	/**
+	 * Returns the sum of the relay's clients' thread counts.
+	 *
+	 * @return The thread count
+	 */
+	public int getThreadCount() {
+		synchronized (clientThreadCounts) {
+			return clientThreadCount;
+		}
+	}
+
+	/**
+	 * Returns the number of evaluations sent back to the host.
+	 *
+	 * @return The forwarded evaluation count
+	 */
+	public long getForwardedCount() {
+		return forwardedCount.get();
+	}
+
+	/**
+	 * Returns the number of batches sent back to the host.
+	 *
+	 * @return The batch count
+	 */
+	public long getBatchCount() {
+		return batchCount.get();
+	}
+
+	/**
+	 * Returns whether or not the relay is still connected to the host.
+	 *
+	 * @return The relay's connection status
+	 */
+	public boolean isConnected() {
+		return connectionManager.isConnected();
+	}
+
+	/**
+	 * Adds a connection listener to the host's connection.
+	 *
+	 * @param listener The listener
+	 */
+	public void addConnectionListener(ConnectionManager.Listener listener) {
+		connectionManager.addListener(listener);
+	}
+
+	/**
+	 * Removes a connection listener from the host's connection.
+	 *
+	 * @param listener The listener
+	 */
+	public void removeConnectionListener(ConnectionManager.Listener listener) {
+		connectionManager.removeListener(listener);
+	}
+
+	/**
+	 * Disconnects from the host. The relay's server and every client connection is closed too.
+	 */
+	public void disconnect() {
+		connectionManager.disconnect();
+	}
+
+	/**
+	 * Disconnects from the host with an error message.
+	 *
+	 * @param message The error message
+	 */
+	public void disconnect(String message) {
+		connectionManager.perform((in, out) -> {
+			synchronized (connectionManager) {
+				out.writeByte(1);
+				out.writeUTF(message);
+				out.flush();
+			}
+		});
+
+		connectionManager.disconnect();
+	}
+
+	/**
+	 * Closes the relay's server and stops sending the batches.
+	 */
+	private void close() {
+		batchExecutor.shutdown();
+
+		EvaluatorServer server = this.server;
+		if (server != null) {
+			server.close();
+		} else {
+			try {
+				serverSocket.close();
+			} catch (IOException ignored) {
+
+			}
+		}
+	}
+
+	/**
+	 * A loop that receives evaluation requests from the host and passes them to the relay's server.
+	 */
+	private void handleRequest() {
+		while (connectionManager.isConnected()) {
+			connectionManager.perform((in, out) -> {
+				try {
+					if (in.readByte() == 0) {
+						long networkID = in.readLong();
+						long seed = in.readLong();
+						Network network = (Network) in.readObject();
+
+						// The same network object can be received again while it's still pending
+						synchronized (pendingRequests) {
+							pendingRequests.computeIfAbsent(network, key -> new ArrayDeque<>()).add(networkID);
+						}
+
+						server.evaluate(network, seed);
+					} else {
+						String message = in.readUTF();
+						throw new IOException("Server error: " + message);
+					}
+				} catch (ClassNotFoundException e) {
+					disconnect("Received class not found: " + e.getMessage());
+				}
+			});
+		}
+	}
+
+	/**
+	 * Adds the evaluation of every request of the given network to the batch.
+	 * The batch is sent right away if it's full.
+	 *
+	 * @param network The evaluated network
+	 * @param evaluation The network's evaluation
+	 */
+	private void addResult(Network network, double evaluation) {
+		Deque<Long> networkIDs;
+		synchronized (pendingRequests) {
+			networkIDs = pendingRequests.remove(network);
+		}
+		if (networkIDs == null) return;
+
+		boolean full;
+		synchronized (batchLock) {
+			for (long networkID : networkIDs) {
+				if (batchSize == batchIDs.length) {
+					batchIDs = Arrays.copyOf(batchIDs, batchSize * 2);
+					batchEvaluations = Arrays.copyOf(batchEvaluations, batchSize * 2);
+				}
+				batchIDs[batchSize] = networkID;
+				batchEvaluations[batchSize] = evaluation;
+				batchSize++;
+			}
+			full = batchSize >= BATCH_SIZE;
+		}
+
+		if (full) sendBatch();
+	}
+
+	/**
+	 * Sends the collected evaluations to the host in a single message.
+	 */
+	private void sendBatch() {
+		long[] ids;
+		double[] evaluations;
+		int size;
+		synchronized (batchLock) {
+			if (batchSize == 0) return;
+
+			ids = batchIDs;
+			evaluations = batchEvaluations;
+			size = batchSize;
+
+			batchIDs = new long[BATCH_SIZE];
+			batchEvaluations = new double[BATCH_SIZE];
+			batchSize = 0;
+		}
+
+		connectionManager.perform((in, out) -> {
+			synchronized (connectionManager) {
+				out.writeByte(2);
+				out.writeInt(size);
+				for (int i = 0; i < size; i++) {
+					out.writeLong(ids[i]);
+					out.writeDouble(evaluations[i]);
+				}
+				out.flush();
+			}
+		});
+
+		forwardedCount.addAndGet(size);
+		batchCount.incrementAndGet();
+	}
+
+	/**
+	 * Stores the thread count of a client and reports the new sum to the host.
+	 * At least one thread is reported, so the host keeps sending networks while there are no clients.
+	 *
+	 * @param connection The client's connection
+	 * @param threadCount The client's thread count (0 if it has disconnected)
+	 */
+	private void setClientThreadCount(EvaluatorConnection connection, int threadCount) {
+		synchronized (clientThreadCounts) {
+			Integer previous = threadCount > 0 ?
+					clientThreadCounts.put(connection, threadCount) :
+					clientThreadCounts.remove(connection);
+			clientThreadCount += threadCount - (previous != null ? previous : 0);
+
+			int reportedThreadCount = Math.max(clientThreadCount, 1);
+			if (reportedThreadCount == this.reportedThreadCount) return;
+			this.reportedThreadCount = reportedThreadCount;
+
+			connectionManager.perform((in, out) -> {
+				synchronized (connectionManager) {
+					out.writeByte(3);
+					out.writeInt(reportedThreadCount);
+					out.flush();
+				}
+			});
+		}
+	}
+
+	/**
+	 * This is the class tracking the thread count of the relay's clients.
+	 */
+	private class ServerListener implements EvaluatorServer.Listener {
+
+		/**
+		 * Starts tracking the thread count of the new client.
+		 * The thread count of a chained relay changes after it has connected.
+		 *
+		 * @param connection The client's connection
+		 */
+		@Override
+		public void onConnected(EvaluatorConnection connection) {
+			connection.addListener(new EvaluatorConnection.Listener() {
+
+				@Override
+				public void onEvaluationStared(Network network) {
+
+				}
+
+				@Override
+				public void onEvaluationFinished(Network network, double evaluation) {
+
+				}
+
+				@Override
+				public void onThreadCountChanged(int threadCount) {
+					setClientThreadCount(connection, threadCount);
+				}
+			});
+			setClientThreadCount(connection, connection.getThreadCount());
+		}
+
+		@Override
+		public void onDisconnected(EvaluatorConnection connection, IOException exception) {
+			setClientThreadCount(connection, 0);
+		}
+
+		@Override
+		public void onError(IOException exception) {
+
+		}
+	}
+
+	/**
+	 * This is the class collecting the evaluations from the relay's server.
+	 */
+	private class EvaluationListener implements EvaluatorConnection.Listener {
+
+		@Override
+		public void onEvaluationStared(Network network) {
+
+		}
+
+		@Override
+		public void onEvaluationFinished(Network network, double evaluation) {
+			addResult(network, evaluation);
+		}
+	}
+}
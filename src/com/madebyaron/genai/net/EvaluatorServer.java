@@ -1,37 +1,53 @@
 package com.madebyaron.genai.net;
 
 import com.madebyaron.genai.ai.Network;
+import com.madebyaron.genai.metrics.Counter;
+import com.madebyaron.genai.metrics.Histogram;
+import com.madebyaron.genai.metrics.MetricRegistry;
 
 import java.io.IOException;
 import java.net.InetAddress;
 import java.net.ServerSocket;
 import java.net.UnknownHostException;
 import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 /**
  * This is the server that handles connecting clients
  * and distributes the evaluating network between them.
+ * It reports the finished evaluations, the queue depths and the
+ * dispatch-to-result latency of every evaluator to the default metric registry.
+ * The connection listeners are called on the server's own event bus,
+ * so slow listeners don't block the accepting of new connections.
  */
 public final class EvaluatorServer {
 
-	private static final int MAX_CONNECTION_LOAD = 10;
+	private static final int MAX_THREAD_LOAD = 10;
 
 	private final ServerSocket serverSocket;
 	private final String process;
 
 	private final Thread connectionHandlingThread = new Thread(this::handleConnections);
 
-	private final List<Listener> listeners = new LinkedList<>();
-	private final List<EvaluatorConnection.Listener> evaluationListeners = new LinkedList<>();
+	private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+	private final List<EvaluatorConnection.Listener> evaluationListeners = new CopyOnWriteArrayList<>();
+	private final EventBus eventBus;
 
 	private final Collection<EvaluatorConnection> connections = new LinkedList<>();
 	private final Collection<EvaluatorConnection> unmodifiableConnections = Collections.unmodifiableCollection(connections);
 
-	private final Collection<Network> pendingNetworks = new HashSet<>();
-	private final Collection<Network> unmodifiablePendingNetworks = Collections.unmodifiableCollection(pendingNetworks);
+	private final Collection<Evaluator> evaluators = new LinkedList<>();
+
+	private final Map<Network, Long> pendingNetworks = new HashMap<>();
+	private final Collection<Network> unmodifiablePendingNetworks = Collections.unmodifiableCollection(pendingNetworks.keySet());
 
 	private final Queue<Network> bufferedNetworks = new LinkedList<>();
 
+	private final MetricRegistry metrics = MetricRegistry.getDefault();
+	private final Counter evaluationCounter;
+	private final Map<Network, Long> dispatchTimes = new HashMap<>();
+	private final Map<Evaluator, Histogram> latencies = new HashMap<>();
+
 	/**
 	 * The server socket on which the server will be listening.
 	 *
@@ -42,6 +58,18 @@ public final class EvaluatorServer {
 		this.serverSocket = serverSocket;
 		this.process = process;
 
+		eventBus = new EventBus("EvaluatorServer " + getPort());
+
+		String port = Integer.toString(getPort());
+		evaluationCounter = metrics.counter("server_evaluations_total", "port", port);
+		metrics.gauge("server_pending_networks", this::getLoad, "port", port);
+		metrics.gauge("server_buffered_networks", this::getBufferedCount, "port", port);
+		metrics.gauge("server_evaluators", () -> {
+			synchronized (evaluators) {
+				return evaluators.size();
+			}
+		}, "port", port);
+
 		connectionHandlingThread.start();
 	}
 
@@ -110,15 +138,37 @@ public final class EvaluatorServer {
 		}
 	}
 
+	/**
+	 * Returns the number of networks waiting for an evaluator with free capacity.
+	 *
+	 * @return The buffered network count
+	 */
+	public int getBufferedCount() {
+		synchronized (bufferedNetworks) {
+			return bufferedNetworks.size();
+		}
+	}
+
+	/**
+	 * Returns the latency histogram of the given evaluator. It measures the time
+	 * between a network being sent to the evaluator and it's evaluation arriving.
+	 *
+	 * @param evaluator The evaluator (a connection or a local evaluator)
+	 * @return The histogram or null if the evaluator isn't added to this server
+	 */
+	public Histogram getLatency(Evaluator evaluator) {
+		synchronized (latencies) {
+			return latencies.get(evaluator);
+		}
+	}
+
 	/**
 	 * Adds a connection listener to this server
 	 *
 	 * @param listener The listener
 	 */
 	public void addListener(Listener listener) {
-		synchronized (listeners) {
-			listeners.add(listener);
-		}
+		listeners.add(listener);
 	}
 
 	/**
@@ -127,9 +177,7 @@ public final class EvaluatorServer {
 	 * @param listener The listener
 	 */
 	public void removeListener(Listener listener) {
-		synchronized (listeners) {
-			listeners.remove(listener);
-		}
+		listeners.remove(listener);
 	}
 
 	/**
@@ -138,9 +186,7 @@ public final class EvaluatorServer {
 	 * @param listener The listener
 	 */
 	public void addEvaluationListener(EvaluatorConnection.Listener listener) {
-		synchronized (evaluationListeners) {
-			evaluationListeners.add(listener);
-		}
+		evaluationListeners.add(listener);
 	}
 
 	/**
@@ -149,42 +195,40 @@ public final class EvaluatorServer {
 	 * @param listener The listener
 	 */
 	public void removeEvaluationListener(EvaluatorConnection.Listener listener) {
-		synchronized (evaluationListeners) {
-			evaluationListeners.remove(listener);
-		}
+		evaluationListeners.remove(listener);
 	}
 
 	/**
 	 * Initiates the evaluation of the given network.
+	 * The seed is sent with the network to whichever evaluator it's distributed to.
 	 *
 	 * @param network The network to be evaluated
+	 * @param seed The seed the evaluation episodes are derived from
 	 */
-	public void evaluate(Network network) {
+	public void evaluate(Network network, long seed) {
 		synchronized (pendingNetworks) {
-			if (pendingNetworks.contains(network)) {
+			if (pendingNetworks.containsKey(network)) {
 				return;
 			} else {
-				pendingNetworks.add(network);
+				pendingNetworks.put(network, seed);
 			}
 		}
 
-		synchronized (evaluationListeners) {
-			for (EvaluatorConnection.Listener listener : evaluationListeners) {
-				listener.onEvaluationStared(network);
-			}
+		for (EvaluatorConnection.Listener listener : evaluationListeners) {
+			listener.onEvaluationStared(network);
 		}
 
-		EvaluatorConnection leastLoadedConnection = null;
-		synchronized (connections) {
-			for (EvaluatorConnection connection : connections) {
-				if (leastLoadedConnection == null || connection.getLoad() < leastLoadedConnection.getLoad()) {
-					leastLoadedConnection = connection;
+		Evaluator leastLoadedEvaluator = null;
+		synchronized (evaluators) {
+			for (Evaluator evaluator : evaluators) {
+				if (leastLoadedEvaluator == null || isLessLoaded(evaluator, leastLoadedEvaluator)) {
+					leastLoadedEvaluator = evaluator;
 				}
 			}
 		}
 
-		if (leastLoadedConnection != null && leastLoadedConnection.getLoad() < MAX_CONNECTION_LOAD) {
-			leastLoadedConnection.evaluate(network);
+		if (leastLoadedEvaluator != null && hasCapacity(leastLoadedEvaluator)) {
+			dispatch(leastLoadedEvaluator, network, seed);
 		} else {
 			synchronized (bufferedNetworks) {
 				bufferedNetworks.add(network);
@@ -192,6 +236,39 @@ public final class EvaluatorServer {
 		}
 	}
 
+	/**
+	 * Adds a local evaluator that the networks are distributed to next to the connected clients.
+	 *
+	 * @param evaluator The evaluator
+	 */
+	public void addEvaluator(LocalEvaluator evaluator) {
+		EvaluatorConnection.Listener listener = createEvaluationListener(evaluator);
+		evaluator.addListener(listener);
+
+		synchronized (evaluators) {
+			if (evaluators.contains(evaluator)) {
+				evaluator.removeListener(listener);
+				return;
+			}
+			evaluators.add(evaluator);
+		}
+		addLatency(evaluator);
+
+		evaluateBuffered(evaluator);
+	}
+
+	/**
+	 * Removes a local evaluator. It's remaining evaluations are still collected.
+	 *
+	 * @param evaluator The evaluator
+	 */
+	public void removeEvaluator(LocalEvaluator evaluator) {
+		synchronized (evaluators) {
+			evaluators.remove(evaluator);
+		}
+		removeLatency(evaluator);
+	}
+
 	/**
 	 * Closes the server and every connection.
 	 */
@@ -207,6 +284,116 @@ public final class EvaluatorServer {
 				connection.disconnect();
 			}
 		}
+
+		String port = Integer.toString(getPort());
+		metrics.remove("server_evaluations_total", "port", port);
+		metrics.remove("server_pending_networks", "port", port);
+		metrics.remove("server_buffered_networks", "port", port);
+		metrics.remove("server_evaluators", "port", port);
+	}
+
+	/**
+	 * Sends a network to an evaluator and remembers when it was sent.
+	 *
+	 * @param evaluator The evaluator
+	 * @param network The network
+	 * @param seed The seed the evaluation episodes are derived from
+	 */
+	private void dispatch(Evaluator evaluator, Network network, long seed) {
+		synchronized (dispatchTimes) {
+			dispatchTimes.put(network, System.nanoTime());
+		}
+		evaluator.evaluate(network, seed);
+	}
+
+	/**
+	 * Returns the name of an evaluator used as the label of it's metrics.
+	 *
+	 * @param evaluator The evaluator
+	 * @return The evaluator's name
+	 */
+	private static String getName(Evaluator evaluator) {
+		if (evaluator instanceof EvaluatorConnection) {
+			EvaluatorConnection connection = (EvaluatorConnection) evaluator;
+			return connection.getAddress().getHostAddress() + ":" + connection.getPort();
+		}
+		return "local@" + Integer.toHexString(System.identityHashCode(evaluator));
+	}
+
+	/**
+	 * Creates the latency histogram of a new evaluator.
+	 *
+	 * @param evaluator The evaluator
+	 */
+	private void addLatency(Evaluator evaluator) {
+		Histogram latency = metrics.histogram("evaluation_latency_seconds", "port", Integer.toString(getPort()), "evaluator", getName(evaluator));
+		synchronized (latencies) {
+			latencies.put(evaluator, latency);
+		}
+	}
+
+	/**
+	 * Removes the latency histogram of a removed evaluator.
+	 *
+	 * @param evaluator The evaluator
+	 */
+	private void removeLatency(Evaluator evaluator) {
+		synchronized (latencies) {
+			latencies.remove(evaluator);
+		}
+		metrics.remove("evaluation_latency_seconds", "port", Integer.toString(getPort()), "evaluator", getName(evaluator));
+	}
+
+	/**
+	 * Returns whether or not the given evaluator can take more networks.
+	 * The capacity of an evaluator is proportional to it's thread count.
+	 *
+	 * @param evaluator The evaluator
+	 * @return True if the evaluator isn't fully loaded
+	 */
+	private static boolean hasCapacity(Evaluator evaluator) {
+		return evaluator.getLoad() < MAX_THREAD_LOAD * evaluator.getThreadCount();
+	}
+
+	/**
+	 * Returns whether or not an evaluator has less load per thread than an other.
+	 *
+	 * @param evaluator The evaluator
+	 * @param other The other evaluator
+	 * @return True if the evaluator is less loaded than the other
+	 */
+	private static boolean isLessLoaded(Evaluator evaluator, Evaluator other) {
+		return (long) evaluator.getLoad() * other.getThreadCount() < (long) other.getLoad() * evaluator.getThreadCount();
+	}
+
+	/**
+	 * Distributes the buffered networks to the given evaluator while it has capacity.
+	 * Removed evaluators don't receive any more networks
+	 * and networks that were evaluated in the meantime are skipped.
+	 *
+	 * @param evaluator The evaluator
+	 */
+	private void evaluateBuffered(Evaluator evaluator) {
+		synchronized (evaluators) {
+			if (!evaluators.contains(evaluator)) return;
+		}
+
+		while (hasCapacity(evaluator)) {
+			Network bufferedNetwork;
+			synchronized (bufferedNetworks) {
+				bufferedNetwork = bufferedNetworks.poll();
+			}
+
+			if (bufferedNetwork == null) break;
+
+			Long seed;
+			synchronized (pendingNetworks) {
+				seed = pendingNetworks.get(bufferedNetwork);
+			}
+			if (seed != null) {
+				dispatch(evaluator, bufferedNetwork, seed);
+			}
+		}
 	}
 
 	/**
@@ -222,30 +409,28 @@ public final class EvaluatorServer {
 				synchronized (connections) {
 					connections.add(connection);
 				}
+				synchronized (evaluators) {
+					evaluators.add(connection);
+				}
+				addLatency(connection);
 
-				synchronized (listeners) {
+				eventBus.post(() -> {
 					for (Listener listener : listeners) {
 						listener.onConnected(connection);
 					}
-				}
+				});
 
-				while (connection.getLoad() < MAX_CONNECTION_LOAD) {
-					synchronized (bufferedNetworks) {
-						if (bufferedNetworks.size() > 0) {
-							connection.evaluate(bufferedNetworks.remove());
-						} else {
-							break;
-						}
-					}
-				}
+				evaluateBuffered(connection);
 			}
 		} catch (IOException e) {
-			synchronized (listeners) {
+			eventBus.post(() -> {
 				for (Listener listener : listeners) {
 					listener.onError(e);
 				}
-			}
+			});
 		}
+
+		eventBus.close();
 	}
 
 	/**
@@ -256,20 +441,24 @@ public final class EvaluatorServer {
 	 */
 	private ConnectionManager.Listener createConnectionListener(EvaluatorConnection connection) {
 		return exception -> {
-			synchronized (listeners) {
+			eventBus.post(() -> {
 				for (Listener listener : listeners) {
 					listener.onDisconnected(connection, exception);
 				}
-			}
+			});
 
 			synchronized (connections) {
 				connections.remove(connection);
 			}
+			synchronized (evaluators) {
+				evaluators.remove(connection);
+			}
+			removeLatency(connection);
 
 			// Watch out for this nested synchronization! (possible deadlock)
 			for (Network network : connection.getPendingNetworks()) {
 				synchronized (pendingNetworks) {
-					if (pendingNetworks.contains(network)) {
+					if (pendingNetworks.containsKey(network)) {
 						synchronized (bufferedNetworks) {
 							bufferedNetworks.add(network);
 						}
@@ -280,12 +469,12 @@ public final class EvaluatorServer {
 	}
 
 	/**
-	 * Creates an evaluation listener that listens for the evaluation callbacks of the given connection.
+	 * Creates an evaluation listener that listens for the evaluation callbacks of the given evaluator.
 	 *
-	 * @param connection The connection
+	 * @param evaluator The evaluator
 	 * @return The new listener
 	 */
-	private EvaluatorConnection.Listener createEvaluationListener(EvaluatorConnection connection) {
+	private EvaluatorConnection.Listener createEvaluationListener(Evaluator evaluator) {
 		return new EvaluatorConnection.Listener() {
 
 			@Override
@@ -297,29 +486,66 @@ public final class EvaluatorServer {
 			public void onEvaluationFinished(Network network, double evaluation) {
 				boolean contains;
 				synchronized (pendingNetworks) {
-					contains = pendingNetworks.remove(network);
+					contains = pendingNetworks.remove(network) != null;
+				}
+
+				Long dispatchTime;
+				synchronized (dispatchTimes) {
+					dispatchTime = dispatchTimes.remove(network);
+				}
+				if (dispatchTime != null) {
+					Histogram latency = getLatency(evaluator);
+					if (latency != null) latency.record(System.nanoTime() - dispatchTime);
 				}
 
 				if (contains) {
-					synchronized (evaluationListeners) {
-						for (EvaluatorConnection.Listener listener : evaluationListeners) {
-							listener.onEvaluationFinished(network, evaluation);
-						}
+					evaluationCounter.increment();
+					for (EvaluatorConnection.Listener listener : evaluationListeners) {
+						listener.onEvaluationFinished(network, evaluation);
 					}
 				}
 
-				while (connection.getLoad() < MAX_CONNECTION_LOAD) {
-					Network bufferedNetwork;
-					synchronized (bufferedNetworks) {
-						bufferedNetwork = bufferedNetworks.poll();
+				evaluateBuffered(evaluator);
+			}
+
+			@Override
+			public void onEvaluationFailed(Network network, Exception exception) {
+				// The evaluator is dropped like a client disconnecting with an error
+				synchronized (evaluators) {
+					evaluators.remove(evaluator);
+				}
+				removeLatency(evaluator);
+
+				synchronized (dispatchTimes) {
+					dispatchTimes.remove(network);
+				}
+
+				boolean contains;
+				synchronized (pendingNetworks) {
+					contains = pendingNetworks.containsKey(network);
+					if (contains) {
+						synchronized (bufferedNetworks) {
+							bufferedNetworks.add(network);
+						}
 					}
+				}
 
-					if (bufferedNetwork != null) {
-						connection.evaluate(bufferedNetwork);
-					} else {
-						break;
+				if (contains) {
+					for (EvaluatorConnection.Listener listener : evaluationListeners) {
+						listener.onEvaluationFailed(network, exception);
 					}
 				}
+
+				List<Evaluator> remainingEvaluators;
+				synchronized (evaluators) {
+					remainingEvaluators = new ArrayList<>(evaluators);
+				}
+				for (Evaluator remainingEvaluator : remainingEvaluators) evaluateBuffered(remainingEvaluator);
+			}
+
+			@Override
+			public void onThreadCountChanged(int threadCount) {
+				evaluateBuffered(evaluator);
 			}
 		};
 	}
@@ -0,0 +1,65 @@
+package com.madebyaron.genai.net;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * An asynchronous event bus that calls the listeners on it's own thread,
+ * so the socket threads only have to decode the messages and post the events.
+ * The events are delivered one by one in the order they were posted.
+ * The queue is bounded, posting to a full queue waits until there's room,
+ * which slows down the reading of the socket instead of running out of memory.
+ */
+final class EventBus {
+
+	private static final int CAPACITY = 4096;
+
+	private final ThreadPoolExecutor executor;
+
+	/**
+	 * Creates an event bus with a single dispatch thread.
+	 *
+	 * @param name The name of the dispatch thread
+	 */
+	EventBus(String name) {
+		executor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(CAPACITY), runnable -> {
+			Thread thread = new Thread(runnable, name);
+			thread.setDaemon(true);
+			return thread;
+		}, (event, executor) -> {
+			if (executor.isShutdown()) {
+				event.run();
+				return;
+			}
+
+			try {
+				executor.getQueue().put(event);
+
+				// The bus could have been closed while waiting, so the event might not be taken anymore
+				if (executor.isShutdown() && executor.getQueue().remove(event)) event.run();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new RejectedExecutionException("Interrupted while posting an event", e);
+			}
+		});
+	}
+
+	/**
+	 * Posts an event to be delivered on the dispatch thread.
+	 * Events posted after the bus is closed are delivered on the posting thread.
+	 *
+	 * @param event The event calling the listeners
+	 */
+	void post(Runnable event) {
+		executor.execute(event);
+	}
+
+	/**
+	 * Closes the bus. The already posted events are still delivered.
+	 */
+	void close() {
+		executor.shutdown();
+	}
+}
@@ -0,0 +1,415 @@
+package com.madebyaron.genai.net;
+
+import com.madebyaron.genai.ai.Network;
+import com.madebyaron.genai.ai.Pool;
+import com.madebyaron.genai.ai.RandomSource;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.DoubleBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * An island of the island model. Every island is a host evolving it's own pool,
+ * and every few generations it sends it's best networks to it's peers (the other islands).
+ * The received networks join the pool as immigrants. This way the population
+ * isn't limited by the memory and the dispatch capacity of a single host.
+ * The migrants are sent on short connections, so the islands can be started,
+ * stopped and restarted in any order. Only the topology and the connection strengths
+ * of the migrants are sent, the same way as they're stored in a pool file,
+ * so nothing received from the network is deserialized as an object.
+ */
+public final class Island implements EvaluatorHost.Listener {
+
+	private static final int CONNECTION_TIMEOUT = 5000;
+	private static final int MAX_LAYER_COUNT = 1024;
+
+	private final Pool pool;
+	private final ServerSocket serverSocket;
+	private final List<InetSocketAddress> peers;
+
+	private volatile Topology topology = Topology.RING;
+	private volatile int migrationInterval = 10;
+	private volatile int migrantCount = 5;
+
+	private final Thread migrationHandlingThread = new Thread(this::handleMigrations);
+
+	private final List<Listener> listeners = new LinkedList<>();
+
+	private final ExecutorService emigrationExecutor = Executors.newSingleThreadExecutor(runnable -> {
+		Thread thread = new Thread(runnable, "Island");
+		thread.setDaemon(true);
+		return thread;
+	});
+
+	/**
+	 * Creates an island that receives migrants on the given server socket into the given pool.
+	 * In ring topology the peers should be the following islands of the ring in order.
+	 *
+	 * @param pool The island's pool
+	 * @param serverSocket The server socket the migrants are received on
+	 * @param peers The addresses of the other islands
+	 */
+	public Island(Pool pool, ServerSocket serverSocket, List<InetSocketAddress> peers) {
+		if (pool == null) throw new NullPointerException("Pool can't be null.");
+		if (serverSocket == null) throw new NullPointerException("Server socket can't be null.");
+		if (peers == null) throw new NullPointerException("Peers can't be null.");
+
+		this.pool = pool;
+		this.serverSocket = serverSocket;
+		this.peers = Collections.unmodifiableList(new ArrayList<>(peers));
+
+		migrationHandlingThread.setName("Island " + serverSocket.getLocalPort());
+		migrationHandlingThread.setDaemon(true);
+		migrationHandlingThread.start();
+	}
+
+	/**
+	 * Returns the port the migrants are received on.
+	 *
+	 * @return The port as an int
+	 */
+	public int getPort() {
+		return serverSocket.getLocalPort();
+	}
+
+	/**
+	 * Returns the addresses of the other islands.
+	 *
+	 * @return An unmodifiable list of the peers
+	 */
+	public List<InetSocketAddress> getPeers() {
+		return peers;
+	}
+
+	/**
+	 * Sets the topology deciding which peers receive the migrants.
+	 *
+	 * @param topology The topology
+	 */
+	public void setTopology(Topology topology) {
+		if (topology == null) throw new NullPointerException("Topology can't be null.");
+
+		this.topology = topology;
+	}
+
+	/**
+	 * Sets the number of generations between two migrations.
+	 *
+	 * @param migrationInterval The migration interval
+	 */
+	public void setMigrationInterval(int migrationInterval) {
+		if (migrationInterval < 1) throw new IllegalArgumentException("Migration interval must be positive.");
+
+		this.migrationInterval = migrationInterval;
+	}
+
+	/**
+	 * Sets the number of best networks sent to a peer in every migration.
+	 *
+	 * @param migrantCount The migrant count
+	 */
+	public void setMigrantCount(int migrantCount) {
+		if (migrantCount < 1) throw new IllegalArgumentException("Migrant count must be positive.");
+
+		this.migrantCount = migrantCount;
+	}
+
+	/**
+	 * Adds an island listener to this island.
+	 *
+	 * @param listener The listener
+	 */
+	public void addListener(Listener listener) {
+		synchronized (listeners) {
+			listeners.add(listener);
+		}
+	}
+
+	/**
+	 * Removes an island listener from this island.
+	 *
+	 * @param listener The listener
+	 */
+	public void removeListener(Listener listener) {
+		synchronized (listeners) {
+			listeners.remove(listener);
+		}
+	}
+
+	/**
+	 * Stops receiving and sending migrants.
+	 */
+	public void close() {
+		try {
+			serverSocket.close();
+		} catch (IOException ignored) {
+
+		}
+
+		emigrationExecutor.shutdown();
+	}
+
+	/**
+	 * Sends the best networks of every few generations to the peers.
+	 * The networks are sent on the island's own thread, so the host isn't blocked.
+	 *
+	 * @param generation The evaluated generation
+	 * @param evaluation The generation's evaluation
+	 */
+	@Override
+	public void onGeneration(int generation, Pool.Evaluation evaluation) {
+		if (peers.isEmpty() || (generation + 1) % migrationInterval != 0) return;
+
+		List<Network> migrants = evaluation.getBestNetworks(migrantCount);
+		if (migrants.isEmpty()) return;
+
+		emigrationExecutor.execute(() -> emigrate(migrants));
+	}
+
+	@Override
+	public void onStopped() {
+
+	}
+
+	/**
+	 * Sends the migrants to the peers chosen by the topology.
+	 * In ring topology an unreachable peer is skipped, so the ring isn't broken by a single island.
+	 *
+	 * @param migrants The migrant networks
+	 */
+	private void emigrate(List<Network> migrants) {
+		List<InetSocketAddress> targets = new ArrayList<>(peers);
+		if (topology == Topology.RANDOM) {
+			Collections.swap(targets, 0, RandomSource.getDefault().current().nextInt(targets.size()));
+		}
+
+		for (InetSocketAddress peer : targets) {
+			try {
+				send(peer, migrants);
+
+				synchronized (listeners) {
+					for (Listener listener : listeners) {
+						listener.onEmigrated(peer, migrants.size());
+					}
+				}
+				return;
+			} catch (IOException e) {
+				synchronized (listeners) {
+					for (Listener listener : listeners) {
+						listener.onError(peer, e);
+					}
+				}
+			}
+
+			if (topology == Topology.RANDOM) return;
+		}
+	}
+
+	/**
+	 * Sends the migrants to the given peer on a new connection.
+	 * The peer answers with it's process first, the migrants are only sent if it's the same.
+	 *
+	 * @param peer The peer's address
+	 * @param migrants The migrant networks
+	 * @throws IOException Any exception thrown while connecting or sending
+	 */
+	private void send(InetSocketAddress peer, List<Network> migrants) throws IOException {
+		try (Socket socket = new Socket()) {
+			socket.connect(new InetSocketAddress(peer.getHostString(), peer.getPort()), CONNECTION_TIMEOUT);
+			socket.setSoTimeout(CONNECTION_TIMEOUT);
+
+			DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+			DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+
+			String process = in.readUTF();
+			if (!process.equals(pool.getProcess().getName())) {
+				throw new IOException("Invalid process: " + process);
+			}
+			int[] neuronCounts = readTopology(in);
+			if (!Arrays.equals(neuronCounts, getNeuronCounts(migrants.get(0)))) {
+				throw new IOException("The peer's network topology doesn't match");
+			}
+
+			DoubleBuffer connections = DoubleBuffer.allocate(migrants.get(0).getConnectionCount());
+			out.writeInt(migrants.size());
+			writeTopology(out, neuronCounts);
+			for (Network migrant : migrants) {
+				connections.clear();
+				migrant.getConnections(connections);
+				for (int i = 0; i < connections.capacity(); i++) out.writeDouble(connections.get(i));
+			}
+			out.flush();
+
+			// Waits for the peer to confirm that every migrant has been received
+			in.readBoolean();
+		}
+	}
+
+	/**
+	 * A loop that receives the migrants sent by the peers.
+	 * The connections are handled one by one with a timeout, as they only last for a single migration.
+	 */
+	private void handleMigrations() {
+		while (!serverSocket.isClosed()) {
+			try (Socket socket = serverSocket.accept()) {
+				socket.setSoTimeout(CONNECTION_TIMEOUT);
+				InetAddress address = socket.getInetAddress();
+
+				List<Network> members = pool.getNetworks();
+				if (members.isEmpty()) throw new IOException("The pool is empty");
+				int[] neuronCounts = getNeuronCounts(members.get(0));
+
+				DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+				out.writeUTF(pool.getProcess().getName());
+				writeTopology(out, neuronCounts);
+				out.flush();
+				DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+
+				int count = in.readInt();
+				if (count < 0 || count > members.size()) throw new IOException("Invalid migrant count: " + count);
+				if (!Arrays.equals(readTopology(in), neuronCounts)) throw new IOException("Invalid migrant topology");
+
+				// The strengths are read with the pool's own topology, so their size is bounded by it
+				int hiddenLayerCount = neuronCounts.length - 2;
+				int[] hiddenNeuronCount = Arrays.copyOfRange(neuronCounts, 1, 1 + hiddenLayerCount);
+				DoubleBuffer connections = DoubleBuffer.allocate(
+						Network.getConnectionCount(neuronCounts[0], neuronCounts[neuronCounts.length - 1], hiddenNeuronCount)
+				);
+				List<Network> migrants = new ArrayList<>(count);
+				for (int migrant = 0; migrant < count; migrant++) {
+					connections.clear();
+					while (connections.hasRemaining()) {
+						double strength = in.readDouble();
+						if (Double.isNaN(strength) || Double.isInfinite(strength)) throw new IOException("Invalid migrant strength");
+						connections.put(strength);
+					}
+					connections.flip();
+					migrants.add(new Network(neuronCounts[0], neuronCounts[neuronCounts.length - 1], hiddenNeuronCount, connections));
+				}
+
+				out.writeBoolean(true);
+				out.flush();
+
+				pool.immigrate(migrants);
+
+				synchronized (listeners) {
+					for (Listener listener : listeners) {
+						listener.onImmigrated(address, migrants.size());
+					}
+				}
+			} catch (IOException e) {
+				if (serverSocket.isClosed()) return;
+
+				synchronized (listeners) {
+					for (Listener listener : listeners) {
+						listener.onError(null, e);
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * Returns the number of neurons in every layer of a network.
+	 *
+	 * @param network The network
+	 * @return The neuron counts
+	 */
+	private static int[] getNeuronCounts(Network network) {
+		int[] neuronCounts = new int[network.getLayerCount()];
+		for (int layer = 0; layer < neuronCounts.length; layer++) neuronCounts[layer] = network.getNeuronCount(layer);
+		return neuronCounts;
+	}
+
+	/**
+	 * Writes the number of neurons in every layer.
+	 *
+	 * @param out The output stream
+	 * @param neuronCounts The neuron counts
+	 * @throws IOException Any exception thrown while writing
+	 */
+	private static void writeTopology(DataOutputStream out, int[] neuronCounts) throws IOException {
+		out.writeInt(neuronCounts.length);
+		for (int neuronCount : neuronCounts) out.writeInt(neuronCount);
+	}
+
+	/**
+	 * Reads the number of neurons in every layer.
+	 *
+	 * @param in The input stream
+	 * @return The neuron counts
+	 * @throws IOException Any exception thrown while reading or if the topology is invalid
+	 */
+	private static int[] readTopology(DataInputStream in) throws IOException {
+		int layerCount = in.readInt();
+		if (layerCount < 2 || layerCount > MAX_LAYER_COUNT) throw new IOException("Invalid layer count: " + layerCount);
+
+		int[] neuronCounts = new int[layerCount];
+		for (int layer = 0; layer < layerCount; layer++) {
+			neuronCounts[layer] = in.readInt();
+			if (neuronCounts[layer] < 0) throw new IOException("Invalid neuron count: " + neuronCounts[layer]);
+		}
+		return neuronCounts;
+	}
+
+	/**
+	 * The topologies deciding which peers receive the migrants.
+	 */
+	public enum Topology {
+
+		/**
+		 * The migrants are sent to the first reachable peer,
+		 * which is the next island of the ring.
+		 */
+		RING,
+
+		/**
+		 * The migrants are sent to a randomly chosen peer.
+		 */
+		RANDOM
+	}
+
+	/**
+	 * A listener that is listening for the migrations of the island.
+	 */
+	public interface Listener {
+
+		/**
+		 * Gets called when migrants have been sent to a peer.
+		 *
+		 * @param peer The peer's address
+		 * @param count The number of migrants
+		 */
+		void onEmigrated(InetSocketAddress peer, int count);
+
+		/**
+		 * Gets called when migrants have been received from a peer.
+		 *
+		 * @param address The peer's address
+		 * @param count The number of migrants
+		 */
+		void onImmigrated(InetAddress address, int count);
+
+		/**
+		 * Gets called when a migration fails.
+		 *
+		 * @param peer The peer's address or null if the migration was incoming
+		 * @param exception The exception that caused the failure
+		 */
+		void onError(InetSocketAddress peer, IOException exception);
+	}
+}
@@ -0,0 +1,113 @@
+package com.madebyaron.genai.net;
+
+import com.madebyaron.genai.ai.Network;
+import com.madebyaron.genai.ai.Process;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * An evaluator that evaluates the networks in the host's process on a fork/join pool.
+ * The networks aren't serialized or copied, the evaluation runs on the same objects as the pool's.
+ * It can be added to a server next to the remote clients.
+ */
+public final class LocalEvaluator implements Evaluator {
+
+	private final Process process;
+	private final int threadCount;
+
+	private final ForkJoinPool executor;
+	private final AtomicInteger load = new AtomicInteger();
+
+	private final List<EvaluatorConnection.Listener> listeners = new CopyOnWriteArrayList<>();
+
+	/**
+	 * Creates a local evaluator.
+	 *
+	 * @param process The evaluator process
+	 * @param threadCount The number of evaluating threads
+	 */
+	public LocalEvaluator(Process process, int threadCount) {
+		if (process == null) throw new NullPointerException("Process can't be null.");
+		if (threadCount < 1) throw new IllegalArgumentException("Thread count must be positive.");
+
+		this.process = process;
+		this.threadCount = threadCount;
+
+		executor = new ForkJoinPool(threadCount);
+	}
+
+	/**
+	 * Returns the evaluator process.
+	 *
+	 * @return The process
+	 */
+	public Process getProcess() {
+		return process;
+	}
+
+	@Override
+	public int getThreadCount() {
+		return threadCount;
+	}
+
+	@Override
+	public int getLoad() {
+		return load.get();
+	}
+
+	@Override
+	public void addListener(EvaluatorConnection.Listener listener) {
+		listeners.add(listener);
+	}
+
+	@Override
+	public void removeListener(EvaluatorConnection.Listener listener) {
+		listeners.remove(listener);
+	}
+
+	/**
+	 * Initiates the evaluation of the given network on one of the evaluator's threads.
+	 * A network failing with an exception is reported to the listeners without an evaluation.
+	 *
+	 * @param network The network to be evaluated
+	 * @param seed The seed the evaluation episodes are derived from
+	 */
+	@Override
+	public void evaluate(Network network, long seed) {
+		load.incrementAndGet();
+
+		for (EvaluatorConnection.Listener listener : listeners) {
+			listener.onEvaluationStared(network);
+		}
+
+		executor.execute(() -> {
+			double evaluation;
+			try {
+				evaluation = process.evaluate(network, seed);
+			} catch (RuntimeException e) {
+				load.decrementAndGet();
+
+				for (EvaluatorConnection.Listener listener : listeners) {
+					listener.onEvaluationFailed(network, e);
+				}
+				return;
+			}
+
+			load.decrementAndGet();
+
+			for (EvaluatorConnection.Listener listener : listeners) {
+				listener.onEvaluationFinished(network, evaluation);
+			}
+		});
+	}
+
+	/**
+	 * Stops the evaluator after finishing the networks it already received.
+	 */
+	public void close() {
+		executor.shutdown();
+	}
+}
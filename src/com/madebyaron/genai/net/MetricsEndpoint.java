@@ -0,0 +1,85 @@
+package com.madebyaron.genai.net;
+
+import com.madebyaron.genai.metrics.MetricRegistry;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.StringWriter;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * A local HTTP endpoint serving the metrics of a registry as plain text on /metrics.
+ * It's pull based: the metrics are only written when they're requested,
+ * so a monitoring tool can scrape it at any interval. It only listens on the loopback address.
+ */
+public final class MetricsEndpoint {
+
+	private static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+	private final MetricRegistry registry;
+	private final HttpServer server;
+
+	/**
+	 * Starts serving the metrics of the given registry on the given local port.
+	 *
+	 * @param registry The registry
+	 * @param port The port (0 for any free port)
+	 * @throws IOException If the port can't be bound
+	 */
+	public MetricsEndpoint(MetricRegistry registry, int port) throws IOException {
+		if (registry == null) throw new NullPointerException("Registry can't be null.");
+
+		this.registry = registry;
+
+		server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+		server.createContext("/metrics", this::handle);
+		server.start();
+	}
+
+	/**
+	 * Returns the port the metrics are served on.
+	 *
+	 * @return The port as an int
+	 */
+	public int getPort() {
+		return server.getAddress().getPort();
+	}
+
+	/**
+	 * Stops serving the metrics.
+	 */
+	public void close() {
+		server.stop(0);
+	}
+
+	/**
+	 * Writes the metrics as the response of a request.
+	 *
+	 * @param exchange The request and it's response
+	 * @throws IOException Any exception thrown while responding
+	 */
+	private void handle(HttpExchange exchange) throws IOException {
+		try {
+			if (!exchange.getRequestMethod().equals("GET")) {
+				exchange.sendResponseHeaders(405, -1);
+				return;
+			}
+
+			StringWriter writer = new StringWriter();
+			registry.write(writer);
+			byte[] response = writer.toString().getBytes(StandardCharsets.UTF_8);
+
+			exchange.getResponseHeaders().set("Content-Type", CONTENT_TYPE);
+			exchange.sendResponseHeaders(200, response.length);
+			try (OutputStream body = exchange.getResponseBody()) {
+				body.write(response);
+			}
+		} finally {
+			exchange.close();
+		}
+	}
+}